@@ -0,0 +1,147 @@
+package com.prototype.model.apis;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.imageio.ImageIO;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time and allocation of decoding one camera frame through
+ * {@link GoogleApiZxing#bufferQr(BufferedImage)}, after converting the frame
+ * with {@link Java2DFrameConverter} as {@link CvApi#readQr()} used to, and
+ * through {@link GoogleApiZxing#frameQr(Frame)}, which reads it in place.
+ *
+ * <p>
+ * The {@code grey*} benchmarks start from the frame already in grey, as the
+ * decoders of {@link QrDecodePipeline} do, and compare decoding the whole
+ * frame with {@link RegionQrDecoder}: locating the code and then decoding
+ * its region, or decoding a region tracked from the previous frame.
+ * </p>
+ *
+ * <p>
+ * By default the frame is synthetic: a QR code 300 pixels wide on a grey
+ * background of the resolution given by {@code size}. Pass a real gate frame
+ * with {@code -p image=/path/frame.png}; it must contain a readable code.
+ * </p>
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark compile exec:exec -Djmh.args="QrDecode -prof gc"};
+ * the GC profiler reports the bytes allocated per decode
+ * ({@code gc.alloc.rate.norm}).
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class QrDecodeBenchmark {
+
+    private static final String CODE = "1024,2048";
+
+    @Param({"640x480", "1920x1080"})
+    private String size;
+
+    @Param("")
+    private String image;
+
+    private final Java2DFrameConverter converter = new Java2DFrameConverter();
+    private final FrameDecoder decoder = new FrameDecoder(DecodeProfile.FAST_GATE);
+    private final AtomicReference<RegionQrDecoder.Region> tracked = new AtomicReference<>();
+    private final RegionQrDecoder regionDecoder = new RegionQrDecoder(tracked, DecodeProfile.FAST_GATE);
+    private final Mat grey = new Mat();
+    private Frame frame;
+
+    @Setup(Level.Trial)
+    public void prepareFrame() throws Exception {
+        BufferedImage source = image.isEmpty() ? syntheticFrame() : ImageIO.read(new File(image));
+        if (source == null) {
+            throw new IOException("No se pudo leer la imagen " + image);
+        }
+        BufferedImage bgr = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D graphics = bgr.createGraphics();
+        graphics.drawImage(source, 0, 0, null);
+        graphics.dispose();
+        try (Java2DFrameConverter loader = new Java2DFrameConverter()) {
+            frame = loader.convert(bgr).clone();
+        }
+        try (OpenCVFrameConverter.ToMat toMat = new OpenCVFrameConverter.ToMat()) {
+            FrameDecoder.toGrey(toMat.convert(frame), grey);
+        }
+        if (bufferedImage() == null || frameInPlace() == null || greyFullFrame() == null
+                || greyDetectRegion() == null || greyTrackedRegion() == null) {
+            throw new IllegalStateException("La imagen de prueba no contiene un código QR legible.");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        converter.close();
+        regionDecoder.close();
+        grey.close();
+        frame.close();
+    }
+
+    private BufferedImage syntheticFrame() throws Exception {
+        String[] dimensions = size.split("x");
+        BufferedImage canvas = new BufferedImage(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]),
+                BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D graphics = canvas.createGraphics();
+        graphics.setColor(Color.GRAY);
+        graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        BufferedImage qr = GoogleApiZxing.generateImagen(GoogleApiZxing.createQr(CODE));
+        graphics.drawImage(qr, (canvas.getWidth() - qr.getWidth()) / 3, (canvas.getHeight() - qr.getHeight()) / 2, null);
+        graphics.dispose();
+        return canvas;
+    }
+
+    @Benchmark
+    public String bufferedImage() {
+        return GoogleApiZxing.bufferQr(converter.convert(frame), DecodeProfile.FAST_GATE);
+    }
+
+    @Benchmark
+    public String frameInPlace() {
+        return GoogleApiZxing.frameQr(frame, DecodeProfile.FAST_GATE);
+    }
+
+    @Benchmark
+    public String greyFullFrame() {
+        return decoder.decodeGrey(grey);
+    }
+
+    @Benchmark
+    public String greyDetectRegion() {
+        tracked.set(null);
+        return regionDecoder.decode(grey);
+    }
+
+    @Benchmark
+    public String greyTrackedRegion() {
+        return regionDecoder.decode(grey);
+    }
+}
@@ -0,0 +1,219 @@
+package com.prototype.model.apis;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.ConvolveOp;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Kernel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decode rate and latency of every {@link DecodeProfile} over a corpus of
+ * frames, decoded in turn.
+ *
+ * <p>
+ * Pass a directory of real gate frames (PNG or JPEG) with
+ * {@code -p corpus=/path/frames}, ideally captured at the gate with the
+ * lighting and distances of production, including frames without a code.
+ * Without it a synthetic corpus is generated: codes of several sizes on
+ * 1280x720 frames, sharp, blurred, rotated, with low contrast or noise,
+ * printed labels cropped to the code, and empty frames.
+ * </p>
+ *
+ * <p>
+ * Besides the latency of each decode, JMH reports the {@code decoded} and
+ * {@code missed} counters; their ratio is the decode rate of the profile.
+ * Run with {@code mvn -Pbenchmark compile exec:exec -Djmh.args="QrProfile"}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class QrProfileBenchmark {
+
+    private static final String CODE = "1024,2048";
+
+    @Param({"fast-gate", "robust", "pure-printed-label"})
+    private String profile;
+
+    @Param("")
+    private String corpus;
+
+    private final List<Mat> frames = new ArrayList<>();
+    private FrameDecoder decoder;
+    private int next;
+
+    /**
+     * Frames decoded and missed in each iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcome {
+
+        public long decoded;
+        public long missed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            decoded = 0;
+            missed = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void loadCorpus() throws Exception {
+        decoder = new FrameDecoder(DecodeProfile.fromName(profile));
+        List<BufferedImage> images = corpus.isEmpty() ? syntheticCorpus() : readCorpus(Paths.get(corpus));
+        if (images.isEmpty()) {
+            throw new IOException("El corpus no contiene imágenes: " + corpus);
+        }
+        for (BufferedImage image : images) {
+            frames.add(toGreyMat(image));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        frames.forEach(Mat::close);
+        frames.clear();
+    }
+
+    @Benchmark
+    public String decode(Outcome outcome) {
+        Mat frame = frames.get(next);
+        next = (next + 1) % frames.size();
+        String code = decoder.decodeGrey(frame);
+        if (code != null) {
+            outcome.decoded++;
+        } else {
+            outcome.missed++;
+        }
+        return code;
+    }
+
+    private static List<BufferedImage> readCorpus(Path directory) throws IOException {
+        List<BufferedImage> images = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().toList()) {
+                String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+                if (name.endsWith(".png") || name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+                    BufferedImage image = ImageIO.read(file.toFile());
+                    if (image != null) {
+                        images.add(image);
+                    }
+                }
+            }
+        }
+        return images;
+    }
+
+    private static List<BufferedImage> syntheticCorpus() throws Exception {
+        BufferedImage qr = GoogleApiZxing.generateImagen(GoogleApiZxing.createQr(CODE));
+        Random random = new Random(42);
+        List<BufferedImage> images = new ArrayList<>();
+        for (int size : new int[] {120, 200, 300}) {
+            images.add(frame(qr, size, 0, 255, 0, random));
+            images.add(blur(frame(qr, size, 0, 255, 0, random)));
+            images.add(frame(qr, size, 15, 255, 0, random));
+            images.add(frame(qr, size, 0, 150, 0, random));
+            images.add(frame(qr, size, 0, 255, 40, random));
+        }
+        images.add(qr);
+        images.add(blur(qr));
+        for (int i = 0; i < 4; i++) {
+            images.add(frame(null, 0, 0, 255, 20, random));
+        }
+        return images;
+    }
+
+    /**
+     * Draws a code on a 1280x720 frame of a mid-grey background.
+     *
+     * @param qr       the code, or {@code null} for an empty frame
+     * @param size     the side of the code, in pixels
+     * @param degrees  the rotation of the code
+     * @param paper    the grey level of the light modules, lower for less contrast
+     * @param noise    the amplitude of the noise added to every pixel
+     */
+    private static BufferedImage frame(BufferedImage qr, int size, int degrees, int paper, int noise, Random random) {
+        BufferedImage frame = new BufferedImage(1280, 720, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = frame.createGraphics();
+        graphics.setColor(Color.GRAY);
+        graphics.fillRect(0, 0, frame.getWidth(), frame.getHeight());
+        if (qr != null) {
+            int x = 100 + random.nextInt(frame.getWidth() - size - 200);
+            int y = 50 + random.nextInt(frame.getHeight() - size - 100);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.rotate(Math.toRadians(degrees), x + size / 2.0, y + size / 2.0);
+            graphics.drawImage(qr, x, y, size, size, null);
+        }
+        graphics.dispose();
+        byte[] pixels = ((DataBufferByte) frame.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < pixels.length; i++) {
+            int value = pixels[i] & 0xFF;
+            if (value > 200) {
+                value = value * paper / 255;
+            }
+            if (noise > 0) {
+                value += random.nextInt(2 * noise + 1) - noise;
+            }
+            pixels[i] = (byte) Math.max(0, Math.min(255, value));
+        }
+        return frame;
+    }
+
+    private static BufferedImage blur(BufferedImage image) {
+        float[] weights = new float[9];
+        Arrays.fill(weights, 1f / 9);
+        BufferedImage grey = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = grey.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return new ConvolveOp(new Kernel(3, 3, weights), ConvolveOp.EDGE_NO_OP, null).filter(grey, null);
+    }
+
+    private static Mat toGreyMat(BufferedImage image) {
+        BufferedImage grey = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = grey.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        byte[] pixels = ((DataBufferByte) grey.getRaster().getDataBuffer()).getData();
+        Mat mat = new Mat(grey.getHeight(), grey.getWidth(), opencv_core.CV_8UC1);
+        mat.data().put(pixels);
+        return mat;
+    }
+}
@@ -0,0 +1,443 @@
+package com.prototype.model.daos;
+
+import java.lang.System.Logger.Level;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Query;
+
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Connects the benchmarks to a dedicated database, seeds it with realistic
+ * volumes and removes the seeded rows afterwards.
+ *
+ * <p>
+ * The benchmarks never use the database of {@code persistence.xml}. They
+ * run against the MySQL given by the system properties {@code bench.jdbc.url},
+ * {@code bench.jdbc.user} and {@code bench.jdbc.password}, which must be a
+ * database of its own, or, when no URL is given, against a throwaway MySQL
+ * started with Testcontainers ({@code bench.mysql.image}, {@code mysql:8.0}
+ * by default) and removed when the JVM exits. Pass the properties to the
+ * forked JVMs with {@code -jvmArgsAppend}.
+ * </p>
+ *
+ * <p>
+ * Rows are generated by the database itself with {@code INSERT ... SELECT}
+ * over a recursive sequence, {@value #BATCH} rows per transaction, so ten
+ * million requests take minutes instead of hours. The volumes are the
+ * system properties {@code bench.providers} (100), {@code bench.equipment}
+ * (10,000) and {@code bench.people} (50,000), and the number of requests
+ * given to {@link #seed(long)}. The tables should be empty beforehand, or
+ * the existing rows count towards the volume being measured.
+ * </p>
+ *
+ * <p>
+ * A seeded volume is recorded in the {@code bench_seed} table. When another
+ * JVM asks for the same volume, such as a fork started by
+ * {@link PersistenceBenchmarkRunner}, it reuses the rows instead of seeding
+ * them again, and its {@link #cleanUp()} deletes only the rows its
+ * benchmarks saved; the JVM that seeded the volume deletes the rest.
+ * </p>
+ *
+ * <p>
+ * The id generators are moved past the seeded identifiers, so entities
+ * saved through the DAOs afterwards get fresh ones. Requests are spread
+ * over the equipment and people with two co-prime strides and three seconds
+ * apart, the most recent one now. {@link #cleanUp()} deletes every row from
+ * the first seeded identifier of each table on, which covers the rows the
+ * benchmarks saved as well.
+ * </p>
+ */
+final class BenchmarkDatabase {
+
+    private static final System.Logger LOGGER = System.getLogger(BenchmarkDatabase.class.getName());
+
+    static final long PROVIDERS = Long.getLong("bench.providers", 100);
+    static final long EQUIPMENT = Long.getLong("bench.equipment", 10_000);
+    static final long PEOPLE = Long.getLong("bench.people", 50_000);
+
+    private static final int BATCH = 100_000;
+
+    private static final String ROLES = "'WATCHMAN', 'ADMIN', 'DOCTOR', 'NURSE', 'SECRETARY', 'BOSS',"
+            + " 'MAINTENANCE_MAN'";
+
+    private static final String[] HELPERS = {"bench_provider_ids", "bench_equipment_ids", "bench_person_ids"};
+
+    private static String url;
+
+    /** First identifier {@link #cleanUp()} deletes in each table, in insertion order. */
+    private static final Map<String, Long> SEEDED = new LinkedHashMap<>();
+
+    /** Identifier after the last seeded row of each table, recorded in {@code bench_seed}. */
+    private static final Map<String, Long> SEEDED_END = new LinkedHashMap<>();
+
+    /** Whether this JVM seeded the rows, and so deletes them with the helper tables. */
+    private static boolean owned;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Points the persistence layer at the benchmark database and starts it.
+     * It must run before any DAO is created, since the configuration is read
+     * once. Calling it again has no effect.
+     *
+     * @throws IllegalStateException if the persistence layer was already
+     *         started against another database
+     */
+    static synchronized void start() {
+        if (url == null) {
+            String configured = System.getProperty("bench.jdbc.url");
+            if (configured != null && !configured.isBlank()) {
+                url = configured;
+                System.setProperty("javax.persistence.jdbc.user", System.getProperty("bench.jdbc.user", ""));
+                System.setProperty("javax.persistence.jdbc.password", System.getProperty("bench.jdbc.password", ""));
+            } else {
+                MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse(
+                        System.getProperty("bench.mysql.image", "mysql:8.0")).asCompatibleSubstituteFor("mysql"));
+                mysql.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(mysql::stop));
+                url = mysql.getJdbcUrl();
+                System.setProperty("javax.persistence.jdbc.user", mysql.getUsername());
+                System.setProperty("javax.persistence.jdbc.password", mysql.getPassword());
+            }
+            System.setProperty("javax.persistence.jdbc.url", url);
+        }
+        PersistenceBootstrap.start().join();
+        Map<String, Object> properties = PersistenceBootstrap.factory().getProperties();
+        Object connected = properties.getOrDefault("javax.persistence.jdbc.url",
+                properties.get("hibernate.connection.url"));
+        if (!url.equals(connected)) {
+            throw new IllegalStateException("La capa de persistencia ya estaba conectada a otra base de datos; "
+                    + "el benchmark solo usa la base de datos dedicada.");
+        }
+    }
+
+    /**
+     * @return the JVM options that point a forked JVM at the same database
+     */
+    static synchronized List<String> forkArguments() {
+        start();
+        return List.of("-Dbench.jdbc.url=" + url,
+                "-Dbench.jdbc.user=" + System.getProperty("javax.persistence.jdbc.user", ""),
+                "-Dbench.jdbc.password=" + System.getProperty("javax.persistence.jdbc.password", ""));
+    }
+
+    /**
+     * Inserts the base volumes and {@code requests} entry requests, or
+     * reuses them if another JVM already seeded that volume. Calling it
+     * again before {@link #cleanUp()} has no effect.
+     *
+     * @param requests number of entry requests to insert
+     */
+    static synchronized void seed(long requests) {
+        start();
+        if (!SEEDED.isEmpty()) {
+            return;
+        }
+        Map<String, long[]> seeded = readSeed();
+        if (!seeded.isEmpty()) {
+            if (seeded.get("entry_request")[2] == requests) {
+                seeded.forEach((table, ids) -> SEEDED.put(table, ids[1]));
+                owned = false;
+                LOGGER.log(Level.INFO, "Se reutilizan las {0} solicitudes ya sembradas", requests);
+                return;
+            }
+            // Left by an interrupted run of another volume.
+            seeded.forEach((table, ids) -> SEEDED.put(table, ids[0]));
+            owned = true;
+            cleanUp();
+        }
+        owned = true;
+        long start = System.nanoTime();
+        seedTable("providers", "providers", PROVIDERS, (em, first, count) -> insert(em,
+                "INSERT INTO providers (id, name, tax_id, contact_email, address)",
+                "SELECT ?1 + n, CONCAT('Proveedor ', ?1 + n), LPAD(?1 + n, 13, '0'),"
+                        + " CONCAT('proveedor', ?1 + n, '@bench.local'), 'Calle 1 # 2-3' FROM seq", first, count));
+        seedTable("people", "people", PEOPLE, (em, first, count) -> insert(em,
+                "INSERT INTO people (id, full_name, document, role)",
+                "SELECT ?1 + n, CONCAT('Persona ', ?1 + n), CONCAT('CC', ?1 + n), ELT(1 + (?1 + n) % 7, "
+                        + ROLES + ") FROM seq", first, count));
+
+        index("bench_provider_ids", "providers");
+        seedTable("equipments", "equipments", EQUIPMENT, (em, first, count) -> {
+            insert(em, "INSERT INTO equipments (id, serial, brand, model, type, state, image_path, frequencyType,"
+                    + " id_provider)",
+                    "SELECT ?1 + n, CONCAT('SN-', ?1 + n), 'Lenovo', 'ThinkPad T14', 'TECH', 'IN_USE', '',"
+                            + " 'FREQUENT', p.id FROM seq JOIN bench_provider_ids p"
+                            + " ON p.n = (?1 + n) % (SELECT COUNT(*) FROM bench_provider_ids)", first, count);
+            insert(em, "INSERT INTO Tech_equipments (id, os, ramGB)",
+                    "SELECT ?1 + n, 'Windows 11', 16 FROM seq", first, count);
+        });
+
+        index("bench_equipment_ids", "equipments");
+        index("bench_person_ids", "people");
+        LocalDateTime origin = LocalDateTime.now().minusSeconds(requests * 3);
+        seedTable("entry_request", "entry_request", requests, (em, first, count) -> {
+            em.createNativeQuery("SET SESSION cte_max_recursion_depth = " + (BATCH + 1)).executeUpdate();
+            em.createNativeQuery("INSERT INTO entry_request (id, id_equipment, requester_id, purpose,"
+                            + " requested_at, requestType)"
+                            + " WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < ?2 - 1)"
+                            + " SELECT ?1 + n, e.id, p.id, 'Benchmark', ?3 + INTERVAL ((?1 + n) * 3) SECOND,"
+                            + " IF((?1 + n) % 2 = 0, 'ENTRY', 'EXIT') FROM seq"
+                            + " JOIN bench_equipment_ids e ON e.n = ((?1 + n) * 7919) % ?4"
+                            + " JOIN bench_person_ids p ON p.n = ((?1 + n) * 104729) % ?5")
+                    .setParameter(1, first)
+                    .setParameter(2, count)
+                    .setParameter(3, origin)
+                    .setParameter(4, count(em, "bench_equipment_ids"))
+                    .setParameter(5, count(em, "bench_person_ids"))
+                    .executeUpdate();
+        });
+        new EquipmentPresenceDAO().rebuild();
+        writeSeed(requests);
+        LOGGER.log(Level.INFO, "Base de datos de benchmark lista en {0} s",
+                (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    /**
+     * Starts watching the tables without seeding them, for benchmarks that
+     * insert their own rows: {@link #cleanUp()} deletes whatever is inserted
+     * afterwards. Calling it again before {@link #cleanUp()} has no effect.
+     */
+    static synchronized void track() {
+        start();
+        if (!SEEDED.isEmpty()) {
+            return;
+        }
+        for (String table : new String[] {"providers", "people", "equipments", "entry_request"}) {
+            SEEDED.put(table, nextId(table, table));
+        }
+        owned = false;
+    }
+
+    /**
+     * Deletes every row inserted since {@link #seed(long)} or
+     * {@link #track()}, in batches of {@value #BATCH} rows: the seeded rows
+     * with the helper tables if this JVM seeded them, and the rows the
+     * benchmarks saved. The id generators are left where they are.
+     */
+    static synchronized void cleanUp() {
+        if (SEEDED.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long people = SEEDED.get("people");
+        long equipment = SEEDED.get("equipments");
+        deleteBatches("DELETE FROM equipment_presence WHERE person_id >= ?1 OR equipment_id >= ?2"
+                + " LIMIT " + BATCH, people, equipment);
+        deleteBatches("DELETE FROM entry_request WHERE id >= ?1 LIMIT " + BATCH, SEEDED.get("entry_request"));
+        deleteBatches("DELETE FROM Tech_equipments WHERE id >= ?1 LIMIT " + BATCH, equipment);
+        deleteBatches("DELETE FROM biomedical_equipments WHERE id >= ?1 LIMIT " + BATCH, equipment);
+        deleteBatches("DELETE FROM equipments WHERE id >= ?1 LIMIT " + BATCH, equipment);
+        deleteBatches("DELETE FROM people WHERE id >= ?1 LIMIT " + BATCH, people);
+        deleteBatches("DELETE FROM providers WHERE id >= ?1 LIMIT " + BATCH, SEEDED.get("providers"));
+        if (owned) {
+            inTransaction(em -> {
+                for (String helper : HELPERS) {
+                    em.createNativeQuery("DROP TABLE IF EXISTS " + helper).executeUpdate();
+                }
+                em.createNativeQuery("DROP TABLE IF EXISTS bench_seed").executeUpdate();
+                return null;
+            });
+        }
+        SEEDED.clear();
+        SEEDED_END.clear();
+        LOGGER.log(Level.INFO, "Filas del benchmark eliminadas en {0} s",
+                (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    /**
+     * Runs a limited delete until it removes no row, each batch in its own
+     * transaction so the undo log stays small.
+     */
+    private static void deleteBatches(String delete, Object... parameters) {
+        int removed;
+        do {
+            removed = inTransaction(em -> {
+                Query query = em.createNativeQuery(delete);
+                for (int i = 0; i < parameters.length; i++) {
+                    query.setParameter(i + 1, parameters[i]);
+                }
+                return query.executeUpdate();
+            });
+        } while (removed > 0);
+    }
+
+    /**
+     * Picks requests spread over the whole identifier range, each read with
+     * one indexed lookup instead of a sort of the table.
+     *
+     * @param samples number of requests to pick
+     * @return the {@code id}, {@code id_equipment} and {@code requester_id} of each request
+     */
+    static List<long[]> sampleRequests(int samples) {
+        return inTransaction(em -> {
+            Object[] range = (Object[]) em.createNativeQuery("SELECT MIN(id), MAX(id) FROM entry_request")
+                    .getSingleResult();
+            if (range[0] == null) {
+                throw new IllegalStateException("La base de datos de benchmark no tiene solicitudes.");
+            }
+            long min = ((Number) range[0]).longValue();
+            long max = ((Number) range[1]).longValue();
+            Random random = new Random(42);
+            List<long[]> picked = new ArrayList<>(samples);
+            while (picked.size() < samples) {
+                long from = min + (long) (random.nextDouble() * (max - min + 1));
+                @SuppressWarnings("unchecked")
+                List<Object[]> rows = em.createNativeQuery("SELECT id, id_equipment, requester_id FROM entry_request"
+                                + " WHERE id >= ?1 AND requester_id IS NOT NULL ORDER BY id LIMIT 1")
+                        .setParameter(1, from)
+                        .getResultList();
+                if (!rows.isEmpty()) {
+                    Object[] row = rows.get(0);
+                    picked.add(new long[] {((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                            ((Number) row[2]).longValue()});
+                }
+            }
+            return picked;
+        });
+    }
+
+    /**
+     * Inserts {@code rows} rows into a table, in batches, after its highest
+     * identifier, and records the first one for {@link #cleanUp()}.
+     */
+    private static void seedTable(String table, String generator, long rows, BatchInsert insert) {
+        long first = nextId(table, generator);
+        SEEDED.put(table, first);
+        SEEDED_END.put(table, first + rows);
+        LOGGER.log(Level.INFO, "Sembrando {0} filas en {1}", rows, table);
+        for (long done = 0; done < rows; done += BATCH) {
+            long batchFirst = first + done;
+            int count = (int) Math.min(BATCH, rows - done);
+            inTransaction(em -> {
+                insert.run(em, batchFirst, count);
+                return null;
+            });
+        }
+        inTransaction(em -> em.createNativeQuery(
+                        "UPDATE id_generator SET next_val = GREATEST(next_val, ?2 + 51) WHERE sequence_name = ?1")
+                .setParameter(1, generator)
+                .setParameter(2, first + rows - 1)
+                .executeUpdate());
+    }
+
+    /**
+     * Records the seeded identifiers of each table and the volume in
+     * {@code bench_seed}.
+     */
+    private static void writeSeed(long requests) {
+        inTransaction(em -> {
+            em.createNativeQuery("CREATE TABLE IF NOT EXISTS bench_seed (table_name VARCHAR(64) PRIMARY KEY,"
+                    + " first_id BIGINT NOT NULL, end_id BIGINT NOT NULL, requests BIGINT NOT NULL)"
+                    + " ENGINE = InnoDB").executeUpdate();
+            em.createNativeQuery("DELETE FROM bench_seed").executeUpdate();
+            for (Map.Entry<String, Long> seeded : SEEDED.entrySet()) {
+                em.createNativeQuery("INSERT INTO bench_seed (table_name, first_id, end_id, requests)"
+                                + " VALUES (?1, ?2, ?3, ?4)")
+                        .setParameter(1, seeded.getKey())
+                        .setParameter(2, seeded.getValue())
+                        .setParameter(3, SEEDED_END.get(seeded.getKey()))
+                        .setParameter(4, requests)
+                        .executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @return the first identifier, the identifier after the last one and
+     *         the volume of requests of each seeded table, empty if nothing
+     *         is seeded
+     */
+    private static Map<String, long[]> readSeed() {
+        return inTransaction(em -> {
+            Map<String, long[]> seeded = new LinkedHashMap<>();
+            Number tables = (Number) em.createNativeQuery("SELECT COUNT(*) FROM information_schema.tables"
+                    + " WHERE table_schema = DATABASE() AND table_name = 'bench_seed'").getSingleResult();
+            if (tables.longValue() == 0) {
+                return seeded;
+            }
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = em.createNativeQuery("SELECT table_name, first_id, end_id, requests"
+                    + " FROM bench_seed ORDER BY first_id").getResultList();
+            for (Object[] row : rows) {
+                seeded.put((String) row[0], new long[] {((Number) row[1]).longValue(),
+                        ((Number) row[2]).longValue(), ((Number) row[3]).longValue()});
+            }
+            return seeded;
+        });
+    }
+
+    /**
+     * Returns the first identifier free both in a table and in its generator.
+     */
+    private static long nextId(String table, String generator) {
+        return inTransaction(em -> ((Number) em.createNativeQuery(
+                        "SELECT GREATEST(COALESCE((SELECT MAX(id) FROM " + table + "), 0),"
+                                + " COALESCE((SELECT next_val FROM id_generator WHERE sequence_name = ?1), 0)) + 1")
+                .setParameter(1, generator)
+                .getSingleResult()).longValue());
+    }
+
+    /**
+     * Numbers the identifiers of a table from zero in a helper table, so the
+     * generated rows can reference existing rows whatever the gaps between
+     * their identifiers.
+     */
+    private static void index(String helper, String table) {
+        inTransaction(em -> {
+            em.createNativeQuery("DROP TABLE IF EXISTS " + helper).executeUpdate();
+            em.createNativeQuery("CREATE TABLE " + helper + " (n BIGINT PRIMARY KEY, id BIGINT NOT NULL)"
+                    + " ENGINE = InnoDB").executeUpdate();
+            return em.createNativeQuery("INSERT INTO " + helper + " (n, id)"
+                    + " SELECT ROW_NUMBER() OVER (ORDER BY id) - 1, id FROM " + table).executeUpdate();
+        });
+    }
+
+    private static void insert(EntityManager em, String insert, String select, long first, int count) {
+        em.createNativeQuery("SET SESSION cte_max_recursion_depth = " + (BATCH + 1)).executeUpdate();
+        em.createNativeQuery(insert + " WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq"
+                        + " WHERE n < ?2 - 1) " + select)
+                .setParameter(1, first)
+                .setParameter(2, count)
+                .executeUpdate();
+    }
+
+    private static long count(EntityManager em, String table) {
+        return ((Number) em.createNativeQuery("SELECT COUNT(*) FROM " + table).getSingleResult()).longValue();
+    }
+
+    private static <R> R inTransaction(Function<EntityManager, R> work) {
+        EntityManager em = PersistenceBootstrap.factory().createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            R result = work.apply(em);
+            tx.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface BatchInsert {
+        void run(EntityManager em, long first, int count);
+    }
+}
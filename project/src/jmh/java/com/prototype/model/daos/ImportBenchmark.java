@@ -0,0 +1,105 @@
+package com.prototype.model.daos;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.prototype.model.dtos.ImportReport;
+import com.prototype.model.enums.Role;
+import com.prototype.services.CsvImportService;
+
+/**
+ * Throughput of the CSV import of people, the largest import of a
+ * deployment.
+ *
+ * <p>
+ * Each invocation imports a file of {@code rows} synthetic people, one
+ * million by default, into the dedicated database of
+ * {@link BenchmarkDatabase}; the imported rows are deleted after every
+ * iteration, outside the measured time, so the same documents can be
+ * imported again and nothing is left behind. JMH reports the time of one
+ * import; the rows per second of each one are logged from its
+ * {@link ImportReport}.
+ * </p>
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark compile exec:exec -Djmh.args="Import"}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ImportBenchmark {
+
+    private static final System.Logger LOGGER = System.getLogger(ImportBenchmark.class.getName());
+
+    @Param({"1000000"})
+    public int rows;
+
+    private CsvImportService service;
+    private Path file;
+    private ImportReport last;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        BenchmarkDatabase.start();
+        service = new CsvImportService();
+        file = Files.createTempFile("people-benchmark-", ".csv");
+        Role[] roles = Role.values();
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("full_name,document,role");
+            out.newLine();
+            for (int i = 0; i < rows; i++) {
+                out.write("Persona " + i + ",BM-" + i + "," + roles[i % roles.length].name());
+                out.newLine();
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void track() {
+        BenchmarkDatabase.track();
+    }
+
+    @Benchmark
+    public ImportReport importPeople() {
+        last = service.importPeople(file);
+        return last;
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteImported() {
+        if (last != null) {
+            LOGGER.log(System.Logger.Level.INFO, "Importadas {0} de {1} filas, {2} rechazadas, a {3} filas/s",
+                    last.getRowsImported(), last.getRowsRead(), last.getRowsRejected(),
+                    Math.round(last.getRowsPerSecond()));
+        }
+        BenchmarkDatabase.cleanUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".errors.csv"));
+    }
+}
@@ -0,0 +1,160 @@
+package com.prototype.model.daos;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.prototype.model.dtos.EntryRequestRow;
+import com.prototype.model.entities.EntryRequest;
+import com.prototype.model.entities.Person;
+import com.prototype.model.entities.Provider;
+import com.prototype.model.enums.Role;
+
+/**
+ * Throughput and latency of the generic DAO operations and of
+ * {@link EntryRequestDAO#lastRequest}, the query behind every gate scan.
+ *
+ * <p>
+ * Each benchmark runs in throughput and sample-time modes; the latter
+ * reports the p50, p90, p99, p99.9 and maximum of every operation. The data
+ * is seeded in the dedicated database of {@link BenchmarkDatabase}; every
+ * row the benchmarks saved is deleted when the trial ends.
+ * Lookups pick random rows, so the second-level cache only helps as much as
+ * it would in production: people are cached, entry requests are not.
+ * </p>
+ *
+ * <p>
+ * {@link PersistenceBenchmarkRunner} runs every benchmark with 10 thousand
+ * to 10 million entry requests in the database, seeding each volume once
+ * for all the benchmarks and forks, so the curve of {@code lastRequest} and
+ * {@code findById} against the size of the history is measured rather than
+ * assumed; an indexed lookup should stay flat. A plain JMH run uses 10
+ * thousand requests, seeded again by each fork, which suits a quick check.
+ * </p>
+ *
+ * <p>
+ * Run the sweep with {@code mvn -Pbenchmark compile exec:exec
+ * -Djmh.main=com.prototype.model.daos.PersistenceBenchmarkRunner}, or a
+ * plain run with {@code mvn -Pbenchmark compile exec:exec}; pass JMH options with
+ * {@code -Djmh.args}, for instance {@code -Djmh.args="lastRequest -t 4"}
+ * for four concurrent gates, or
+ * {@code -Djmh.args="-jvmArgsAppend -Dbench.jdbc.url=..."} to use a
+ * database of your own instead of a container.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    private static final int SAMPLES = 4096;
+
+    /** Entry requests in the database, set for each volume by {@link PersistenceBenchmarkRunner}. */
+    @Param({"10000"})
+    public long requests;
+
+    // Created once the benchmark database is configured, which must come first.
+    private PersonDAO personDAO;
+    private ProviderDAO providerDAO;
+    private EntryRequestDAO entryRequestDAO;
+
+    private List<long[]> samples;
+    private Person updated;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        BenchmarkDatabase.seed(requests);
+        personDAO = new PersonDAO();
+        providerDAO = new ProviderDAO();
+        entryRequestDAO = new EntryRequestDAO();
+        samples = BenchmarkDatabase.sampleRequests(SAMPLES);
+        updated = personDAO.save(new Person("Persona benchmark", "BENCH-UPDATE", Role.NURSE));
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        BenchmarkDatabase.cleanUp();
+    }
+
+    private long[] randomRequest() {
+        return samples.get(ThreadLocalRandom.current().nextInt(samples.size()));
+    }
+
+    @Benchmark
+    public Person save() {
+        return personDAO.save(new Person("Persona benchmark", "BENCH-" + System.nanoTime(), Role.DOCTOR));
+    }
+
+    @Benchmark
+    public EntryRequest findById() {
+        return entryRequestDAO.findById(randomRequest()[0]);
+    }
+
+    @Benchmark
+    public Person findByIdCached() {
+        return personDAO.findById(randomRequest()[2]);
+    }
+
+    @Benchmark
+    public List<Provider> findAll() {
+        return providerDAO.findAll();
+    }
+
+    @Benchmark
+    public Person update() {
+        updated.setFullName("Persona benchmark " + System.nanoTime());
+        return personDAO.update(updated);
+    }
+
+    @Benchmark
+    public Person delete(DeleteState state) {
+        return personDAO.delete(state.id);
+    }
+
+    @Benchmark
+    public EntryRequestRow lastRequest() {
+        long[] request = randomRequest();
+        return entryRequestDAO.lastRequest(request[1], request[2]);
+    }
+
+    /**
+     * Saves, outside the measured time, the person each {@code delete}
+     * invocation removes.
+     */
+    @State(Scope.Thread)
+    public static class DeleteState {
+
+        private PersonDAO personDAO;
+
+        private Long id;
+
+        @Setup(Level.Trial)
+        public void connect() {
+            BenchmarkDatabase.start();
+            personDAO = new PersonDAO();
+        }
+
+        @Setup(Level.Invocation)
+        public void create() {
+            id = personDAO.save(new Person("Persona benchmark", "BENCH-DEL-" + System.nanoTime(), Role.BOSS))
+                    .getId();
+        }
+    }
+}
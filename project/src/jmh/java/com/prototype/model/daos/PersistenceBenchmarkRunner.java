@@ -0,0 +1,86 @@
+package com.prototype.model.daos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link PersistenceBenchmark} with 10 thousand to 10 million entry
+ * requests in the database, seeding each volume once.
+ *
+ * <p>
+ * In a plain JMH run every fork seeds the database again, which for ten
+ * million requests takes longer than the measurements themselves. This
+ * runner starts the dedicated database of {@link BenchmarkDatabase} in its
+ * own JVM and, for each volume, seeds it, runs the benchmarks with
+ * {@code -p requests} set to that volume in forks pointed at the same
+ * database, which reuse the seeded rows, and deletes the rows before the
+ * next volume.
+ * </p>
+ *
+ * <p>
+ * The volumes are {@code bench.volumes}, comma-separated
+ * ({@code 10000,100000,1000000,10000000} by default). The arguments are the
+ * usual JMH options; {@code -Dbench.*} properties given with
+ * {@code -jvmArgsAppend} apply to this JVM as well, so a database of your
+ * own is used for the seeding too. A result file given with {@code -rff}
+ * is written once per volume, with the volume added to its name.
+ * </p>
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark compile exec:exec
+ * -Djmh.main=com.prototype.model.daos.PersistenceBenchmarkRunner [-Djmh.args="lastRequest"]}.
+ * </p>
+ */
+public final class PersistenceBenchmarkRunner {
+
+    private static final String DEFAULT_VOLUMES = "10000,100000,1000000,10000000";
+
+    private PersistenceBenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        List<String> forkArguments = new ArrayList<>(options.getJvmArgsAppend().orElse(Collections.emptyList()));
+        for (String argument : forkArguments) {
+            int equals = argument.indexOf('=');
+            if (argument.startsWith("-Dbench.") && equals > 0) {
+                System.setProperty(argument.substring(2, equals), argument.substring(equals + 1));
+            }
+        }
+        forkArguments.addAll(BenchmarkDatabase.forkArguments());
+
+        for (String volume : System.getProperty("bench.volumes", DEFAULT_VOLUMES).split(",")) {
+            long requests = Long.parseLong(volume.trim());
+            BenchmarkDatabase.seed(requests);
+            try {
+                ChainedOptionsBuilder run = new OptionsBuilder()
+                        .parent(options)
+                        .param("requests", Long.toString(requests))
+                        .jvmArgsAppend(forkArguments.toArray(String[]::new));
+                if (options.getIncludes().isEmpty()) {
+                    run.include(PersistenceBenchmark.class.getSimpleName());
+                }
+                if (options.getResult().hasValue()) {
+                    run.result(withVolume(options.getResult().get(), requests));
+                }
+                new Runner(run.build()).run();
+            } finally {
+                BenchmarkDatabase.cleanUp();
+            }
+        }
+    }
+
+    private static String withVolume(String file, long requests) {
+        int dot = file.lastIndexOf('.');
+        return dot > file.lastIndexOf('/') ? file.substring(0, dot) + "-" + requests + file.substring(dot)
+                : file + "-" + requests;
+    }
+}
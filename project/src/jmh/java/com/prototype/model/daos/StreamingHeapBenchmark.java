@@ -0,0 +1,140 @@
+package com.prototype.model.daos;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.prototype.model.entities.EntryRequest;
+
+/**
+ * Heap retained while walking every entry request with
+ * {@link AbstractGenericDAO#streamAll(int)}, compared with loading them all
+ * with {@link AbstractGenericDAO#findAll()}.
+ *
+ * <p>
+ * The dedicated database of {@link BenchmarkDatabase} is seeded with one
+ * million requests by default. Every {@value #SAMPLE_EVERY} rows the walk
+ * runs a full collection and reads the used heap, so the figure is the live
+ * data held at that point rather than garbage waiting to be collected. The
+ * highest reading above the heap in use before the walk is logged at the
+ * end of each invocation: it should stay flat for the stream, whatever the
+ * number of rows and the fetch size, and grow with the rows for
+ * {@code findAll}. A stream that retains more than
+ * {@code bench.stream.max_heap_mb} (64 MB by default) fails the run, so a
+ * regression of {@code streamAll} does not go unnoticed. The collections
+ * make the reported times meaningless; run {@link PersistenceBenchmark} for
+ * latency.
+ * </p>
+ *
+ * <p>
+ * The rows live in MySQL rather than in an embedded database: the schema
+ * is created by MySQL-specific Flyway migrations, and what is measured is
+ * the cursor of the MySQL driver ({@code useCursorFetch}), which an
+ * embedded database would replace with its own.
+ * </p>
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark compile exec:exec -Djmh.args="StreamingHeap"}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StreamingHeapBenchmark {
+
+    private static final System.Logger LOGGER = System.getLogger(StreamingHeapBenchmark.class.getName());
+
+    private static final int SAMPLE_EVERY = 100_000;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private static final long MAX_STREAM_HEAP = Long.getLong("bench.stream.max_heap_mb", 64) * 1024 * 1024;
+
+    @Param({"1000000"})
+    public long requests;
+
+    @Param({"500"})
+    public int fetchSize;
+
+    // Created once the benchmark database is configured, which must come first.
+    private EntryRequestDAO entryRequestDAO;
+
+    private long baseline;
+    private long peak;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        BenchmarkDatabase.seed(requests);
+        entryRequestDAO = new EntryRequestDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        BenchmarkDatabase.cleanUp();
+    }
+
+    @Setup(Level.Invocation)
+    public void measureBaseline() {
+        baseline = liveHeap();
+        peak = 0;
+    }
+
+    @TearDown(Level.Invocation)
+    public void report() {
+        LOGGER.log(System.Logger.Level.INFO, "Heap retenido máximo: {0} MB sobre {1} MB iniciales",
+                peak / (1024 * 1024), baseline / (1024 * 1024));
+    }
+
+    @Benchmark
+    public long streamAll() {
+        long rows = 0;
+        try (Stream<EntryRequest> stream = entryRequestDAO.streamAll(fetchSize)) {
+            for (var it = stream.iterator(); it.hasNext(); it.next()) {
+                if (++rows % SAMPLE_EVERY == 0) {
+                    sample();
+                }
+            }
+        }
+        if (peak > MAX_STREAM_HEAP) {
+            throw new IllegalStateException("streamAll retuvo " + peak / (1024 * 1024) + " MB de heap, más de "
+                    + MAX_STREAM_HEAP / (1024 * 1024) + " MB");
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public long findAll() {
+        List<EntryRequest> all = entryRequestDAO.findAll();
+        // Sampled while the list is still reachable.
+        sample();
+        return all.size();
+    }
+
+    private void sample() {
+        peak = Math.max(peak, liveHeap() - baseline);
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
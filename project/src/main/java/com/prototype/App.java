@@ -1,5 +1,10 @@
 package com.prototype;
 
+import com.prototype.model.daos.PersistenceBootstrap;
+import com.prototype.model.metrics.PrometheusExporter;
+import com.prototype.services.EntryRequestArchiver;
+import com.prototype.services.GateService;
+
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -7,14 +12,48 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger.Level;
 
 /**
  * JavaFX App
  */
 public class App extends Application {
 
+    private static final System.Logger LOGGER = System.getLogger(App.class.getName());
+
     private static Scene scene;
 
+    /**
+     * Starts the persistence layer on a background thread before the first
+     * window is shown, so no screen blocks on the database connection,
+     * opens the gate journal so scans left from an earlier run are replayed
+     * right away, schedules the archiving of closed months and publishes the
+     * persistence metrics.
+     */
+    @Override
+    public void init() {
+        PersistenceBootstrap.start();
+        try {
+            GateService.shared();
+        } catch (UncheckedIOException e) {
+            // The gate screen opens it again on its first scan.
+            LOGGER.log(Level.ERROR, "No se pudo abrir el diario de portería", e);
+        }
+        EntryRequestArchiver.start();
+        PrometheusExporter.start();
+    }
+
+    /**
+     * Stops the gate journal replay and closes the journal, so the last
+     * scans are on disk before the process exits. Scans not yet stored in
+     * the database are replayed on the next start.
+     */
+    @Override
+    public void stop() {
+        GateService.closeShared();
+    }
+
     @Override
     public void start(Stage stage) throws IOException {
         scene = new Scene(loadFXML("main-menu"), 640, 480);
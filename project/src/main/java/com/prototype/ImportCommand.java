@@ -0,0 +1,45 @@
+package com.prototype;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.prototype.model.dtos.ImportReport;
+import com.prototype.services.CsvImportService;
+
+/**
+ * Command-line entry point for bulk CSV imports.
+ *
+ * <p>Usage: {@code ImportCommand <providers|people|tech|biomedical> <file.csv>}.
+ * Rejected rows are listed in {@code <file.csv>.errors.csv}.</p>
+ *
+ * <p>The throughput of the import is measured by {@code ImportBenchmark}, in
+ * the JMH benchmarks, against a dedicated database.</p>
+ */
+public class ImportCommand {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: ImportCommand <providers|people|tech|biomedical> <archivo.csv>");
+            System.exit(2);
+        }
+        CsvImportService service = new CsvImportService();
+        Path file = Paths.get(args[1]);
+        ImportReport report = switch (args[0]) {
+            case "providers" -> service.importProviders(file);
+            case "people" -> service.importPeople(file);
+            case "tech" -> service.importTechEquipment(file);
+            case "biomedical" -> service.importBiomedicalEquipment(file);
+            default -> throw new IllegalArgumentException("Tipo de importación desconocido: " + args[0]);
+        };
+        System.out.println("Filas leídas: " + report.getRowsRead()
+                + ", importadas: " + report.getRowsImported()
+                + ", rechazadas: " + report.getRowsRejected()
+                + " en " + report.getElapsed().toMillis() + " ms ("
+                + Math.round(report.getRowsPerSecond()) + " filas/s)");
+        if (report.getErrorReport() != null) {
+            System.out.println("Errores en " + report.getErrorReport());
+        }
+        System.exit(0);
+    }
+}
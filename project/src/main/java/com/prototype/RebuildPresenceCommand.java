@@ -0,0 +1,22 @@
+package com.prototype;
+
+import com.prototype.services.EntryRequestService;
+
+/**
+ * Command-line entry point that recomputes the {@code equipment_presence}
+ * table from the full {@code entry_request} history.
+ *
+ * <p>Run it after bulk edits or deletions of requests made directly in the
+ * database, or once after the presence table is introduced on an existing
+ * database.</p>
+ */
+public class RebuildPresenceCommand {
+
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        int pairs = new EntryRequestService().rebuildPresence();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Presencias recalculadas: " + pairs + " pares en " + elapsedMillis + " ms");
+        System.exit(0);
+    }
+}
@@ -1,15 +1,21 @@
 package com.prototype.controller;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+import com.prototype.model.apis.QrScanner;
+import com.prototype.model.config.PersistenceConfig;
 import com.prototype.model.config.UUIDGenerator;
-import com.prototype.model.entities.EntryRequest;
-import com.prototype.model.entities.Equipment;
-import com.prototype.model.entities.Person;
+import com.prototype.model.daos.Page;
+import com.prototype.model.daos.PageRequest;
+import com.prototype.model.dtos.EntryRequestRow;
 import com.prototype.model.enums.RequestType;
+import com.prototype.model.journal.GateEvent;
 import com.prototype.services.EntryRequestService;
 import java.awt.image.BufferedImage;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -33,6 +39,7 @@ public class EntryRequestController {
 
     // ================== CAMPOS DE FORMULARIO ==================
     @FXML private Button readQR;
+    @FXML private Button loadMoreButton;
     @FXML private ImageView imageQR;
     @FXML private TextField localDateTime;
 
@@ -47,19 +54,26 @@ public class EntryRequestController {
 
     // ================== TABLA ==================
 
-    @FXML private TableView<EntryRequest> entryRequestTable;
+    @FXML private TableView<EntryRequestRow> entryRequestTable;
 
-    @FXML private TableColumn<EntryRequest, Long> idColumn;
-    @FXML private TableColumn<EntryRequest, String> purposeColumn;
-    @FXML private TableColumn<EntryRequest, String> requestTypeColumn;
-    @FXML private TableColumn<EntryRequest, String> equipmentColumn;
-    @FXML private TableColumn<EntryRequest, String> personColumn;
-    @FXML private TableColumn<EntryRequest, String> requestedAt;
+    @FXML private TableColumn<EntryRequestRow, Long> idColumn;
+    @FXML private TableColumn<EntryRequestRow, String> purposeColumn;
+    @FXML private TableColumn<EntryRequestRow, String> requestTypeColumn;
+    @FXML private TableColumn<EntryRequestRow, String> equipmentColumn;
+    @FXML private TableColumn<EntryRequestRow, String> personColumn;
+    @FXML private TableColumn<EntryRequestRow, String> requestedAt;
 
     // ================== SERVICE + LISTA ==================
 
+    private static final int PAGE_SIZE = 200;
+
     private final EntryRequestService entryRequestService = new EntryRequestService();
-    private final ObservableList<EntryRequest> entryRequestList = FXCollections.observableArrayList();
+    private final ObservableList<EntryRequestRow> entryRequestList = FXCollections.observableArrayList();
+    // última página leída del historial completo, meses archivados incluidos (más recientes primero)
+    private Page<EntryRequestRow> currentPage;
+    private CompletableFuture<?> pendingLoad; // carga en curso, cancelable
+    private final QrScanner scanner = new QrScanner(PersistenceConfig.getInt("prototype.scanner.device", 0));
+    private final Consumer<String> qrListener = this::onQrRead;
 
 
     // ================== INIT ==================
@@ -78,6 +92,12 @@ public class EntryRequestController {
                     if (newSel != null)
                         populateForm(newSel);
                 });
+
+        // Libera la cámara al salir de la vista (App.setRoot la retira de la escena)
+        readQR.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null && scanner.isRunning())
+                stopScanning();
+        });
     }
 
     private void setupTableColumns() {
@@ -96,13 +116,13 @@ public class EntryRequestController {
         );
 
         equipmentColumn.setCellValueFactory(cd -> {
-            Equipment e = cd.getValue().getEquipment();
-            return new SimpleStringProperty(e != null ? "ID " + e.getId() : "");
+            Long equipmentId = cd.getValue().getEquipmentId();
+            return new SimpleStringProperty(equipmentId != null ? "ID " + equipmentId : "");
         });
 
         personColumn.setCellValueFactory(cd -> {
-            Person p = cd.getValue().getRequester();
-            return new SimpleStringProperty(p != null ? "ID " + p.getId() : "");
+            Long requesterId = cd.getValue().getRequesterId();
+            return new SimpleStringProperty(requesterId != null ? "ID " + requesterId : "");
         });
 
         requestedAt.setCellValueFactory(cd -> {
@@ -112,21 +132,54 @@ public class EntryRequestController {
     }
 
     private void loadEntryRequestList() {
-        entryRequestList.setAll(entryRequestService.findAll());
-        entryRequestTable.setItems(entryRequestList);
+        FxAsync.cancel(pendingLoad);
+        loadMoreButton.setDisable(true);
+        pendingLoad = FxAsync.load(() -> entryRequestService.findFirstHistoryRowPage(PAGE_SIZE), page -> {
+            currentPage = page;
+            entryRequestList.setAll(page.getContent());
+            entryRequestTable.setItems(entryRequestList);
+            updateLoadMoreButton();
+        }, this::showLoadError);
+    }
+
+    @FXML
+    private void handleLoadMore(ActionEvent event) {
+        if (currentPage == null || !currentPage.hasNext()) {
+            return;
+        }
+        FxAsync.cancel(pendingLoad);
+        loadMoreButton.setDisable(true);
+        PageRequest next = currentPage.nextPageRequest();
+        pendingLoad = FxAsync.load(() -> entryRequestService.findHistoryRowPage(next), page -> {
+            currentPage = page;
+            entryRequestList.addAll(page.getContent());
+            updateLoadMoreButton();
+        }, this::showLoadError);
+    }
+
+    private void updateLoadMoreButton() {
+        loadMoreButton.setDisable(!currentPage.hasNext());
+        int loaded = entryRequestList.size();
+        FxAsync.load(entryRequestService::estimateHistoryCount,
+                total -> loadMoreButton.setText("Cargar más (" + loaded + " de ~" + total + ")"),
+                error -> loadMoreButton.setText("Cargar más (" + loaded + ")"));
+    }
+
+    private void showLoadError(Throwable error) {
+        showAlert(AlertType.ERROR, "Error de carga", "No se pudieron cargar los datos: " + error.getMessage());
     }
 
     // ================== FORMULARIO ==================
 
-    private void populateForm(EntryRequest req) {
+    private void populateForm(EntryRequestRow req) {
 
         requestIdTextField.setText(String.valueOf(req.getId()));
 
         personIdTextField.setText(
-                req.getRequester() != null ? String.valueOf(req.getRequester().getId()) : "");
+                req.getRequesterId() != null ? String.valueOf(req.getRequesterId()) : "");
 
         equipmentIdTextField.setText(
-                req.getEquipment() != null ? String.valueOf(req.getEquipment().getId()) : "");
+                req.getEquipmentId() != null ? String.valueOf(req.getEquipmentId()) : "");
 
         purposeTextField.setText(req.getPurpose());
 
@@ -161,104 +214,110 @@ public class EntryRequestController {
 
     @FXML
     private void handleCreate(ActionEvent event) {
+        Long personId;
+        Long equipmentId;
         try {
-            Long personId = Long.parseLong(personIdTextField.getText());
-            Long equipmentId = Long.parseLong(equipmentIdTextField.getText());
-            String purpose = purposeTextField.getText();
-            RequestType type = requestTypeComboBox.getValue();
-
-            EntryRequest created = entryRequestService.createEntryRequest(
-                    personId,
-                    equipmentId,
-                    purpose,
-                    type);
-
-            statusLabel.setText("Solicitud creada. ID: " + created.getId());
-            clearForm();
-            loadEntryRequestList();
-
-        } catch (Exception e) {
+            personId = Long.parseLong(personIdTextField.getText());
+            equipmentId = Long.parseLong(equipmentIdTextField.getText());
+        } catch (NumberFormatException e) {
             showAlert(AlertType.ERROR, "Error", "No se pudo crear: " + e.getMessage());
+            return;
         }
+        String purpose = purposeTextField.getText();
+        RequestType type = requestTypeComboBox.getValue();
+
+        FxAsync.load(() -> entryRequestService.createEntryRequest(personId, equipmentId, purpose, type),
+                created -> {
+                    statusLabel.setText("Solicitud creada. ID: " + created.getId());
+                    clearForm();
+                    loadEntryRequestList();
+                },
+                error -> showAlert(AlertType.ERROR, "Error", "No se pudo crear: " + error.getMessage()));
     }
 
     @FXML
     private void handleUpdate(ActionEvent event) {
-
+        Long id;
+        Long newPersonId;
+        Long newEquipmentId;
         try {
-            Long id = Long.parseLong(requestIdTextField.getText());
+            id = Long.parseLong(requestIdTextField.getText());
 
-            Long newPersonId = personIdTextField.getText().isBlank()
+            newPersonId = personIdTextField.getText().isBlank()
                     ? null
                     : Long.parseLong(personIdTextField.getText());
 
-            Long newEquipmentId = equipmentIdTextField.getText().isBlank()
+            newEquipmentId = equipmentIdTextField.getText().isBlank()
                     ? null
                     : Long.parseLong(equipmentIdTextField.getText());
+        } catch (NumberFormatException e) {
+            showAlert(AlertType.ERROR, "Error", "No se pudo actualizar: " + e.getMessage());
+            return;
+        }
 
-            String newPurpose = purposeTextField.getText().isBlank()
-                    ? null
-                    : purposeTextField.getText();
-
-            RequestType type = requestTypeComboBox.getValue();
-
-            EntryRequest updated = entryRequestService.updateEntryRequest(
-                    id,
-                    newPersonId,
-                    newEquipmentId,
-                    newPurpose,
-                    type);
+        String newPurpose = purposeTextField.getText().isBlank()
+                ? null
+                : purposeTextField.getText();
 
-            statusLabel.setText("Solicitud actualizada: " + updated.getId());
-            clearForm();
-            loadEntryRequestList();
+        RequestType type = requestTypeComboBox.getValue();
 
-        } catch (Exception e) {
-            showAlert(AlertType.ERROR, "Error", "No se pudo actualizar: " + e.getMessage());
-        }
+        FxAsync.load(() -> entryRequestService.updateEntryRequest(id, newPersonId, newEquipmentId, newPurpose, type),
+                updated -> {
+                    statusLabel.setText("Solicitud actualizada: " + updated.getId());
+                    clearForm();
+                    loadEntryRequestList();
+                },
+                error -> showAlert(AlertType.ERROR, "Error", "No se pudo actualizar: " + error.getMessage()));
     }
 
     @FXML
     private void handleDelete(ActionEvent event) {
-
+        Long id;
         try {
-            Long id = Long.parseLong(requestIdTextField.getText());
-
-            Alert alert = new Alert(AlertType.CONFIRMATION);
-            alert.setTitle("Confirmar eliminación");
-            alert.setHeaderText("¿Eliminar solicitud con ID " + id + "?");
-
-            Optional<ButtonType> result = alert.showAndWait();
+            id = Long.parseLong(requestIdTextField.getText());
+        } catch (NumberFormatException e) {
+            showAlert(AlertType.ERROR, "Error", "No se pudo eliminar: " + e.getMessage());
+            return;
+        }
 
-            if (result.isPresent() && result.get() == ButtonType.OK) {
-                entryRequestService.deleteEntryRequest(id);
-                statusLabel.setText("Solicitud eliminada.");
-                clearForm();
-                loadEntryRequestList();
-            }
+        Alert alert = new Alert(AlertType.CONFIRMATION);
+        alert.setTitle("Confirmar eliminación");
+        alert.setHeaderText("¿Eliminar solicitud con ID " + id + "?");
 
-        } catch (Exception e) {
-            showAlert(AlertType.ERROR, "Error", "No se pudo eliminar: " + e.getMessage());
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isEmpty() || result.get() != ButtonType.OK) {
+            return;
         }
+
+        FxAsync.load(() -> entryRequestService.deleteEntryRequest(id),
+                removed -> {
+                    statusLabel.setText("Solicitud eliminada.");
+                    clearForm();
+                    loadEntryRequestList();
+                },
+                error -> showAlert(AlertType.ERROR, "Error", "No se pudo eliminar: " + error.getMessage()));
     }
 
     @FXML
     private void handleSearch(ActionEvent event) {
+        Long id;
         try {
-            Long id = Long.parseLong(requestIdTextField.getText());
-
-            EntryRequest req = entryRequestService.findById(id);
-
-            entryRequestTable.getItems().setAll(req);
-            entryRequestTable.getSelectionModel().select(req);
+            id = Long.parseLong(requestIdTextField.getText());
+        } catch (NumberFormatException e) {
+            showAlert(AlertType.ERROR, "Error", "No se pudo buscar: " + e.getMessage());
+            return;
+        }
 
-            populateForm(req);
+        FxAsync.load(() -> EntryRequestRow.from(entryRequestService.findById(id)),
+                req -> {
+                    entryRequestTable.getItems().setAll(req);
+                    entryRequestTable.getSelectionModel().select(req);
 
-            statusLabel.setText("Solicitud encontrada.");
+                    populateForm(req);
 
-        } catch (Exception e) {
-            showAlert(AlertType.ERROR, "Error", "No se pudo buscar: " + e.getMessage());
-        }
+                    statusLabel.setText("Solicitud encontrada.");
+                },
+                error -> showAlert(AlertType.ERROR, "Error", "No se pudo buscar: " + error.getMessage()));
     }
 
     // ================== ALERTAS ==================
@@ -271,9 +330,51 @@ public class EntryRequestController {
         a.showAndWait();
     }
 
+    /**
+     * Starts or stops continuous scanning. While active, the camera stays
+     * open and every QR code shown to it is recorded; scanning stops when
+     * the button is pressed again or the view is left.
+     */
     @FXML
     void bufferedQR(ActionEvent event) {
-        entryRequestService.bufferedQR();
+        if (scanner.isRunning()) {
+            stopScanning();
+        } else {
+            scanner.addListener(qrListener);
+            scanner.start();
+            readQR.setText("detener qr");
+            statusLabel.setText("Escáner activo: muestre el código QR a la cámara.");
+        }
+    }
+
+    /**
+     * Stops the scanner off the FX thread, since closing the camera and
+     * waiting for the decoders takes a while. The button stays disabled
+     * until the camera is released, so it cannot be reopened meanwhile.
+     */
+    private void stopScanning() {
+        scanner.removeListener(qrListener);
+        readQR.setDisable(true);
+        statusLabel.setText("Deteniendo el escáner...");
+        scanner.stopAsync().whenCompleteAsync((ignored, error) -> {
+            readQR.setDisable(false);
+            readQR.setText("leer qr");
+            statusLabel.setText(error == null ? "" : "No se pudo detener el escáner: " + error.getMessage());
+        }, FxAsync.FX_THREAD);
+    }
+
+    /**
+     * Records a code read by the scanner. Runs on the scanner's event
+     * thread, so the journal write does not block the UI.
+     */
+    private void onQrRead(String code) {
+        try {
+            GateEvent scan = entryRequestService.recordQr(code);
+            Platform.runLater(() -> statusLabel.setText("Escaneo registrado (persona " + scan.getPersonId()
+                    + ", equipo " + scan.getEquipmentId() + "). Se guardará en la base de datos en segundo plano."));
+        } catch (RuntimeException e) {
+            Platform.runLater(() -> statusLabel.setText("No se pudo registrar el escaneo: " + e.getMessage()));
+        }
     }
 
     @FXML
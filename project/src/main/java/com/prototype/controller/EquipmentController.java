@@ -1,13 +1,14 @@
 package com.prototype.controller;
 
 
-import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 
-import com.prototype.model.entities.BiomedicalEquipment;
+import com.prototype.model.daos.Page;
+import com.prototype.model.daos.PageRequest;
+import com.prototype.model.dtos.EquipmentRow;
 import com.prototype.model.entities.Equipment;
-import com.prototype.model.entities.TechEquipment;
 import com.prototype.model.enums.EquipmentStatus;
 import com.prototype.model.enums.EquipmentType;
 import com.prototype.model.enums.FrequencyType;
@@ -39,7 +40,7 @@ public class EquipmentController {
     @FXML
     private TextField providerTextField;
         @FXML
-    private TableColumn<Equipment, String> path_image;
+    private TableColumn<EquipmentRow, String> path_image;
     
     @FXML
     private ImageView equipment_imageView;
@@ -122,41 +123,47 @@ public class EquipmentController {
     private Button generateQrButton; // todavía sin usar
     @FXML
     private Button takePhotoButton;
+    @FXML
+    private Button loadMoreButton;
 
     // ================== TABLA ==================
 
     @FXML
-    private TableView<Equipment> cursoTable;
+    private TableView<EquipmentRow> cursoTable;
 
     @FXML
-    private TableColumn<Equipment, Integer> idColumn;
+    private TableColumn<EquipmentRow, Integer> idColumn;
     @FXML
-    private TableColumn<Equipment, String> frequencyTypeColumn;
+    private TableColumn<EquipmentRow, String> frequencyTypeColumn;
     @FXML
-    private TableColumn<Equipment, String> serialEquipmentColumn;
+    private TableColumn<EquipmentRow, String> serialEquipmentColumn;
     @FXML
-    private TableColumn<Equipment, String> equipmentBrandColumn;
+    private TableColumn<EquipmentRow, String> equipmentBrandColumn;
     @FXML
-    private TableColumn<Equipment, String> equipmentModelColumn;
+    private TableColumn<EquipmentRow, String> equipmentModelColumn;
     @FXML
-    private TableColumn<Equipment, String> equipmentTypeColumn;
+    private TableColumn<EquipmentRow, String> equipmentTypeColumn;
     @FXML
-    private TableColumn<Equipment, String> equipmentStateColumn;
+    private TableColumn<EquipmentRow, String> equipmentStateColumn;
     @FXML
-    private TableColumn<Equipment, String> osColumn;
+    private TableColumn<EquipmentRow, String> osColumn;
     @FXML
-    private TableColumn<Equipment, Integer> ramGBColumn;
+    private TableColumn<EquipmentRow, Integer> ramGBColumn;
     @FXML
-    private TableColumn<Equipment, String> riskClassColumn;
+    private TableColumn<EquipmentRow, String> riskClassColumn;
     @FXML
-    private TableColumn<Equipment, String> calibracionCertColumn;
+    private TableColumn<EquipmentRow, String> calibracionCertColumn;
     @FXML
-    private TableColumn<Equipment, Long> providerId;
+    private TableColumn<EquipmentRow, Long> providerId;
 
     // ================== SERVICE + LISTA ==================
 
+    private static final int PAGE_SIZE = 200;
+
     private final EquipmentService equipmentService = new EquipmentService();
-    private final ObservableList<Equipment> equipmentList = FXCollections.observableArrayList();
+    private final ObservableList<EquipmentRow> equipmentList = FXCollections.observableArrayList();
+    private Page<EquipmentRow> currentPage; // última página leída
+    private CompletableFuture<?> pendingLoad; // carga en curso, cancelable
 
     // Placeholder mientras no tengamos selección de proveedor en la UI
 
@@ -220,49 +227,58 @@ public class EquipmentController {
                         ? cd.getValue().getState().name()
                         : ""));
 
-        osColumn.setCellValueFactory(cd -> {
-            Equipment e = cd.getValue();
-            if (e instanceof TechEquipment tech) {
-                return new SimpleStringProperty(tech.getOs());
-            }
-            return new SimpleStringProperty("");
-        });
+        osColumn.setCellValueFactory(cd -> new SimpleStringProperty(
+                cd.getValue().getOs() != null ? cd.getValue().getOs() : ""));
 
-        ramGBColumn.setCellValueFactory(cd -> {
-            Equipment e = cd.getValue();
-            if (e instanceof TechEquipment tech) {
-                return new SimpleIntegerProperty(tech.getRamGB()).asObject();
-            }
-            return new SimpleIntegerProperty(0).asObject();
-        });
+        ramGBColumn.setCellValueFactory(cd -> new SimpleIntegerProperty(
+                cd.getValue().getRamGB() != null ? cd.getValue().getRamGB() : 0).asObject());
 
-        riskClassColumn.setCellValueFactory(cd -> {
-            Equipment e = cd.getValue();
-            if (e instanceof BiomedicalEquipment bio) {
-                return new SimpleStringProperty(bio.getRiskClass());
-            }
-            return new SimpleStringProperty("");
-        });
+        riskClassColumn.setCellValueFactory(cd -> new SimpleStringProperty(
+                cd.getValue().getRiskClass() != null ? cd.getValue().getRiskClass() : ""));
 
-        calibracionCertColumn.setCellValueFactory(cd -> {
-            Equipment e = cd.getValue();
-            if (e instanceof BiomedicalEquipment bio) {
-                return new SimpleStringProperty(bio.getCalibrationCert());
-            }
-            return new SimpleStringProperty("");
-        });
-
-        providerId.setCellValueFactory(cd -> {
-            var provider = cd.getValue().getProvider();
-                return new SimpleLongProperty(
-                provider != null ? provider.getId() : 0L).asObject();
-        });
+        calibracionCertColumn.setCellValueFactory(cd -> new SimpleStringProperty(
+                cd.getValue().getCalibrationCert() != null ? cd.getValue().getCalibrationCert() : ""));
+
+        providerId.setCellValueFactory(cd -> new SimpleLongProperty(
+                cd.getValue().getProviderId() != null ? cd.getValue().getProviderId() : 0L).asObject());
     }
 
     private void loadEquipmentList() {
-        List<Equipment> all = equipmentService.findAll();
-        equipmentList.setAll(all);
-        cursoTable.setItems(equipmentList);
+        FxAsync.cancel(pendingLoad);
+        loadMoreButton.setDisable(true);
+        pendingLoad = FxAsync.load(() -> equipmentService.findFirstRowPage(PAGE_SIZE), page -> {
+            currentPage = page;
+            equipmentList.setAll(page.getContent());
+            cursoTable.setItems(equipmentList);
+            updateLoadMoreButton();
+        }, this::showLoadError);
+    }
+
+    @FXML
+    private void handleLoadMore(ActionEvent event) {
+        if (currentPage == null || !currentPage.hasNext()) {
+            return;
+        }
+        FxAsync.cancel(pendingLoad);
+        loadMoreButton.setDisable(true);
+        PageRequest next = currentPage.nextPageRequest();
+        pendingLoad = FxAsync.load(() -> equipmentService.findRowPage(next), page -> {
+            currentPage = page;
+            equipmentList.addAll(page.getContent());
+            updateLoadMoreButton();
+        }, this::showLoadError);
+    }
+
+    private void updateLoadMoreButton() {
+        loadMoreButton.setDisable(!currentPage.hasNext());
+        int loaded = equipmentList.size();
+        FxAsync.load(equipmentService::estimateCount,
+                total -> loadMoreButton.setText("Cargar más (" + loaded + " de ~" + total + ")"),
+                error -> loadMoreButton.setText("Cargar más (" + loaded + ")"));
+    }
+
+    private void showLoadError(Throwable error) {
+        showAlert(AlertType.ERROR, "Error de carga", "No se pudieron cargar los datos: " + error.getMessage());
     }
 
     // ================== VISIBILIDAD EXCLUSIVOS ==================
@@ -315,7 +331,7 @@ public class EquipmentController {
 
     // ================== FORMULARIO ==================
 
-    private void populateForm(Equipment equipment) {
+    private void populateForm(EquipmentRow equipment) {
         equipmentIdTextField.setText(
                 equipment.getId() != null ? String.valueOf(equipment.getId()) : "");
         serialEquipmentTextField.setText(equipment.getSerial());
@@ -333,12 +349,12 @@ public class EquipmentController {
         riskClassTextField.clear();
         calibrationCertTextField.clear();
 
-        if (equipment instanceof TechEquipment tech) {
-            osTextField.setText(tech.getOs());
-            ramGBTextField.setText(String.valueOf(tech.getRamGB()));
-        } else if (equipment instanceof BiomedicalEquipment bio) {
-            riskClassTextField.setText(bio.getRiskClass());
-            calibrationCertTextField.setText(bio.getCalibrationCert());
+        if (equipment.getType() == EquipmentType.TECH) {
+            osTextField.setText(equipment.getOs());
+            ramGBTextField.setText(equipment.getRamGB() != null ? String.valueOf(equipment.getRamGB()) : "");
+        } else if (equipment.getType() == EquipmentType.BIOMEDICAL) {
+            riskClassTextField.setText(equipment.getRiskClass());
+            calibrationCertTextField.setText(equipment.getCalibrationCert());
         }
 
         statusLabel.setText("Equipo seleccionado: " + equipment.getId());
@@ -384,214 +400,194 @@ public class EquipmentController {
 
     @FXML
     private void handleDelete(ActionEvent event) {
+        Long id;
         try {
-            Long id = Long.parseLong(equipmentIdTextField.getText());
-
-            Alert alert = new Alert(AlertType.CONFIRMATION);
-            alert.setTitle("Confirmar eliminación");
-            alert.setHeaderText("¿Está seguro de que desea eliminar el equipo con ID: " + id + "?");
-            Optional<ButtonType> result = alert.showAndWait();
-
-            if (result.isPresent() && result.get() == ButtonType.OK) {
-                equipmentService.delete(id);
-                statusLabel.setText("Equipo eliminado exitosamente.");
-                loadEquipmentList();
-                clearForm();
-            }
-
+            id = Long.parseLong(equipmentIdTextField.getText());
         } catch (NumberFormatException e) {
             showAlert(AlertType.ERROR, "Error de formato", "El ID debe ser un número.");
-        } catch (IllegalArgumentException e) {
-            showAlert(AlertType.ERROR, "Error de negocio", e.getMessage());
-        } catch (Exception e) {
-            showAlert(AlertType.ERROR, "Error de eliminación", "No se pudo eliminar el equipo: " + e.getMessage());
+            return;
         }
+
+        Alert alert = new Alert(AlertType.CONFIRMATION);
+        alert.setTitle("Confirmar eliminación");
+        alert.setHeaderText("¿Está seguro de que desea eliminar el equipo con ID: " + id + "?");
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isEmpty() || result.get() != ButtonType.OK) {
+            return;
+        }
+
+        FxAsync.load(() -> {
+            equipmentService.delete(id);
+            return id;
+        }, deleted -> {
+            statusLabel.setText("Equipo eliminado exitosamente.");
+            loadEquipmentList();
+            clearForm();
+        }, error -> showServiceError(error, "Error de negocio", "Error de eliminación",
+                "No se pudo eliminar el equipo: "));
     }
 
     @FXML
     private void handleSearch(ActionEvent event) {
+        Long id;
         try {
-            Long id = Long.parseLong(equipmentIdTextField.getText());
-            Equipment e = equipmentService.findById(id);
+            id = Long.parseLong(equipmentIdTextField.getText());
+        } catch (NumberFormatException ex) {
+            showAlert(AlertType.ERROR, "Error de formato", "El ID debe ser un número.");
+            return;
+        }
 
-            if (e != null) {
-                populateForm(e);
-                cursoTable.getItems().setAll(e);
-                cursoTable.getSelectionModel().select(e);
+        FxAsync.load(() -> {
+            Equipment e = equipmentService.findById(id);
+            return e != null ? EquipmentRow.from(e) : null;
+        }, row -> {
+            if (row != null) {
+                populateForm(row);
+                cursoTable.getItems().setAll(row);
+                cursoTable.getSelectionModel().select(row);
                 statusLabel.setText("Equipo encontrado.");
             } else {
                 showAlert(AlertType.INFORMATION, "Búsqueda", "No se encontró equipo con ID: " + id);
                 statusLabel.setText("Equipo no encontrado.");
             }
-        } catch (NumberFormatException ex) {
-            showAlert(AlertType.ERROR, "Error de formato", "El ID debe ser un número.");
-        } catch (Exception ex) {
-            showAlert(AlertType.ERROR, "Error de búsqueda", "No se pudo buscar el equipo: " + ex.getMessage());
-        }
+        }, error -> showAlert(AlertType.ERROR, "Error de búsqueda",
+                "No se pudo buscar el equipo: " + error.getMessage()));
     }
 
     @FXML
     private void handleCreate(ActionEvent event) {
+        EquipmentForm form;
         try {
-            EquipmentType type = equipmentTypeComboBox.getValue();
-            EquipmentStatus status = equipmentStatusComboBox.getValue();
-            FrequencyType freq = frecuencyTypeComboBox.getValue();
-
-            String serial = serialEquipmentTextField.getText();
-            String brand = brandEquipmentTextField.getText();
-            String model = modelEquipmentTextField.getText();
-            String imagePath = equipmentService.ImageCloud(equipment_imageView.getImage());
-            Long idProvider = Long.parseLong(providerTextField.getText());
-
-
-            if (type == null || status == null || freq == null) {
-                showAlert(Alert.AlertType.ERROR, "Datos incompletos",
-                        "Debe seleccionar Tipo de Equipo, Estado y Frecuencia.");
-                return;
-            }
-
-            Equipment created;
-
-            if (type == EquipmentType.TECH) {
-                int ram = 0;
-                if (!ramGBTextField.getText().isBlank()) {
-                    ram = Integer.parseInt(ramGBTextField.getText());
-                }
-                String os = osTextField.getText();
-
-                created = equipmentService.createTechEquipment(
-                        serial,
-                        brand,
-                        model,
-                        type,
-                        status,
-                        idProvider,
-                        imagePath,
-                        os,
-                        ram,
-                        freq 
-                );
-
-            } else if (type == EquipmentType.BIOMEDICAL) {
-                String riskClass = riskClassTextField.getText();
-                String calibCert = calibrationCertTextField.getText();
-
-                created = equipmentService.createBiomedicalEquipment(
-                        serial,
-                        brand,
-                        model,
-                        type,
-                        status,
-                        idProvider,
-                        imagePath,
-                        riskClass,
-                        calibCert,
-                        freq 
-                );
+            form = readForm();
+        } catch (NumberFormatException e) {
+            showAlert(Alert.AlertType.ERROR, "Error de formato",
+                    "El proveedor y la RAM deben ser números enteros.");
+            return;
+        }
+        if (form == null) {
+            return;
+        }
 
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Tipo de equipo", "Seleccione un tipo de equipo.");
-                return;
+        // The image upload and the insert both run off the FX thread.
+        Image image = equipment_imageView.getImage();
+        FxAsync.load(() -> {
+            String imagePath = equipmentService.ImageCloud(image);
+            if (form.type == EquipmentType.TECH) {
+                return equipmentService.createTechEquipment(form.serial, form.brand, form.model, form.type,
+                        form.status, form.idProvider, imagePath, form.os, form.ram, form.freq);
             }
-
+            return equipmentService.createBiomedicalEquipment(form.serial, form.brand, form.model, form.type,
+                    form.status, form.idProvider, imagePath, form.riskClass, form.calibCert, form.freq);
+        }, created -> {
             statusLabel.setText("Equipo creado con ID: " + created.getId());
             clearForm();
             loadEquipmentList();
-
-        } catch (NumberFormatException e) {
-            showAlert(Alert.AlertType.ERROR, "Error de formato",
-                    "La RAM debe ser un número entero.");
-        } catch (IllegalArgumentException e) {
-            showAlert(Alert.AlertType.ERROR, "Error de validación", e.getMessage());
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Error de creación",
-                    "No se pudo crear el equipo: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }, error -> showServiceError(error, "Error de validación", "Error de creación",
+                "No se pudo crear el equipo: "));
     }
 
     @FXML
     private void handleUpdate(ActionEvent event) {
+        Long id;
+        EquipmentForm form;
         try {
-            Long id = Long.parseLong(equipmentIdTextField.getText());
-
-            EquipmentType type = equipmentTypeComboBox.getValue();
-            EquipmentStatus status = equipmentStatusComboBox.getValue();
-            FrequencyType freq = frecuencyTypeComboBox.getValue();
-
-            String serial = serialEquipmentTextField.getText();
-            String brand = brandEquipmentTextField.getText();
-            String model = modelEquipmentTextField.getText();
-            String imagePath = equipmentService.ImageCloud(equipment_imageView.getImage());
-            Long idProvider = Long.parseLong(providerTextField.getText());
-
-
-
-            if (type == null || status == null || freq == null) {
-                showAlert(Alert.AlertType.ERROR, "Datos incompletos",
-                        "Debe seleccionar Tipo de Equipo, Estado y Frecuencia.");
-                return;
-            }
-
-            Equipment updated;
-
-            if (type == EquipmentType.TECH) {
-                int ram = 0;
-                if (!ramGBTextField.getText().isBlank()) {
-                    ram = Integer.parseInt(ramGBTextField.getText());
-                }
-                String os = osTextField.getText();
-
-                updated = equipmentService.updateTechEquipment(
-                        id,
-                        serial,
-                        brand,
-                        model,
-                        type,
-                        status,
-                        idProvider,
-                        imagePath,
-                        os,
-                        ram,
-                        freq);
-
-            } else if (type == EquipmentType.BIOMEDICAL) {
-                String riskClass = riskClassTextField.getText();
-                String calibCert = calibrationCertTextField.getText();
-
-                updated = equipmentService.updateBiomedicalEquipment(
-                        id,
-                        serial,
-                        brand,
-                        model,
-                        type,
-                        status,
-                        idProvider,
-                        imagePath,
-                        riskClass,
-                        calibCert,
-                        freq);
+            id = Long.parseLong(equipmentIdTextField.getText());
+            form = readForm();
+        } catch (NumberFormatException e) {
+            showAlert(Alert.AlertType.ERROR, "Error de formato",
+                    "El ID, el proveedor y la RAM deben ser números.");
+            return;
+        }
+        if (form == null) {
+            return;
+        }
 
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Tipo de equipo", "Seleccione un tipo de equipo.");
-                return;
+        Image image = equipment_imageView.getImage();
+        FxAsync.load(() -> {
+            String imagePath = equipmentService.ImageCloud(image);
+            if (form.type == EquipmentType.TECH) {
+                return equipmentService.updateTechEquipment(id, form.serial, form.brand, form.model,
+                        form.type, form.status, form.idProvider, imagePath, form.os, form.ram, form.freq);
             }
-
+            return equipmentService.updateBiomedicalEquipment(id, form.serial, form.brand,
+                    form.model, form.type, form.status, form.idProvider, imagePath, form.riskClass,
+                    form.calibCert, form.freq);
+        }, updated -> {
             statusLabel.setText("Equipo actualizado: " + updated.getId());
             clearForm();
             loadEquipmentList();
+        }, error -> showServiceError(error, "Error de validación", "Error de actualización",
+                "No se pudo actualizar el equipo: "));
+    }
 
-        } catch (NumberFormatException e) {
-            showAlert(Alert.AlertType.ERROR, "Error de formato",
-                    "El ID y la RAM deben ser números.");
-        } catch (IllegalArgumentException e) {
-            showAlert(Alert.AlertType.ERROR, "Error de validación", e.getMessage());
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Error de actualización",
-                    "No se pudo actualizar el equipo: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Values of the form read on the FX thread, handed to the background
+     * work that saves them.
+     */
+    private static final class EquipmentForm {
+        EquipmentType type;
+        EquipmentStatus status;
+        FrequencyType freq;
+        String serial;
+        String brand;
+        String model;
+        Long idProvider;
+        String os;
+        int ram;
+        String riskClass;
+        String calibCert;
+    }
+
+    /**
+     * Reads and checks the form.
+     *
+     * @return the values of the form, or {@code null} if a selection is
+     *         missing, in which case the user has already been told
+     * @throws NumberFormatException if the provider or the RAM is not a number
+     */
+    private EquipmentForm readForm() {
+        EquipmentForm form = new EquipmentForm();
+        form.type = equipmentTypeComboBox.getValue();
+        form.status = equipmentStatusComboBox.getValue();
+        form.freq = frecuencyTypeComboBox.getValue();
+        form.serial = serialEquipmentTextField.getText();
+        form.brand = brandEquipmentTextField.getText();
+        form.model = modelEquipmentTextField.getText();
+        form.idProvider = Long.parseLong(providerTextField.getText());
+
+        if (form.type == null || form.status == null || form.freq == null) {
+            showAlert(Alert.AlertType.ERROR, "Datos incompletos",
+                    "Debe seleccionar Tipo de Equipo, Estado y Frecuencia.");
+            return null;
+        }
+
+        if (form.type == EquipmentType.TECH) {
+            if (!ramGBTextField.getText().isBlank()) {
+                form.ram = Integer.parseInt(ramGBTextField.getText());
+            }
+            form.os = osTextField.getText();
+        } else if (form.type == EquipmentType.BIOMEDICAL) {
+            form.riskClass = riskClassTextField.getText();
+            form.calibCert = calibrationCertTextField.getText();
+        } else {
+            showAlert(Alert.AlertType.ERROR, "Tipo de equipo", "Seleccione un tipo de equipo.");
+            return null;
         }
+        return form;
     }
+
+    /**
+     * Reports a failed save: validation errors of the service with their own
+     * message, anything else prefixed.
+     */
+    private void showServiceError(Throwable error, String validationTitle, String title, String prefix) {
+        if (error instanceof IllegalArgumentException) {
+            showAlert(AlertType.ERROR, validationTitle, error.getMessage());
+        } else {
+            showAlert(AlertType.ERROR, title, prefix + error.getMessage());
+        }
+    }
+
         @FXML
     void takePhoto(ActionEvent event) {
         equipment_imageView.setImage(equipmentService.takeImage());
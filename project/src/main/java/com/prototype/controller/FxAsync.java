@@ -0,0 +1,70 @@
+package com.prototype.controller;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.prototype.model.daos.DaoExecutor;
+
+import javafx.application.Platform;
+
+/**
+ * Bridges background persistence work and the JavaFX Application Thread.
+ *
+ * <p>
+ * Work is started with {@link #load(Supplier, Consumer, Consumer)}: it runs on
+ * the {@link DaoExecutor} and its result, or its error, is delivered on the
+ * FX thread, where controls can be updated safely. Cancelled work delivers
+ * nothing.
+ * </p>
+ */
+final class FxAsync {
+
+    /** Executor that runs callbacks on the JavaFX Application Thread. */
+    static final Executor FX_THREAD = Platform::runLater;
+
+    private FxAsync() {
+    }
+
+    /**
+     * Runs the given work in the background and hands its outcome to the FX
+     * thread.
+     *
+     * @param work      the work to run, typically a service call
+     * @param onSuccess receives the result on the FX thread
+     * @param onError   receives the cause of a failure on the FX thread
+     * @param <R>       the type of the result
+     * @return the future of the work, which can be cancelled
+     */
+    static <R> CompletableFuture<R> load(Supplier<R> work, Consumer<? super R> onSuccess,
+            Consumer<Throwable> onError) {
+        CompletableFuture<R> future = DaoExecutor.submit(work);
+        future.whenCompleteAsync((result, error) -> {
+            if (error == null) {
+                onSuccess.accept(result);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            if (!(cause instanceof CancellationException)) {
+                onError.accept(cause);
+            }
+        }, FX_THREAD);
+        return future;
+    }
+
+    /**
+     * Cancels a pending load, if any, so its result is never delivered.
+     *
+     * @param future the future to cancel, may be {@code null}
+     */
+    static void cancel(CompletableFuture<?> future) {
+        if (future != null && !future.isDone()) {
+            future.cancel(true);
+        }
+    }
+}
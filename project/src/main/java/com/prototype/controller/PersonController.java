@@ -1,10 +1,13 @@
 package com.prototype.controller;
 
 
-import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 
+import com.prototype.model.daos.Page;
+import com.prototype.model.daos.PageRequest;
+import com.prototype.model.dtos.PersonRow;
 import com.prototype.model.entities.Person;
 import com.prototype.model.enums.Role;
 import com.prototype.services.PersonService;
@@ -15,6 +18,7 @@ import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
@@ -53,6 +57,9 @@ public class PersonController {
     @FXML
     private Label statusLabel;
 
+    @FXML
+    private Button loadMoreButton;
+
     // Campo para el ID (arriba del formulario, "ID (para buscar, actualizar)")
     @FXML
     private TextField idTextField;
@@ -60,20 +67,26 @@ public class PersonController {
     // ========= TABLA =========
 
     @FXML
-    private TableView<Person> personTable;
+    private TableView<PersonRow> personTable;
     @FXML
-    private TableColumn<Person, Long> idColumn;
+    private TableColumn<PersonRow, Long> idColumn;
     @FXML
-    private TableColumn<Person, String> fullNameColumn;
+    private TableColumn<PersonRow, String> fullNameColumn;
     @FXML
-    private TableColumn<Person, String> documentColumn;
+    private TableColumn<PersonRow, String> documentColumn;
     @FXML
-    private TableColumn<Person, String> roleColumn;
+    private TableColumn<PersonRow, String> roleColumn;
 
     // ========= SERVICE + LISTA OBSERVABLE =========
 
+    private static final int PAGE_SIZE = 200;
+
     private final PersonService personService = new PersonService();
-    private final ObservableList<Person> personList = FXCollections.observableArrayList();
+    private final ObservableList<PersonRow> personList = FXCollections.observableArrayList();
+
+    // Última página leída; se usa para pedir la siguiente
+    private Page<PersonRow> currentPage;
+    private CompletableFuture<?> pendingLoad; // carga en curso, cancelable
 
     // =====================================================================
     //                               INIT
@@ -91,7 +104,7 @@ public class PersonController {
 
         // Para el rol, mostramos el nombre del enum (WATCHMAN, ADMIN, etc.)
         roleColumn.setCellValueFactory(cellData -> {
-            Person p = cellData.getValue();
+            PersonRow p = cellData.getValue();
             String roleName = (p.getRole() != null) ? p.getRole().name() : "";
             return new SimpleStringProperty(roleName);
         });
@@ -110,13 +123,44 @@ public class PersonController {
     }
 
     private void loadPersonList() {
-        personList.clear();
-        List<Person> people = personService.findAll();
-        personList.addAll(people);
-        personTable.setItems(personList);
+        FxAsync.cancel(pendingLoad);
+        loadMoreButton.setDisable(true);
+        pendingLoad = FxAsync.load(() -> personService.findFirstRowPage(PAGE_SIZE), page -> {
+            currentPage = page;
+            personList.setAll(page.getContent());
+            personTable.setItems(personList);
+            updateLoadMoreButton();
+        }, this::showLoadError);
+    }
+
+    @FXML
+    private void handleLoadMore(ActionEvent event) {
+        if (currentPage == null || !currentPage.hasNext()) {
+            return;
+        }
+        FxAsync.cancel(pendingLoad);
+        loadMoreButton.setDisable(true);
+        PageRequest next = currentPage.nextPageRequest();
+        pendingLoad = FxAsync.load(() -> personService.findRowPage(next), page -> {
+            currentPage = page;
+            personList.addAll(page.getContent());
+            updateLoadMoreButton();
+        }, this::showLoadError);
+    }
+
+    private void updateLoadMoreButton() {
+        loadMoreButton.setDisable(!currentPage.hasNext());
+        int loaded = personList.size();
+        FxAsync.load(personService::estimateCount,
+                total -> loadMoreButton.setText("Cargar más (" + loaded + " de ~" + total + ")"),
+                error -> loadMoreButton.setText("Cargar más (" + loaded + ")"));
     }
 
-    private void populateForm(Person p) {
+    private void showLoadError(Throwable error) {
+        showAlert(AlertType.ERROR, "Error de carga", "No se pudieron cargar los datos: " + error.getMessage());
+    }
+
+    private void populateForm(PersonRow p) {
         idTextField.setText(p.getId() != null ? String.valueOf(p.getId()) : "");
         fullNameTextField.setText(p.getFullName() != null ? p.getFullName() : "");
         documentTextField.setText(p.getDocument() != null ? p.getDocument() : "");
@@ -150,21 +194,16 @@ public class PersonController {
 
     @FXML
     private void handleCreate(ActionEvent event) {
-        try {
-            String fullName = fullNameTextField.getText();
-            String document = documentTextField.getText();
-            Role role = personRoleComboBox.getValue();
-
-            Person created = personService.createPerson(fullName, document, role);
+        String fullName = fullNameTextField.getText();
+        String document = documentTextField.getText();
+        Role role = personRoleComboBox.getValue();
 
+        FxAsync.load(() -> personService.createPerson(fullName, document, role), created -> {
             statusLabel.setText("Persona creada con ID: " + created.getId());
             loadPersonList();
             clearForm();
-        } catch (IllegalArgumentException e) {
-            showAlert(AlertType.ERROR, "Validación", e.getMessage());
-        } catch (Exception e) {
-            showAlert(AlertType.ERROR, "Error de creación", "No se pudo crear la persona: " + e.getMessage());
-        }
+        }, error -> showServiceError(error, "Validación", "Error de creación",
+                "No se pudo crear la persona: "));
     }
 
     // =====================================================================
@@ -173,24 +212,23 @@ public class PersonController {
 
     @FXML
     private void handleUpdate(ActionEvent event) {
+        Long id;
         try {
-            Long id = Long.parseLong(idTextField.getText());
-            String fullName = fullNameTextField.getText();
-            String document = documentTextField.getText();
-            Role role = personRoleComboBox.getValue();
-
-            Person updated = personService.updatePerson(id, fullName, document, role);
+            id = Long.parseLong(idTextField.getText());
+        } catch (NumberFormatException e) {
+            showAlert(AlertType.ERROR, "Error de formato", "El ID debe ser un número.");
+            return;
+        }
+        String fullName = fullNameTextField.getText();
+        String document = documentTextField.getText();
+        Role role = personRoleComboBox.getValue();
 
+        FxAsync.load(() -> personService.updatePerson(id, fullName, document, role), updated -> {
             statusLabel.setText("Persona actualizada: " + updated.getId());
             loadPersonList();
             clearForm();
-        } catch (NumberFormatException e) {
-            showAlert(AlertType.ERROR, "Error de formato", "El ID debe ser un número.");
-        } catch (IllegalArgumentException e) {
-            showAlert(AlertType.ERROR, "Validación / Negocio", e.getMessage());
-        } catch (Exception e) {
-            showAlert(AlertType.ERROR, "Error de actualización", "No se pudo actualizar la persona: " + e.getMessage());
-        }
+        }, error -> showServiceError(error, "Validación / Negocio", "Error de actualización",
+                "No se pudo actualizar la persona: "));
     }
 
     // =====================================================================
@@ -199,27 +237,31 @@ public class PersonController {
 
     @FXML
     private void handleDelete(ActionEvent event) {
+        Long id;
         try {
-            Long id = Long.parseLong(idTextField.getText());
-
-            Alert alert = new Alert(AlertType.CONFIRMATION);
-            alert.setTitle("Confirmar eliminación");
-            alert.setHeaderText("¿Está seguro de que desea eliminar la persona con ID: " + id + "?");
-            Optional<ButtonType> result = alert.showAndWait();
-
-            if (result.isPresent() && result.get() == ButtonType.OK) {
-                personService.deletePerson(id);
-                statusLabel.setText("Persona eliminada exitosamente.");
-                loadPersonList();
-                clearForm();
-            }
+            id = Long.parseLong(idTextField.getText());
         } catch (NumberFormatException e) {
             showAlert(AlertType.ERROR, "Error de formato", "El ID debe ser un número.");
-        } catch (IllegalArgumentException e) {
-            showAlert(AlertType.ERROR, "Error de negocio", e.getMessage());
-        } catch (Exception e) {
-            showAlert(AlertType.ERROR, "Error de eliminación", "No se pudo eliminar la persona: " + e.getMessage());
+            return;
         }
+
+        Alert alert = new Alert(AlertType.CONFIRMATION);
+        alert.setTitle("Confirmar eliminación");
+        alert.setHeaderText("¿Está seguro de que desea eliminar la persona con ID: " + id + "?");
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isEmpty() || result.get() != ButtonType.OK) {
+            return;
+        }
+
+        FxAsync.load(() -> {
+            personService.deletePerson(id);
+            return id;
+        }, deleted -> {
+            statusLabel.setText("Persona eliminada exitosamente.");
+            loadPersonList();
+            clearForm();
+        }, error -> showServiceError(error, "Error de negocio", "Error de eliminación",
+                "No se pudo eliminar la persona: "));
     }
 
     // =====================================================================
@@ -228,10 +270,18 @@ public class PersonController {
 
     @FXML
     private void handleSearch(ActionEvent event) {
+        Long id;
         try {
-            Long id = Long.parseLong(idTextField.getText());
-            Person p = personService.findById(id);
+            id = Long.parseLong(idTextField.getText());
+        } catch (NumberFormatException e) {
+            showAlert(AlertType.ERROR, "Error de formato", "El ID debe ser un número.");
+            return;
+        }
 
+        FxAsync.load(() -> {
+            Person found = personService.findById(id);
+            return found != null ? PersonRow.from(found) : null;
+        }, p -> {
             if (p != null) {
                 populateForm(p);
                 personTable.getItems().setAll(p);
@@ -241,15 +291,26 @@ public class PersonController {
                 showAlert(AlertType.INFORMATION, "Búsqueda", "No se encontró persona con ID: " + id);
                 statusLabel.setText("Persona no encontrada.");
             }
-        } catch (NumberFormatException e) {
-            showAlert(AlertType.ERROR, "Error de formato", "El ID debe ser un número.");
-        }
+        }, error -> showAlert(AlertType.ERROR, "Error de búsqueda",
+                "No se pudo buscar la persona: " + error.getMessage()));
     }
 
     // =====================================================================
     //                        MÉTODO UTILIDAD ALERTAS
     // =====================================================================
 
+    /**
+     * Reports a failed save: validation errors of the service with their own
+     * message, anything else prefixed.
+     */
+    private void showServiceError(Throwable error, String validationTitle, String title, String prefix) {
+        if (error instanceof IllegalArgumentException) {
+            showAlert(AlertType.ERROR, validationTitle, error.getMessage());
+        } else {
+            showAlert(AlertType.ERROR, title, prefix + error.getMessage());
+        }
+    }
+
     private void showAlert(AlertType type, String title, String message) {
         Alert alert = new Alert(type);
         alert.setTitle(title);
@@ -1,10 +1,11 @@
 
 package com.prototype.controller;
 
+import java.util.concurrent.CompletableFuture;
 
-import java.util.List;
-
-
+import com.prototype.model.daos.Page;
+import com.prototype.model.daos.PageRequest;
+import com.prototype.model.dtos.ProviderRow;
 import com.prototype.model.entities.Provider;
 import com.prototype.services.ProviderService;
 
@@ -62,30 +63,37 @@ public class ProviderController {
     @FXML
     private Button cleanFormButton;
 
+    @FXML
+    private Button loadMoreButton;
+
     // ================== TABLA ==================
 
     @FXML
-    private TableView<Provider> providerTable;
+    private TableView<ProviderRow> providerTable;
 
     @FXML
-    private TableColumn<Provider, Long> idColumn;
+    private TableColumn<ProviderRow, Long> idColumn;
 
     @FXML
-    private TableColumn<Provider, String> nameProviderColumn;
+    private TableColumn<ProviderRow, String> nameProviderColumn;
 
     @FXML
-    private TableColumn<Provider, String> tributaryIdColumn;
+    private TableColumn<ProviderRow, String> tributaryIdColumn;
 
     @FXML
-    private TableColumn<Provider, String> contactEmailColumn;
+    private TableColumn<ProviderRow, String> contactEmailColumn;
 
     @FXML
-    private TableColumn<Provider, String> addressColumn;
+    private TableColumn<ProviderRow, String> addressColumn;
 
     // ================== SERVICE + LISTA ==================
 
+    private static final int PAGE_SIZE = 200;
+
     private final ProviderService providerService = new ProviderService();
-    private final ObservableList<Provider> providerList = FXCollections.observableArrayList();
+    private final ObservableList<ProviderRow> providerList = FXCollections.observableArrayList();
+    private Page<ProviderRow> currentPage; // última página leída
+    private CompletableFuture<?> pendingLoad; // carga en curso, cancelable
 
     // ================== INIT ==================
 
@@ -116,14 +124,46 @@ public class ProviderController {
     }
 
     private void loadProviderList() {
-        List<Provider> all = providerService.findAll();
-        providerList.setAll(all);
-        providerTable.setItems(providerList);
+        FxAsync.cancel(pendingLoad);
+        loadMoreButton.setDisable(true);
+        pendingLoad = FxAsync.load(() -> providerService.findFirstRowPage(PAGE_SIZE), page -> {
+            currentPage = page;
+            providerList.setAll(page.getContent());
+            providerTable.setItems(providerList);
+            updateLoadMoreButton();
+        }, this::showLoadError);
+    }
+
+    @FXML
+    private void handleLoadMore(ActionEvent event) {
+        if (currentPage == null || !currentPage.hasNext()) {
+            return;
+        }
+        FxAsync.cancel(pendingLoad);
+        loadMoreButton.setDisable(true);
+        PageRequest next = currentPage.nextPageRequest();
+        pendingLoad = FxAsync.load(() -> providerService.findRowPage(next), page -> {
+            currentPage = page;
+            providerList.addAll(page.getContent());
+            updateLoadMoreButton();
+        }, this::showLoadError);
+    }
+
+    private void updateLoadMoreButton() {
+        loadMoreButton.setDisable(!currentPage.hasNext());
+        int loaded = providerList.size();
+        FxAsync.load(providerService::estimateCount,
+                total -> loadMoreButton.setText("Cargar más (" + loaded + " de ~" + total + ")"),
+                error -> loadMoreButton.setText("Cargar más (" + loaded + ")"));
+    }
+
+    private void showLoadError(Throwable error) {
+        showAlert(AlertType.ERROR, "Error de carga", "No se pudieron cargar los datos: " + error.getMessage());
     }
 
     // ================== FORMULARIO ==================
 
-    private void populateForm(Provider p) {
+    private void populateForm(ProviderRow p) {
         idTextField.setText(p.getId() != null ? String.valueOf(p.getId()) : "");
         providerNameTextField.setText(p.getName());
         taxIdTextField.setText(p.getTaxId());
@@ -160,80 +200,87 @@ public class ProviderController {
 
     @FXML
     private void handleCreate(ActionEvent event) {
-        try {
-            String name = providerNameTextField.getText();
-            String taxId = taxIdTextField.getText();
-            String email = contactEmailTextField.getText();
-            String address = addressTextField.getText();
+        String name = providerNameTextField.getText();
+        String taxId = taxIdTextField.getText();
+        String email = contactEmailTextField.getText();
+        String address = addressTextField.getText();
 
-            Provider created = providerService.createProvider(name, taxId, email, address);
+        FxAsync.load(() -> providerService.createProvider(name, taxId, email, address), created -> {
             statusLabel.setText("Proveedor creado con ID: " + created.getId());
             clearForm();
             loadProviderList();
-        } catch (IllegalArgumentException e) {
-            showAlert(AlertType.ERROR, "Error de creación", "No se pudo crear el proveedor: " + e.getMessage());
-        } catch (Exception e) {
-            showAlert(AlertType.ERROR, "Error de creación",
-                    "Ocurrió un error al crear el proveedor: " + e.getMessage());
-        }
+        }, error -> showServiceError(error, "Error de creación", "No se pudo crear el proveedor: ",
+                "Ocurrió un error al crear el proveedor: "));
     }
 
     @FXML
     private void handleUpdate(ActionEvent event) {
-        try {
-            Long id = Long.parseLong(idTextField.getText());
-
-            String newName = providerNameTextField.getText();
-            String newTaxId = taxIdTextField.getText();
-            String newEmail = contactEmailTextField.getText();
-            String newAddress = addressTextField.getText();
+        Long id = parseId();
+        if (id == null) {
+            return;
+        }
+        String newName = providerNameTextField.getText();
+        String newTaxId = taxIdTextField.getText();
+        String newEmail = contactEmailTextField.getText();
+        String newAddress = addressTextField.getText();
 
-            Provider updated = providerService.updateProvider(id, newName, newTaxId, newEmail, newAddress);
+        FxAsync.load(() -> providerService.updateProvider(id, newName, newTaxId, newEmail, newAddress), updated -> {
             statusLabel.setText("Proveedor actualizado: " + updated.getId());
             clearForm();
             loadProviderList();
-        } catch (NumberFormatException e) {
-            showAlert(AlertType.ERROR, "Error de formato", "El ID debe ser numérico.");
-        } catch (IllegalArgumentException e) {
-            showAlert(AlertType.ERROR, "Error de actualización", e.getMessage());
-        } catch (Exception e) {
-            showAlert(AlertType.ERROR, "Error de actualización",
-                    "Ocurrió un error al actualizar: " + e.getMessage());
-        }
+        }, error -> showServiceError(error, "Error de actualización", "",
+                "Ocurrió un error al actualizar: "));
     }
 
     @FXML
     private void handleDelete(ActionEvent event) {
-        try {
-            Long id = Long.parseLong(idTextField.getText());
-            Provider removed = providerService.removeProvider(id);
+        Long id = parseId();
+        if (id == null) {
+            return;
+        }
+
+        FxAsync.load(() -> providerService.removeProvider(id), removed -> {
             statusLabel.setText("Proveedor eliminado: " + removed.getId());
             clearForm();
             loadProviderList();
-        } catch (NumberFormatException e) {
-            showAlert(AlertType.ERROR, "Error de formato", "El ID debe ser numérico.");
-        } catch (IllegalArgumentException e) {
-            showAlert(AlertType.ERROR, "Error de eliminación", e.getMessage());
-        } catch (Exception e) {
-            showAlert(AlertType.ERROR, "Error de eliminación",
-                    "Ocurrió un error al eliminar: " + e.getMessage());
-        }
+        }, error -> showServiceError(error, "Error de eliminación", "",
+                "Ocurrió un error al eliminar: "));
     }
 
     @FXML
     private void handleSearch(ActionEvent event) {
+        Long id = parseId();
+        if (id == null) {
+            return;
+        }
+
+        FxAsync.load(() -> ProviderRow.from(providerService.findById(id)), row -> {
+            populateForm(row);
+            statusLabel.setText("Proveedor encontrado: " + row.getId());
+        }, error -> showServiceError(error, "Error de búsqueda", "",
+                "Ocurrió un error al buscar: "));
+    }
+
+    /**
+     * Reads the identifier field, telling the user when it is not a number.
+     *
+     * @return the identifier, or {@code null} if it is not a number
+     */
+    private Long parseId() {
         try {
-            Long id = Long.parseLong(idTextField.getText());
-            Provider p = providerService.findById(id);
-            populateForm(p);
-            statusLabel.setText("Proveedor encontrado: " + p.getId());
+            return Long.parseLong(idTextField.getText());
         } catch (NumberFormatException e) {
             showAlert(AlertType.ERROR, "Error de formato", "El ID debe ser numérico.");
-        } catch (IllegalArgumentException e) {
-            showAlert(AlertType.ERROR, "Error de búsqueda", e.getMessage());
-        } catch (Exception e) {
-            showAlert(AlertType.ERROR, "Error de búsqueda",
-                    "Ocurrió un error al buscar: " + e.getMessage());
+            return null;
         }
     }
+
+    /**
+     * Reports a failed service call: validation errors with
+     * {@code validationPrefix}, anything else with {@code prefix}.
+     */
+    private void showServiceError(Throwable error, String title, String validationPrefix, String prefix) {
+        String message = error instanceof IllegalArgumentException ? validationPrefix : prefix;
+        showAlert(AlertType.ERROR, title, message + error.getMessage());
+    }
 }
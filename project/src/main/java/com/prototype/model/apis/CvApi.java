@@ -3,6 +3,10 @@ package com.prototype.model.apis;
 import org.bytedeco.javacv.FrameGrabber.Exception;
 
 import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.bytedeco.javacv.CanvasFrame;
 import org.bytedeco.javacv.Frame;
@@ -20,9 +24,14 @@ import org.bytedeco.javacv.OpenCVFrameGrabber;
 public class CvApi {
 
     /**
-     * Continuously captures frames from the system camera using
-     * {@link OpenCVFrameGrabber} and attempts to detect a QR code in each frame.
-     * A camera preview window is displayed using {@link CanvasFrame}.
+     * Continuously captures frames from the system camera and attempts to
+     * detect a QR code in them, showing a camera preview in a
+     * {@link CanvasFrame}.
+     * <p>
+     * Frames are grabbed and decoded by a {@link QrScanner}: grabbing follows
+     * the camera rate while decoder threads work on the newest frame, so a
+     * slow decode neither delays the preview nor queues stale frames.
+     * </p>
      * <p>
      * The method stops scanning once a valid QR code is detected or the preview
      * window is closed.
@@ -33,32 +42,28 @@ public class CvApi {
      * @throws InterruptedException if the thread is interrupted during execution
      */
     public static String readQr() throws Exception, InterruptedException {
-        OpenCVFrameGrabber openCVFrameGrabber = new OpenCVFrameGrabber(0);
         CanvasFrame canvasFrame = new CanvasFrame("null", CanvasFrame.getDefaultGamma());
         canvasFrame.setDefaultCloseOperation(javax.swing.JFrame.DISPOSE_ON_CLOSE);
-        Java2DFrameConverter java2dFrameConverter = new Java2DFrameConverter();
-        String code = null;
-        openCVFrameGrabber.start();
-        while (canvasFrame.isVisible()) {
-            Frame frame = openCVFrameGrabber.grab();
-            if (frame == null) {
-                continue;
-            }
-            canvasFrame.showImage(frame);
-            BufferedImage bufferedImage = java2dFrameConverter.convert(frame);
-            code = GoogleApiZxing.bufferQr(bufferedImage);
-            if (code != null) {
-
-                break;
+        CompletableFuture<String> code = new CompletableFuture<>();
+        QrScanner scanner = new QrScanner(0);
+        scanner.addListener(code::complete);
+        scanner.setPreview(canvasFrame::showImage);
+        scanner.start();
+        try {
+            while (canvasFrame.isVisible() && !code.isDone()) {
+                try {
+                    return code.get(100, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // sigue esperando mientras la ventana esté abierta
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
             }
-            Thread.sleep(33);
+            return code.getNow(null);
+        } finally {
+            scanner.stop();
+            canvasFrame.dispose();
         }
-        java2dFrameConverter.close();
-        openCVFrameGrabber.stop();
-        openCVFrameGrabber.close();
-        canvasFrame.dispose();
-
-        return code;
     }
 
     /**
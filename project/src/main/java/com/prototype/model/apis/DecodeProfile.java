@@ -0,0 +1,96 @@
+package com.prototype.model.apis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.DecodeHintType;
+import com.prototype.model.config.PersistenceConfig;
+
+/**
+ * Named sets of ZXing decode hints, chosen with
+ * {@code prototype.scanner.profile} ({@code fast-gate} by default).
+ *
+ * <p>
+ * Every profile restricts the search to QR codes and decodes their text as
+ * UTF-8, the encoding of the codes generated by {@link GoogleApiZxing};
+ * without it ZXing guesses the character set of every code.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public enum DecodeProfile {
+
+    /** Live camera frames: a single fast pass, the next frame being a few milliseconds away. */
+    FAST_GATE("fast-gate", false, false),
+
+    /** Worn, blurred or badly lit labels: {@code TRY_HARDER} searches more rows and scales. */
+    ROBUST("robust", true, false),
+
+    /**
+     * Images holding only the printed code and its quiet zone, such as a
+     * saved label or a tight region: {@code PURE_BARCODE} skips detection.
+     */
+    PURE_PRINTED_LABEL("pure-printed-label", false, true);
+
+    private final String profileName;
+    private final Map<DecodeHintType, Object> hints;
+
+    DecodeProfile(String profileName, boolean tryHarder, boolean pureBarcode) {
+        this.profileName = profileName;
+        Map<DecodeHintType, Object> map = new EnumMap<>(DecodeHintType.class);
+        map.put(DecodeHintType.POSSIBLE_FORMATS, List.of(BarcodeFormat.QR_CODE));
+        map.put(DecodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name());
+        if (tryHarder) {
+            map.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        }
+        if (pureBarcode) {
+            map.put(DecodeHintType.PURE_BARCODE, Boolean.TRUE);
+        }
+        this.hints = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * @return the profile selected by {@code prototype.scanner.profile}
+     */
+    public static DecodeProfile configured() {
+        return fromName(PersistenceConfig.get("prototype.scanner.profile", FAST_GATE.profileName));
+    }
+
+    /**
+     * Finds a profile by name, such as {@code fast-gate}, or by constant, such
+     * as {@code FAST_GATE}.
+     *
+     * @param name the profile name
+     * @return the profile
+     * @throws IllegalArgumentException if no profile has that name
+     */
+    public static DecodeProfile fromName(String name) {
+        String normalized = name.strip().toLowerCase(Locale.ROOT).replace('_', '-');
+        for (DecodeProfile profile : values()) {
+            if (profile.profileName.equals(normalized)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Perfil de decodificación desconocido: " + name);
+    }
+
+    /**
+     * @return the name of the profile in the configuration
+     */
+    public String getProfileName() {
+        return profileName;
+    }
+
+    /**
+     * @return the hints passed to ZXing, shared and unmodifiable
+     */
+    public Map<DecodeHintType, Object> getHints() {
+        return hints;
+    }
+}
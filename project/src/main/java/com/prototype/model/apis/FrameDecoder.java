@@ -0,0 +1,141 @@
+package com.prototype.model.apis;
+
+import java.util.Map;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+
+/**
+ * Decodes QR codes from camera frames without going through
+ * {@link java.awt.image.BufferedImage}.
+ *
+ * <p>
+ * The frame buffer is wrapped as an OpenCV {@link Mat}, converted to grey
+ * natively by OpenCV into a matrix kept between frames, and read by a
+ * {@link MatLuminanceSource} into a luminance array also kept between
+ * frames. Once the first frame of a given size has been decoded, no image
+ * buffer is allocated again.
+ * </p>
+ *
+ * <p>
+ * The reader is reused for every frame with the hints of a
+ * {@link DecodeProfile}. A frame without a code is the common case: it
+ * reallocates no image buffer, and ZXing reports it with preallocated
+ * exceptions that carry no stack trace, caught here and turned into a
+ * {@code null} result. The {@link HybridBinarizer} still builds a new bit
+ * matrix for every frame.
+ * </p>
+ *
+ * <p>
+ * Instances hold native memory and mutable buffers, so they are not
+ * thread-safe; {@link GoogleApiZxing#frameQr(Frame)} keeps one per thread
+ * and profile.
+ * </p>
+ */
+final class FrameDecoder {
+
+    private final OpenCVFrameConverter.ToMat toMat = new OpenCVFrameConverter.ToMat();
+    private final Mat grey = new Mat();
+    private final QRCodeReader reader = new QRCodeReader();
+    private final Map<DecodeHintType, Object> hints;
+    private byte[] luminances;
+
+    /**
+     * @param profile the hints used for every frame
+     */
+    FrameDecoder(DecodeProfile profile) {
+        this.hints = profile.getHints();
+    }
+
+    /**
+     * Decodes the QR code shown in a frame.
+     *
+     * @param frame a frame grabbed from the camera, BGR, BGRA or grey
+     * @return the decoded text, or {@code null} if the frame holds no readable QR code
+     */
+    String decode(Frame frame) {
+        Mat image = toMat.convert(frame);
+        if (image == null) {
+            return null;
+        }
+        return decodeGrey(toGrey(image, grey));
+    }
+
+    /**
+     * Decodes the QR code shown in a greyscale image.
+     *
+     * @param source an 8-bit single-channel image
+     * @return the decoded text, or {@code null} if the image holds no readable QR code
+     */
+    String decodeGrey(Mat source) {
+        Result result = decodeResult(source);
+        return result == null ? null : result.getText();
+    }
+
+    /**
+     * Decodes the QR code shown in a greyscale image, keeping the position
+     * of its finder patterns.
+     *
+     * @param source an 8-bit single-channel image
+     * @return the result, whose points are relative to {@code source}, or
+     *         {@code null} if the image holds no readable QR code
+     */
+    Result decodeResult(Mat source) {
+        int area = source.cols() * source.rows();
+        if (luminances == null || luminances.length != area) {
+            luminances = new byte[area];
+        }
+        return decodeResult(new MatLuminanceSource(source, luminances));
+    }
+
+    /**
+     * Decodes the QR code of any luminance source, such as an image
+     * already in the Java heap.
+     *
+     * @param source the luminance source
+     * @return the result, or {@code null} if the source holds no readable QR code
+     */
+    Result decodeResult(LuminanceSource source) {
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
+        try {
+            return reader.decode(bitmap, hints);
+        } catch (ReaderException e) {
+            // NotFound, Checksum and Format exceptions are shared, stackless instances
+            return null;
+        } finally {
+            reader.reset();
+        }
+    }
+
+    /**
+     * Converts an image to grey natively.
+     *
+     * @param image  the image, BGR, BGRA or grey
+     * @param target where colour images are converted; resized if needed
+     * @return {@code image} itself if it is already grey, otherwise {@code target}
+     */
+    static Mat toGrey(Mat image, Mat target) {
+        switch (image.channels()) {
+            case 1:
+                return image;
+            case 3:
+                opencv_imgproc.cvtColor(image, target, opencv_imgproc.COLOR_BGR2GRAY);
+                return target;
+            case 4:
+                opencv_imgproc.cvtColor(image, target, opencv_imgproc.COLOR_BGRA2GRAY);
+                return target;
+            default:
+                throw new IllegalArgumentException("Formato de imagen no soportado: " + image.channels() + " canales.");
+        }
+    }
+}
@@ -4,12 +4,15 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
 
 import javax.imageio.ImageIO;
 
+import org.bytedeco.javacv.Frame;
+
 import com.google.zxing.BarcodeFormat;
 
-import com.google.zxing.BinaryBitmap;
 import com.google.zxing.LuminanceSource;
 import com.google.zxing.MultiFormatWriter;
 
@@ -19,9 +22,6 @@ import com.google.zxing.client.j2se.MatrixToImageConfig;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 
-import com.google.zxing.common.HybridBinarizer;
-import com.google.zxing.qrcode.QRCodeReader;
-
 /**
  * Provides utility methods for generating, converting, saving, and reading QR codes
  * using the ZXing library. This class encapsulates the complete logic for creating
@@ -32,6 +32,12 @@ import com.google.zxing.qrcode.QRCodeReader;
  */
 public class GoogleApiZxing {
 
+    /** Decoders of the calling thread, one per profile, so readers and buffers are reused. */
+    private static final ThreadLocal<Map<DecodeProfile, FrameDecoder>> FRAME_DECODERS = ThreadLocal
+            .withInitial(() -> new EnumMap<>(DecodeProfile.class));
+
+    private static final DecodeProfile DEFAULT_PROFILE = DecodeProfile.configured();
+
     /**
      * Creates a {@link BitMatrix} representation of a QR code from a given string.
      *
@@ -73,22 +79,58 @@ public class GoogleApiZxing {
     }
 
     /**
-     * Attempts to decode a QR code from a provided {@link BufferedImage}.
+     * Attempts to decode a QR code from a provided {@link BufferedImage},
+     * with the profile of {@code prototype.scanner.profile}.
      *
      * @param image the image containing the QR code
      * @return the decoded QR text, or {@code null} if no valid QR code is found
      */
     public static String bufferQr(BufferedImage image) {
+        return bufferQr(image, DEFAULT_PROFILE);
+    }
+
+    /**
+     * Attempts to decode a QR code from a provided {@link BufferedImage}.
+     *
+     * @param image   the image containing the QR code
+     * @param profile the decode hints to use
+     * @return the decoded QR text, or {@code null} if no valid QR code is found
+     */
+    public static String bufferQr(BufferedImage image, DecodeProfile profile) {
         LuminanceSource bufferedImageLuminanceSource = new BufferedImageLuminanceSource(image);
-        BinaryBitmap binaryBitmap = new BinaryBitmap(new HybridBinarizer(bufferedImageLuminanceSource));
-        QRCodeReader qrCodeReader = new QRCodeReader();
-        try {
-            Result result = qrCodeReader.decode(binaryBitmap);
-            return result.getText();
-        } catch (Exception e) {
-            e.getMessage();
-        }
-        return null;
+        Result result = decoder(profile).decodeResult(bufferedImageLuminanceSource);
+        return result == null ? null : result.getText();
+    }
+
+    /**
+     * Attempts to decode a QR code from a camera frame.
+     *
+     * <p>
+     * Faster than converting the frame and calling {@link #bufferQr(BufferedImage)}:
+     * the frame is read in place and converted to grey by OpenCV, reusing
+     * buffers kept per thread, so no image is copied into the Java heap.
+     * </p>
+     *
+     * @param frame the frame grabbed from the camera
+     * @return the decoded QR text, or {@code null} if no valid QR code is found
+     */
+    public static String frameQr(Frame frame) {
+        return frameQr(frame, DEFAULT_PROFILE);
+    }
+
+    /**
+     * Attempts to decode a QR code from a camera frame with the given hints.
+     *
+     * @param frame   the frame grabbed from the camera
+     * @param profile the decode hints to use
+     * @return the decoded QR text, or {@code null} if no valid QR code is found
+     */
+    public static String frameQr(Frame frame, DecodeProfile profile) {
+        return decoder(profile).decode(frame);
+    }
+
+    private static FrameDecoder decoder(DecodeProfile profile) {
+        return FRAME_DECODERS.get().computeIfAbsent(profile, FrameDecoder::new);
     }
 
     /**
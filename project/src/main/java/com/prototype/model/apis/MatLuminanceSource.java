@@ -0,0 +1,113 @@
+package com.prototype.model.apis;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * ZXing {@link LuminanceSource} that reads an 8-bit greyscale OpenCV
+ * {@link Mat} in place.
+ *
+ * <p>
+ * Unlike {@code BufferedImageLuminanceSource}, no intermediate image is
+ * built: rows are copied straight from the native buffer of the matrix, and
+ * {@link #getMatrix()} fills a caller-supplied array, so a source reused
+ * across frames of the same size allocates nothing. The matrix must stay
+ * unchanged until decoding finishes.
+ * </p>
+ *
+ * <p>
+ * Cropping is supported and returns a view of the same buffer that only
+ * offsets the reads, so it allocates no native memory either.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public final class MatLuminanceSource extends LuminanceSource {
+
+    private final BytePointer data;
+    private final long step;
+    private final int left;
+    private final int top;
+    private byte[] matrix;
+
+    /**
+     * Wraps a greyscale matrix.
+     *
+     * @param grey   the image, one unsigned byte per pixel
+     * @param matrix array to fill in {@link #getMatrix()}, reused if it holds
+     *               exactly {@code cols * rows} bytes; may be {@code null}
+     * @throws IllegalArgumentException if the matrix is not 8-bit single-channel
+     */
+    public MatLuminanceSource(Mat grey, byte[] matrix) {
+        super(grey.cols(), grey.rows());
+        if (grey.type() != opencv_core.CV_8UC1) {
+            throw new IllegalArgumentException("Se esperaba una imagen en escala de grises de 8 bits.");
+        }
+        this.data = grey.data();
+        this.step = grey.step1(0);
+        this.left = 0;
+        this.top = 0;
+        this.matrix = matrix;
+    }
+
+    private MatLuminanceSource(MatLuminanceSource parent, int left, int top, int width, int height) {
+        super(width, height);
+        this.data = parent.data;
+        this.step = parent.step;
+        this.left = parent.left + left;
+        this.top = parent.top + top;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        if (y < 0 || y >= getHeight()) {
+            throw new IllegalArgumentException("Fila fuera de la imagen: " + y);
+        }
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        data.position(offset(y)).get(row, 0, width);
+        return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        int width = getWidth();
+        int height = getHeight();
+        int area = width * height;
+        if (matrix == null || matrix.length != area) {
+            matrix = new byte[area];
+        }
+        if (step == width && left == 0 && top == 0) {
+            data.position(0).get(matrix, 0, area);
+        } else {
+            for (int y = 0; y < height; y++) {
+                data.position(offset(y)).get(matrix, y * width, width);
+            }
+        }
+        return matrix;
+    }
+
+    @Override
+    public boolean isCropSupported() {
+        return true;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        if (left < 0 || top < 0 || left + width > getWidth() || top + height > getHeight()) {
+            throw new IllegalArgumentException("El recorte no cabe en la imagen.");
+        }
+        return new MatLuminanceSource(this, left, top, width, height);
+    }
+
+    /** Position in the buffer of the first pixel of a row of this source. */
+    private long offset(int y) {
+        return (top + y) * step + left;
+    }
+}
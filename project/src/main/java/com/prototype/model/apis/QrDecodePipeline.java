@@ -0,0 +1,227 @@
+package com.prototype.model.apis;
+
+import java.lang.System.Logger.Level;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import com.prototype.model.enums.QrDetectionMode;
+import com.prototype.model.metrics.QrPipelineMetrics;
+
+/**
+ * Decoding stages of the QR scanning pipeline: a handoff where the newest
+ * frame always wins and a pool of decoder threads.
+ *
+ * <p>
+ * The grabbing thread calls {@link #submit(Frame)} for every frame. The frame
+ * is converted to grey into a free buffer and left in a single-slot handoff;
+ * if the previous frame is still there, no decoder was free for it and it is
+ * dropped. Decoders always take the frame in the slot, so a slow decode
+ * never builds a backlog: the next one starts on the freshest frame
+ * available. The grabbing thread never waits for a decoder.
+ * </p>
+ *
+ * <p>
+ * There are as many buffers as decoders plus two, one in the slot and one
+ * being filled, so a free buffer always exists and no image memory is
+ * allocated once the first frames have been seen. Stage latencies and drop
+ * counts are recorded in the {@link QrPipelineMetrics} given.
+ * </p>
+ *
+ * <p>
+ * In {@link QrDetectionMode#REGION} mode the decoders locate the code first
+ * and decode only its region, tracked across frames and shared among them;
+ * see {@link RegionQrDecoder}.
+ * </p>
+ */
+public class QrDecodePipeline implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(QrDecodePipeline.class.getName());
+
+    private final QrPipelineMetrics metrics;
+    private final QrDetectionMode mode;
+    private final DecodeProfile profile;
+    private final Consumer<String> onCode;
+    private final AtomicReference<RegionQrDecoder.Region> tracked = new AtomicReference<>();
+    private final OpenCVFrameConverter.ToMat toMat = new OpenCVFrameConverter.ToMat();
+    private final BlockingQueue<Mat> free;
+    private final List<Mat> buffers = new ArrayList<>();
+    private final List<Thread> decoders = new ArrayList<>();
+
+    private final Object slotLock = new Object();
+    private Mat slot;
+    private long slotNanos;
+    private boolean closed;
+
+    /**
+     * Held by {@link #submit(Frame)} while it writes into a buffer, and by
+     * {@link #close()} while it releases them, so no buffer is freed under
+     * a frame being converted.
+     */
+    private final Object submitLock = new Object();
+    private boolean released;
+
+    /**
+     * Creates the buffers and starts the decoder threads.
+     *
+     * @param metrics  where stage latencies and drops are recorded
+     * @param decoders number of decoder threads, at least one
+     * @param mode     how decoders search each frame
+     * @param profile  the ZXing hints of the decoders
+     * @param onCode   receives each decoded text; called from the decoder
+     *                 threads, possibly concurrently, so it must be thread-safe
+     */
+    public QrDecodePipeline(QrPipelineMetrics metrics, int decoders, QrDetectionMode mode, DecodeProfile profile,
+            Consumer<String> onCode) {
+        if (decoders < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un decodificador.");
+        }
+        this.metrics = metrics;
+        this.mode = mode;
+        this.profile = profile;
+        this.onCode = onCode;
+        this.free = new ArrayBlockingQueue<>(decoders + 2);
+        for (int i = 0; i < decoders + 2; i++) {
+            Mat buffer = new Mat();
+            buffers.add(buffer);
+            free.add(buffer);
+        }
+        for (int i = 0; i < decoders; i++) {
+            this.decoders.add(Thread.ofPlatform().name("qr-decoder-" + i).daemon(true).start(this::decodeLoop));
+        }
+    }
+
+    /**
+     * Hands a frame to the decoders, replacing the frame waiting for one, if
+     * any. Must be called from a single thread, the one that grabs frames;
+     * the frame can be reused as soon as this method returns. Frames
+     * submitted after {@link #close()} are ignored.
+     *
+     * @param frame a frame grabbed from the camera, BGR, BGRA or grey
+     */
+    public void submit(Frame frame) {
+        long start = System.nanoTime();
+        synchronized (submitLock) {
+            if (released) {
+                return;
+            }
+            Mat image = toMat.convert(frame);
+            if (image == null) {
+                return;
+            }
+            Mat buffer = free.poll();
+            if (buffer == null) {
+                // Only possible while closing: every buffer is accounted for otherwise.
+                return;
+            }
+            if (FrameDecoder.toGrey(image, buffer) != buffer) {
+                image.copyTo(buffer);
+            }
+            Mat replaced;
+            synchronized (slotLock) {
+                replaced = slot;
+                slot = buffer;
+                slotNanos = System.nanoTime();
+                slotLock.notify();
+            }
+            if (replaced != null) {
+                free.add(replaced);
+                metrics.recordDropped();
+            }
+        }
+        metrics.recordHandoff(System.nanoTime() - start);
+    }
+
+    /**
+     * @return the metrics of the pipeline
+     */
+    public QrPipelineMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void decodeLoop() {
+        FrameDecoder decoder = new FrameDecoder(profile);
+        try (RegionQrDecoder regionDecoder = mode == QrDetectionMode.REGION
+                ? new RegionQrDecoder(tracked, profile) : null) {
+            decodeFrames(decoder, regionDecoder);
+        }
+    }
+
+    private void decodeFrames(FrameDecoder decoder, RegionQrDecoder regionDecoder) {
+        while (true) {
+            Mat grey;
+            long handedOff;
+            synchronized (slotLock) {
+                while (slot == null && !closed) {
+                    try {
+                        slotLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                grey = slot;
+                handedOff = slotNanos;
+                slot = null;
+            }
+            long start = System.nanoTime();
+            metrics.recordWait(start - handedOff);
+            String code = null;
+            try {
+                code = regionDecoder != null ? regionDecoder.decode(grey) : decoder.decodeGrey(grey);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error al decodificar una imagen de la cámara", e);
+            } finally {
+                free.add(grey);
+            }
+            metrics.recordDecode(System.nanoTime() - start, code != null);
+            if (code != null) {
+                try {
+                    onCode.accept(code);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Error al procesar el código QR leído", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the decoders, waiting for the frames being decoded, and releases
+     * the buffers once no frame is being submitted. A frame still waiting in
+     * the handoff is discarded. It may be called from any thread, while the
+     * grabbing thread is still submitting.
+     */
+    @Override
+    public void close() {
+        synchronized (slotLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            slotLock.notifyAll();
+        }
+        for (Thread decoder : decoders) {
+            try {
+                decoder.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        synchronized (submitLock) {
+            released = true;
+            free.clear();
+            buffers.forEach(Mat::close);
+            toMat.close();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.prototype.model.apis;
+
+import java.lang.System.Logger.Level;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.FrameGrabber;
+import org.bytedeco.javacv.OpenCVFrameGrabber;
+
+import com.prototype.model.config.PersistenceConfig;
+import com.prototype.model.enums.QrDetectionMode;
+import com.prototype.model.metrics.QrPipelineMetrics;
+
+/**
+ * Long-lived QR scanner that keeps the camera open and decodes frames
+ * continuously.
+ *
+ * <p>
+ * Unlike {@link CvApi#readQr()}, which opens the device, waits for the
+ * exposure to settle and closes it again on every scan, the device is opened
+ * once by {@link #start()} and stays open until {@link #stop()}, so a code is
+ * read as soon as it is shown to the camera.
+ * </p>
+ *
+ * <p>
+ * A dedicated thread grabs frames and hands them to a
+ * {@link QrDecodePipeline} with {@code prototype.scanner.decoders} decoder
+ * threads (half the processors, up to four, by default), so grabbing runs
+ * at the camera rate whatever the decode time, and decoders always work on
+ * the newest frame. Stage latencies and dropped frames are published as
+ * {@link QrPipelineMetrics}. Decoders locate the code and decode only its
+ * region unless {@code prototype.scanner.mode} is {@code FULL_FRAME}, with
+ * the {@link DecodeProfile} of {@code prototype.scanner.profile}.
+ * </p>
+ *
+ * <p>
+ * Decoded codes are delivered to the listeners registered with
+ * {@link #addListener(Consumer)}, in order, on a separate thread, so a slow
+ * listener never delays the camera. A code held in front of the camera is
+ * reported once: the same text is ignored until it has been out of sight for
+ * {@code prototype.scanner.repeat_millis} milliseconds (2000 by default).
+ * </p>
+ *
+ * <p>
+ * If the device cannot be opened, stops delivering frames or fails, it is
+ * closed and opened again, waiting from one second up to thirty between
+ * attempts, until {@link #stop()} is called.
+ * </p>
+ */
+public class QrScanner {
+
+    private static final System.Logger LOGGER = System.getLogger(QrScanner.class.getName());
+
+    private static final long REPEAT_MILLIS = PersistenceConfig.getInt("prototype.scanner.repeat_millis", 2000);
+
+    private static final int DECODERS = PersistenceConfig.getInt("prototype.scanner.decoders",
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
+
+    private static final QrDetectionMode MODE = QrDetectionMode.valueOf(
+            PersistenceConfig.get("prototype.scanner.mode", QrDetectionMode.REGION.name()));
+
+    private static final DecodeProfile PROFILE = DecodeProfile.configured();
+
+    /** Consecutive empty grabs after which the device is considered lost. */
+    private static final int MAX_EMPTY_FRAMES = 30;
+
+    private static final long MIN_RECONNECT_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final long MAX_RECONNECT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final int device;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    private Thread grabber;
+    private ExecutorService dispatcher;
+    private volatile QrDecodePipeline pipeline;
+    private volatile Consumer<Frame> preview;
+    private final Object seenLock = new Object();
+    private String lastCode;
+    private long lastSeen;
+    private volatile boolean running;
+    private volatile boolean connected;
+
+    /**
+     * Creates a scanner for a camera. The device is not opened until
+     * {@link #start()}.
+     *
+     * @param device index of the camera, {@code 0} being the default one
+     */
+    public QrScanner(int device) {
+        this.device = device;
+    }
+
+    /**
+     * Opens the camera and starts scanning. Calling it while running has no effect.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        dispatcher = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("qr-scanner-events").daemon(true).factory());
+        QrDecodePipeline started = new QrDecodePipeline(QrPipelineMetrics.camera(device), DECODERS, MODE, PROFILE,
+                this::onDecoded);
+        pipeline = started;
+        grabber = Thread.ofPlatform().name("qr-scanner").daemon(true).start(() -> scanLoop(started));
+    }
+
+    /**
+     * Stops scanning and releases the camera, waiting up to five seconds for
+     * the scanning thread to finish; a camera stuck in a grab is released by
+     * that thread when the grab returns, and its last frame is ignored by
+     * the closed pipeline. Codes already decoded are still delivered.
+     *
+     * <p>
+     * It blocks while the decoders finish and the device closes, so UI code
+     * should call {@link #stopAsync()} instead.
+     * </p>
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            grabber.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pipeline.close();
+        dispatcher.shutdown();
+        LOGGER.log(Level.INFO, "Escáner de la cámara {0} detenido: {1}", device, pipeline.getMetrics());
+    }
+
+    /**
+     * Runs {@link #stop()} on a thread of its own.
+     *
+     * @return a future completed once the scanner is stopped
+     */
+    public CompletableFuture<Void> stopAsync() {
+        return CompletableFuture.runAsync(this::stop,
+                task -> Thread.ofPlatform().name("qr-scanner-stop").daemon(true).start(task));
+    }
+
+    /**
+     * @return {@code true} between {@link #start()} and {@link #stop()}
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return {@code true} while the camera is open and delivering frames
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Registers a listener of decoded codes. Listeners run one at a time on
+     * the event thread of the scanner.
+     *
+     * @param listener receives the text of each decoded code
+     */
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener registered with {@link #addListener(Consumer)}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(Consumer<String> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Shows every grabbed frame, for instance in a camera preview window.
+     * The consumer runs on the grabbing thread and must return quickly.
+     *
+     * @param preview receives each frame, valid only during the call; {@code null} for none
+     */
+    public void setPreview(Consumer<Frame> preview) {
+        this.preview = preview;
+    }
+
+    /**
+     * @return whether the grabbing thread feeding {@code own} must go on; a
+     *         thread outliving {@link #stop()} ends even if the scanner was
+     *         started again meanwhile
+     */
+    private boolean scanning(QrDecodePipeline own) {
+        return running && pipeline == own;
+    }
+
+    private void scanLoop(QrDecodePipeline own) {
+        long reconnectMillis = MIN_RECONNECT_MILLIS;
+        while (scanning(own)) {
+            try {
+                scanUntilLost(own);
+                reconnectMillis = MIN_RECONNECT_MILLIS;
+            } catch (FrameGrabber.Exception | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Fallo de la cámara " + device + ", reintento en "
+                        + reconnectMillis + " ms", e);
+                reconnectMillis = waitToReconnect(own, reconnectMillis);
+            }
+        }
+    }
+
+    /**
+     * Opens the device and feeds the pipeline until the scanner is stopped
+     * or the device stops delivering frames.
+     */
+    private void scanUntilLost(QrDecodePipeline own) throws FrameGrabber.Exception {
+        OpenCVFrameGrabber camera = new OpenCVFrameGrabber(device);
+        try {
+            camera.start();
+            connected = true;
+            LOGGER.log(Level.INFO, "Cámara {0} abierta para escanear códigos QR", device);
+
+            QrPipelineMetrics metrics = own.getMetrics();
+            int emptyFrames = 0;
+            while (scanning(own)) {
+                long start = System.nanoTime();
+                Frame frame = camera.grab();
+                if (frame == null || frame.image == null) {
+                    if (++emptyFrames >= MAX_EMPTY_FRAMES) {
+                        throw new FrameGrabber.Exception("La cámara " + device + " dejó de entregar imágenes.");
+                    }
+                    continue;
+                }
+                emptyFrames = 0;
+                metrics.recordGrab(System.nanoTime() - start);
+
+                own.submit(frame);
+                Consumer<Frame> shown = preview;
+                if (shown != null) {
+                    shown.accept(frame);
+                }
+            }
+        } finally {
+            connected = false;
+            try {
+                camera.stop();
+                camera.release();
+            } catch (FrameGrabber.Exception e) {
+                LOGGER.log(Level.DEBUG, "No se pudo cerrar la cámara " + device, e);
+            }
+        }
+    }
+
+    /**
+     * Receives the codes of the decoder threads and publishes each code
+     * once while it stays in sight.
+     */
+    private void onDecoded(String code) {
+        // Not the monitor of the scanner: stop() holds it while the decoders finish.
+        synchronized (seenLock) {
+            long now = System.currentTimeMillis();
+            if (!code.equals(lastCode) || now - lastSeen > REPEAT_MILLIS) {
+                publish(code);
+            }
+            lastCode = code;
+            lastSeen = now;
+        }
+    }
+
+    private void publish(String code) {
+        dispatcher.execute(() -> {
+            for (Consumer<String> listener : listeners) {
+                try {
+                    listener.accept(code);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Error al procesar el código QR leído", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits before the next attempt to open the device, returning early if
+     * the scanner is stopped meanwhile.
+     *
+     * @return the wait for the attempt after this one
+     */
+    private long waitToReconnect(QrDecodePipeline own, long millis) {
+        long deadline = System.currentTimeMillis() + millis;
+        while (scanning(own) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(Math.min(100, millis));
+            } catch (InterruptedException e) {
+                return millis;
+            }
+        }
+        return Math.min(millis * 2, MAX_RECONNECT_MILLIS);
+    }
+}
@@ -0,0 +1,223 @@
+package com.prototype.model.apis;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.bytedeco.javacpp.indexer.FloatIndexer;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Size;
+import org.bytedeco.opencv.opencv_objdetect.QRCodeDetector;
+
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.prototype.model.config.PersistenceConfig;
+
+/**
+ * Decodes QR codes that fill a small part of the frame by locating them
+ * first and decoding only their region.
+ *
+ * <p>
+ * The code is located by OpenCV's {@link QRCodeDetector} on the frame
+ * reduced to {@code prototype.scanner.detect_width} pixels wide (640 by
+ * default) and, if not found there, at twice that width. ZXing then decodes
+ * only the located region, with a margin, at full resolution. The region is
+ * tracked: the next frames decode the same region straight away, without
+ * detection, until it no longer holds a readable code.
+ * </p>
+ *
+ * <p>
+ * When no region is located, nothing is decoded, except that every
+ * {@code prototype.scanner.full_frame_every} frames (15 by default) the
+ * whole frame is decoded, so a code the detector misses is still read.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread-safe; the decoders of one pipeline share the
+ * tracked region through the reference given to each.
+ * </p>
+ */
+final class RegionQrDecoder implements AutoCloseable {
+
+    private static final int DETECT_WIDTH = PersistenceConfig.getInt("prototype.scanner.detect_width", 640);
+
+    private static final int FULL_FRAME_EVERY = PersistenceConfig.getInt("prototype.scanner.full_frame_every", 15);
+
+    /** Margin added around a detected code, as a fraction of its size. */
+    private static final double DETECTED_MARGIN = 0.25;
+
+    /** Larger margin around the finder pattern centres reported by ZXing. */
+    private static final double DECODED_MARGIN = 0.5;
+
+    private final FrameDecoder decoder;
+    private final QRCodeDetector detector = new QRCodeDetector();
+    private final Mat reduced = new Mat();
+    private final Mat corners = new Mat();
+    private final Size scaledSize = new Size();
+    private final AtomicReference<Region> tracked;
+    private int framesWithoutRegion;
+
+    /**
+     * @param tracked region tracked between frames, shared by the decoders of a pipeline
+     * @param profile the hints used to decode regions and whole frames
+     */
+    RegionQrDecoder(AtomicReference<Region> tracked, DecodeProfile profile) {
+        this.tracked = tracked;
+        this.decoder = new FrameDecoder(profile);
+    }
+
+    /**
+     * Decodes the QR code shown in a greyscale frame.
+     *
+     * @param grey an 8-bit single-channel frame
+     * @return the decoded text, or {@code null} if no readable QR code was found
+     */
+    String decode(Mat grey) {
+        Region region = tracked.get();
+        if (region != null && region.fits(grey)) {
+            String code = decodeRegion(grey, region);
+            if (code != null) {
+                return code;
+            }
+        }
+        tracked.compareAndSet(region, null);
+
+        region = detect(grey);
+        if (region != null) {
+            framesWithoutRegion = 0;
+            tracked.set(region);
+            return decodeRegion(grey, region);
+        }
+
+        if (++framesWithoutRegion < FULL_FRAME_EVERY) {
+            return null;
+        }
+        framesWithoutRegion = 0;
+        Result result = decoder.decodeResult(grey);
+        if (result == null) {
+            return null;
+        }
+        tracked.set(Region.around(result.getResultPoints(), DECODED_MARGIN, grey));
+        return result.getText();
+    }
+
+    private String decodeRegion(Mat grey, Region region) {
+        try (Rect rect = new Rect(region.x, region.y, region.width, region.height);
+                Mat crop = new Mat(grey, rect)) {
+            return decoder.decodeGrey(crop);
+        }
+    }
+
+    /**
+     * Locates a code on the reduced frame, at one width and then at twice
+     * that width.
+     */
+    private Region detect(Mat grey) {
+        for (int width = DETECT_WIDTH; width <= DETECT_WIDTH * 2; width *= 2) {
+            double scale = Math.min(1.0, (double) width / grey.cols());
+            Mat image = grey;
+            if (scale < 1.0) {
+                opencv_imgproc.resize(grey, reduced, scaledSize, scale, scale, opencv_imgproc.INTER_AREA);
+                image = reduced;
+            }
+            if (detector.detect(image, corners) && corners.channels() == 2 && corners.total() >= 4) {
+                return fromCorners(scale, grey);
+            }
+            if (scale == 1.0) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the four corners, stored as one row or one column of
+     * {@code (x, y)} float pairs.
+     */
+    private Region fromCorners(double scale, Mat grey) {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        long cols = corners.cols();
+        try (FloatIndexer points = corners.createIndexer()) {
+            for (long i = 0; i < 4; i++) {
+                float x = points.get(i / cols, i % cols, 0);
+                float y = points.get(i / cols, i % cols, 1);
+                minX = Math.min(minX, x);
+                maxX = Math.max(maxX, x);
+                minY = Math.min(minY, y);
+                maxY = Math.max(maxY, y);
+            }
+        }
+        return Region.of(minX / scale, minY / scale, maxX / scale, maxY / scale, DETECTED_MARGIN, grey);
+    }
+
+    @Override
+    public void close() {
+        detector.close();
+        reduced.close();
+        corners.close();
+        scaledSize.close();
+    }
+
+    /**
+     * Rectangle of a frame, in pixels, that holds a QR code.
+     */
+    static final class Region {
+
+        final int x;
+        final int y;
+        final int width;
+        final int height;
+
+        private Region(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Builds the region around a box, enlarged by a margin and clipped to the frame.
+         */
+        static Region of(double minX, double minY, double maxX, double maxY, double margin, Mat frame) {
+            double marginX = (maxX - minX) * margin;
+            double marginY = (maxY - minY) * margin;
+            int left = (int) Math.max(0, Math.floor(minX - marginX));
+            int top = (int) Math.max(0, Math.floor(minY - marginY));
+            int right = (int) Math.min(frame.cols(), Math.ceil(maxX + marginX));
+            int bottom = (int) Math.min(frame.rows(), Math.ceil(maxY + marginY));
+            if (right - left < 21 || bottom - top < 21) {
+                return null; // smaller than a version 1 QR code at one pixel per module
+            }
+            return new Region(left, top, right - left, bottom - top);
+        }
+
+        static Region around(ResultPoint[] points, double margin, Mat frame) {
+            if (points == null || points.length == 0) {
+                return null;
+            }
+            double minX = Double.MAX_VALUE;
+            double minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE;
+            double maxY = -Double.MAX_VALUE;
+            for (ResultPoint point : points) {
+                minX = Math.min(minX, point.getX());
+                maxX = Math.max(maxX, point.getX());
+                minY = Math.min(minY, point.getY());
+                maxY = Math.max(maxY, point.getY());
+            }
+            return of(minX, minY, maxX, maxY, margin, frame);
+        }
+
+        boolean fits(Mat frame) {
+            return x + width <= frame.cols() && y + height <= frame.rows();
+        }
+
+        @Override
+        public String toString() {
+            return "Region {x=" + x + ", y=" + y + ", width=" + width + ", height=" + height + "}";
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.prototype.model.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Provides the deployment-specific configuration of the persistence layer.
+ *
+ * <p>
+ * The defaults of the {@code test} persistence unit live in
+ * {@code META-INF/persistence.xml}. Each deployment can override any of them
+ * (JDBC URL, credentials, pool sizing, timeouts, etc.) without rebuilding the
+ * application, either with an external properties file or with JVM system
+ * properties. The resolution order is:
+ * </p>
+ * <ol>
+ * <li>the values declared in {@code persistence.xml};</li>
+ * <li>the file referenced by the {@value #CONFIG_FILE_PROPERTY} system
+ * property, or {@value #DEFAULT_CONFIG_FILE} in the working directory if it
+ * exists;</li>
+ * <li>JVM system properties starting with {@code hibernate.},
+ * {@code javax.persistence.} or {@code prototype.}.</li>
+ * </ol>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public class PersistenceConfig {
+
+    /** Name of the persistence unit declared in {@code persistence.xml}. */
+    public static final String PERSISTENCE_UNIT = "test";
+
+    /** System property that points to an external configuration file. */
+    public static final String CONFIG_FILE_PROPERTY = "prototype.persistence.config";
+
+    /** Configuration file looked up in the working directory by default. */
+    public static final String DEFAULT_CONFIG_FILE = "persistence.properties";
+
+    /** Prefixes of the system properties that are forwarded as overrides. */
+    private static final String[] OVERRIDE_PREFIXES = { "hibernate.", "javax.persistence.", "prototype." };
+
+    /** Overrides resolved once, the first time they are requested. */
+    private static Map<String, Object> overrides;
+
+    /**
+     * Returns the properties that must be passed to
+     * {@link javax.persistence.Persistence#createEntityManagerFactory(String, Map)}
+     * to apply the overrides of the current deployment.
+     *
+     * @return an immutable map with the overriding properties
+     * @throws UncheckedIOException if the external configuration file cannot be read
+     */
+    public static synchronized Map<String, Object> overrides() {
+        if (overrides == null) {
+            Map<String, Object> values = new HashMap<>();
+            loadFile(values);
+            for (String name : System.getProperties().stringPropertyNames()) {
+                for (String prefix : OVERRIDE_PREFIXES) {
+                    if (name.startsWith(prefix)) {
+                        values.put(name, System.getProperty(name));
+                    }
+                }
+            }
+            overrides = Map.copyOf(values);
+        }
+        return overrides;
+    }
+
+    /**
+     * Reads a single configuration value, falling back to a default when the
+     * deployment does not override it.
+     *
+     * @param key          the property name
+     * @param defaultValue the value used when the property is not defined
+     * @return the configured value or {@code defaultValue}
+     */
+    public static String get(String key, String defaultValue) {
+        Object value = overrides().get(key);
+        return value != null ? value.toString() : defaultValue;
+    }
+
+    /**
+     * Reads a numeric configuration value.
+     *
+     * @param key          the property name
+     * @param defaultValue the value used when the property is not defined
+     * @return the configured value or {@code defaultValue}
+     * @throws IllegalArgumentException if the configured value is not a number
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numérico inválido para " + key + ": " + value, e);
+        }
+    }
+
+    private static void loadFile(Map<String, Object> values) {
+        String configured = System.getProperty(CONFIG_FILE_PROPERTY);
+        Path path = Paths.get(configured != null ? configured : DEFAULT_CONFIG_FILE);
+        if (!Files.isRegularFile(path)) {
+            if (configured != null) {
+                throw new IllegalArgumentException("No existe el archivo de configuración: " + path);
+            }
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String name : properties.stringPropertyNames()) {
+            values.put(name, properties.getProperty(name));
+        }
+    }
+}
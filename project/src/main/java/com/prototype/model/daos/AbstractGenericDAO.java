@@ -1,10 +1,45 @@
 package com.prototype.model.daos;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
-import javax.persistence.Persistence;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Table;
+import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.hibernate.stat.Statistics;
+
+import com.prototype.model.config.PersistenceConfig;
+import com.prototype.model.metrics.CacheRegionMetrics;
+import com.prototype.model.metrics.DaoMetrics;
+import com.prototype.model.metrics.OperationMetrics;
+import com.prototype.model.metrics.PoolMetrics;
+import com.prototype.model.metrics.StatementCounter;
 
 /**
  * Generic abstract implementation of the {@link GenericDAO} interface.
@@ -25,11 +60,26 @@ public class AbstractGenericDAO<T, K> implements GenericDAO<T, K> {
     protected Class<T> entityClass;
 
     /**
-     * Shared {@link EntityManagerFactory} instance used to create
-     * entity managers for database operations. It is initialized
-     * using the persistence unit defined in the configuration file.
+     * Number of entities written before the persistence context is flushed
+     * and cleared during batch operations. It should match the
+     * {@code hibernate.jdbc.batch_size} configured for the persistence unit.
+     */
+    protected static final int BATCH_SIZE = PersistenceConfig.getInt("prototype.batch.size", 50);
+
+    /**
+     * Default number of rows fetched per database round trip when streaming
+     * results with {@link #streamAll()}.
+     */
+    protected static final int STREAM_FETCH_SIZE = PersistenceConfig.getInt("prototype.stream.fetch_size", 500);
+
+    /** Maximum number of values bound to a single {@code IN} list. */
+    private static final int IN_LIST_LIMIT = 1000;
+
+    /**
+     * Query hint that applies an entity graph as a load graph: the graph
+     * attributes are fetched eagerly and the rest keep their mapped fetch type.
      */
-    protected static final EntityManagerFactory emf = Persistence.createEntityManagerFactory("test");
+    protected static final String LOAD_GRAPH_HINT = "javax.persistence.loadgraph";
 
     /**
      * Constructor that sets the entity class type for the DAO.
@@ -40,6 +90,133 @@ public class AbstractGenericDAO<T, K> implements GenericDAO<T, K> {
         this.entityClass = entityClass;
     }
 
+    /**
+     * Returns the shared {@link EntityManagerFactory} used to create entity
+     * managers for database operations. The factory is built in the
+     * background by {@link PersistenceBootstrap}; the first callers wait
+     * until it is ready.
+     *
+     * @return the factory of the {@code test} persistence unit
+     * @throws IllegalStateException if the persistence layer failed to start
+     */
+    protected static EntityManagerFactory emf() {
+        return PersistenceBootstrap.factory();
+    }
+
+    /**
+     * Runs a read with the entity manager of the active {@link UnitOfWork},
+     * or with a short-lived one closed right after, and records it in the
+     * {@link DaoMetrics} of the operation.
+     *
+     * @param operation the DAO method, used to tag the metrics
+     * @param work      the read to run
+     * @param <R>       the type of the result
+     * @return the value returned by the read
+     */
+    protected <R> R read(String operation, Function<EntityManager, R> work) {
+        return measure(operation, false, () -> {
+            EntityManager current = UnitOfWork.current();
+            if (current != null) {
+                return work.apply(current);
+            }
+            EntityManager em = emf().createEntityManager();
+            try {
+                return work.apply(em);
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Runs a write inside the active {@link UnitOfWork}, or in its own
+     * transaction that is committed on success and rolled back on failure,
+     * and records it in the {@link DaoMetrics} of the operation.
+     *
+     * <p>
+     * Inside a unit of work the persistence context is flushed before the
+     * write returns, so its SQL runs, and is timed and counted, under this
+     * operation rather than at the commit of the unit of work, where no
+     * operation is measured.
+     * </p>
+     *
+     * @param operation the DAO method, used to tag the metrics
+     * @param work      the write to run
+     * @param <R>       the type of the result
+     * @return the value returned by the write
+     */
+    protected <R> R write(String operation, Function<EntityManager, R> work) {
+        return measure(operation, true, () -> {
+            EntityManager current = UnitOfWork.current();
+            if (current != null) {
+                R result = work.apply(current);
+                current.flush();
+                return result;
+            }
+            EntityManager em = emf().createEntityManager();
+            EntityTransaction tx = em.getTransaction();
+            try {
+                tx.begin();
+                R result = work.apply(em);
+                tx.commit();
+                return result;
+            } catch (RuntimeException e) {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
+            }
+        });
+    }
+
+    /**
+     * Runs an operation made of several reads, such as a page merged from
+     * two tables, and records it as a whole. The reads it runs are recorded
+     * under their own operations as well.
+     *
+     * @param operation the DAO method, used to tag the metrics
+     * @param work      the operation to run
+     * @param <R>       the type of the result
+     * @return the value returned by the operation
+     */
+    protected <R> R measure(String operation, Supplier<R> work) {
+        return measure(operation, false, work);
+    }
+
+    /**
+     * Times an operation and counts the rows it returns and the statements
+     * it prepares on this thread. A failed call is recorded with no rows.
+     * Collections and pages count their elements; a number returned by a
+     * write is the count of affected rows; any other non-null result counts
+     * as one row.
+     */
+    private <R> R measure(String operation, boolean write, Supplier<R> work) {
+        OperationMetrics metrics = DaoMetrics.operation(entityClass.getSimpleName(), operation);
+        long statements = StatementCounter.current();
+        long start = System.nanoTime();
+        R result;
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            metrics.record(System.nanoTime() - start, 0, StatementCounter.current() - statements, true);
+            throw e;
+        }
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Page<?> page) {
+            rows = page.getContent().size();
+        } else if (write && result instanceof Number number) {
+            rows = number.longValue();
+        } else {
+            rows = result != null ? 1 : 0;
+        }
+        metrics.record(System.nanoTime() - start, rows, StatementCounter.current() - statements, false);
+        return result;
+    }
+
     /**
      * Persists a new entity in the database.
      *
@@ -48,26 +225,111 @@ public class AbstractGenericDAO<T, K> implements GenericDAO<T, K> {
      */
     @Override
     public T save(T entity) {
-        EntityManager em = emf.createEntityManager();
-        em.getTransaction().begin();
-        em.persist(entity);
-        em.getTransaction().commit();
-        em.close();
-        return entity;
+        return write("save", em -> {
+            em.persist(entity);
+            afterPersist(em, entity);
+            return entity;
+        });
+    }
+
+    /**
+     * Hook invoked right after an entity is persisted by {@link #save(Object)}
+     * or {@link #saveAll(Collection)}, inside the same transaction. Subclasses
+     * override it to keep derived tables consistent with the inserted row.
+     *
+     * @param em     the entity manager of the running transaction
+     * @param entity the entity just persisted, with its identifier assigned
+     */
+    protected void afterPersist(EntityManager em, T entity) {
     }
 
     /**
-     * Finds an entity in the database by its primary key.
+     * Finds an entity in the database by its primary key. Inside a
+     * {@link UnitOfWork} the returned entity is managed.
      *
      * @param id the identifier of the entity to find
      * @return the entity instance or {@code null} if not found
      */
     @Override
     public T findById(K id) {
-        EntityManager em = emf.createEntityManager();
-        T entity = em.find(entityClass, id);
-        em.close();
-        return entity;
+        return read("findById", em -> em.find(entityClass, id));
+    }
+
+    /**
+     * Finds an entity by its primary key, fetching the attributes of the
+     * named entity graph in the same query so they can be read after the
+     * entity manager is closed.
+     *
+     * @param id         the identifier of the entity to find
+     * @param fetchGraph the name of a {@code @NamedEntityGraph} of the entity
+     * @return the entity instance or {@code null} if not found
+     * @throws IllegalArgumentException if the entity graph does not exist
+     */
+    @Override
+    public T findById(K id, String fetchGraph) {
+        return read("findById", em -> em.find(entityClass, id, Map.of(LOAD_GRAPH_HINT, em.getEntityGraph(fetchGraph))));
+    }
+
+    /**
+     * Returns a reference to the entity without loading it, for use as the
+     * target of an association. The state is only fetched if the reference
+     * is accessed, so it is meant to be used inside a {@link UnitOfWork}.
+     *
+     * @param id the identifier of the entity
+     * @return a reference to the entity
+     */
+    @Override
+    public T getReference(K id) {
+        return read("getReference", em -> em.getReference(entityClass, id));
+    }
+
+    /**
+     * Checks whether an entity with the given primary key exists, reading
+     * only its identifier.
+     *
+     * @param id the identifier to look for
+     * @return {@code true} if the entity exists
+     */
+    @Override
+    public boolean exists(K id) {
+        return read("exists", em -> !em.createQuery("SELECT e." + idAttributeName(em) + " FROM "
+                        + entityClass.getSimpleName() + " e WHERE e." + idAttributeName(em) + " = :id")
+                .setParameter("id", id)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty());
+    }
+
+    /**
+     * Returns which of the given identifiers exist, reading only the
+     * identifier column in chunks of a thousand identifiers.
+     *
+     * @param ids the identifiers to look for
+     * @return the subset of {@code ids} that exist
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<K> findExistingIds(Collection<K> ids) {
+        if (ids.isEmpty()) {
+            return new HashSet<>();
+        }
+        return read("findExistingIds", em -> {
+            String idName = idAttributeName(em);
+            String jpql = "SELECT e." + idName + " FROM " + entityClass.getSimpleName() + " e WHERE e."
+                    + idName + " IN :ids";
+            List<K> pending = new ArrayList<>(ids);
+            Set<K> found = new HashSet<>();
+            for (int from = 0; from < pending.size(); from += IN_LIST_LIMIT) {
+                List<K> chunk = pending.subList(from, Math.min(from + IN_LIST_LIMIT, pending.size()));
+                found.addAll(em.createQuery(jpql).setParameter("ids", chunk).getResultList());
+            }
+            return found;
+        });
+    }
+
+    private String idAttributeName(EntityManager em) {
+        EntityType<T> entityType = em.getMetamodel().entity(entityClass);
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
     }
 
     /**
@@ -75,29 +337,37 @@ public class AbstractGenericDAO<T, K> implements GenericDAO<T, K> {
      *
      * @return a list containing all persisted entities of type T
      */
-    @SuppressWarnings("unchecked")
     @Override
     public List<T> findAll() {
-        EntityManager em = emf.createEntityManager();
-        List<T> list = em.createQuery("FROM " + entityClass.getSimpleName()).getResultList();
-        em.close();
-        return list;
+        return read("findAll", em -> em.createQuery("FROM " + entityClass.getSimpleName(), entityClass).getResultList());
+    }
+
+    /**
+     * Retrieves all instances of the entity, fetching the attributes of the
+     * named entity graph in the same query.
+     *
+     * @param fetchGraph the name of a {@code @NamedEntityGraph} of the entity
+     * @return a list containing all persisted entities of type T
+     * @throws IllegalArgumentException if the entity graph does not exist
+     */
+    @Override
+    public List<T> findAll(String fetchGraph) {
+        return read("findAll", em -> em.createQuery("FROM " + entityClass.getSimpleName(), entityClass)
+                .setHint(LOAD_GRAPH_HINT, em.getEntityGraph(fetchGraph))
+                .getResultList());
     }
 
     /**
-     * Updates an existing entity in the database.
+     * Updates an existing entity in the database. Entities already managed
+     * by the active {@link UnitOfWork} are returned as they are, since their
+     * changes are written at commit; detached ones are merged.
      *
      * @param entity the entity to update
      * @return the managed and updated entity instance
      */
     @Override
     public T update(T entity) {
-        EntityManager em = emf.createEntityManager();
-        em.getTransaction().begin();
-        T merged = em.merge(entity);
-        em.getTransaction().commit();
-        em.close();
-        return merged;
+        return write("update", em -> em.contains(entity) ? entity : em.merge(entity));
     }
 
     /**
@@ -108,15 +378,542 @@ public class AbstractGenericDAO<T, K> implements GenericDAO<T, K> {
      */
     @Override
     public T delete(K id) {
-        EntityManager em = emf.createEntityManager();
-        em.getTransaction().begin();
-        T entity = em.find(entityClass, id);
-        if (entity != null) {
-            em.remove(entity);
-        }
-        em.getTransaction().commit();
-        em.close();
+        T entity = write("delete", em -> {
+            T found = em.find(entityClass, id);
+            if (found != null) {
+                em.remove(found);
+            }
+            return found;
+        });
+        evictFromCache(id);
         return entity;
     }
 
+    /**
+     * Persists all the given entities in one transaction. The persistence
+     * context is flushed and cleared every {@link #BATCH_SIZE} entities so
+     * inserts are sent in JDBC batches and memory usage stays bounded. Inside
+     * a {@link UnitOfWork} the context is only flushed, so entities already
+     * managed by the caller stay attached.
+     *
+     * @param entities the entities to save
+     * @return the saved entities, with their generated identifiers
+     */
+    @Override
+    public List<T> saveAll(Collection<T> entities) {
+        boolean ownContext = !UnitOfWork.isActive();
+        write("saveAll", em -> {
+            int count = 0;
+            for (T entity : entities) {
+                em.persist(entity);
+                afterPersist(em, entity);
+                if (++count % BATCH_SIZE == 0) {
+                    flushBatch(em, ownContext);
+                }
+            }
+            return null;
+        });
+        return new ArrayList<>(entities);
+    }
+
+    /**
+     * Merges all the given entities in one transaction, flushing and clearing
+     * the persistence context every {@link #BATCH_SIZE} entities.
+     *
+     * @param entities the entities to update
+     * @return the merged entity instances, in the same order as received
+     */
+    @Override
+    public List<T> updateAll(Collection<T> entities) {
+        boolean ownContext = !UnitOfWork.isActive();
+        return write("updateAll", em -> {
+            List<T> merged = new ArrayList<>(entities.size());
+            for (T entity : entities) {
+                merged.add(em.contains(entity) ? entity : em.merge(entity));
+                if (merged.size() % BATCH_SIZE == 0) {
+                    flushBatch(em, ownContext);
+                }
+            }
+            return merged;
+        });
+    }
+
+    /**
+     * Deletes all the entities identified by the given keys in one
+     * transaction. Entities are loaded in chunks of {@link #BATCH_SIZE} with a
+     * single query per chunk and removed through the persistence context, so
+     * cascades declared on the mappings are still applied.
+     *
+     * @param ids the identifiers of the entities to delete
+     * @return the number of entities removed
+     */
+    @Override
+    public int deleteAllById(Collection<K> ids) {
+        List<K> keys = new ArrayList<>(ids);
+        boolean ownContext = !UnitOfWork.isActive();
+        int removed = write("deleteAllById", em -> {
+            int count = 0;
+            for (int from = 0; from < keys.size(); from += BATCH_SIZE) {
+                List<K> chunk = keys.subList(from, Math.min(from + BATCH_SIZE, keys.size()));
+                List<T> found = em.unwrap(Session.class)
+                        .byMultipleIds(entityClass)
+                        .multiLoad(chunk);
+                for (T entity : found) {
+                    if (entity != null) {
+                        em.remove(entity);
+                        count++;
+                    }
+                }
+                flushBatch(em, ownContext);
+            }
+            return count;
+        });
+        keys.forEach(this::evictFromCache);
+        return removed;
+    }
+
+    private static void flushBatch(EntityManager em, boolean clear) {
+        em.flush();
+        if (clear) {
+            em.clear();
+        }
+    }
+
+    /**
+     * Retrieves one page of entities ordered by {@code request.getSortKey()}
+     * and then by primary key. The page is located with a {@code WHERE}
+     * condition on the last row of the previous page instead of an offset, so
+     * every page costs the same index range scan. A {@code null} sort value
+     * sorts lowest, as in MySQL, and rows sharing it are paged by primary key.
+     *
+     * @param request the page to read
+     * @return the page of entities
+     * @throws IllegalArgumentException if the sort key is not an attribute of the entity
+     */
+    @Override
+    public Page<T> findPage(PageRequest request) {
+        return findPage(request, "e", entityClass);
+    }
+
+    /**
+     * Retrieves one page of entities like {@link #findPage(PageRequest)},
+     * fetching the attributes of the named entity graph in the same query.
+     * Graphs should only contain single-valued associations, so the page
+     * limit is still applied by the database.
+     *
+     * @param request    the page to read
+     * @param fetchGraph the name of a {@code @NamedEntityGraph} of the entity
+     * @return the page of entities
+     * @throws IllegalArgumentException if the sort key or the entity graph does not exist
+     */
+    @Override
+    public Page<T> findPage(PageRequest request, String fetchGraph) {
+        return findPage(request, "e", entityClass, fetchGraph);
+    }
+
+    /**
+     * Reads a keyset page like {@link #findPage(PageRequest)} but selecting
+     * {@code selection} instead of the whole entity, typically a JPQL
+     * constructor expression over the alias {@code e} such as
+     * {@code new com.example.Row(e.id, e.name)}. Only the selected columns
+     * are read, so no entity is instantiated or tracked.
+     *
+     * <p>Projection types must declare fields with the same names as the
+     * entity identifier and the sort attribute, which are read to build the
+     * request of the following page.</p>
+     *
+     * @param request    the page to read
+     * @param selection  the JPQL select expression
+     * @param resultType the type of each selected row
+     * @param <R>        the type of the rows
+     * @return the page of rows
+     * @throws IllegalArgumentException if the sort key is not an attribute of the entity
+     */
+    protected <R> Page<R> findPage(PageRequest request, String selection, Class<R> resultType) {
+        return findPage(request, selection, resultType, null);
+    }
+
+    private <R> Page<R> findPage(PageRequest request, String selection, Class<R> resultType, String fetchGraph) {
+        return read(resultType == entityClass ? "findPage" : "findRowPage", em -> {
+            EntityType<T> entityType = em.getMetamodel().entity(entityClass);
+            String idName = entityType.getId(entityType.getIdType().getJavaType()).getName();
+            Attribute<? super T, ?> sortAttribute = entityType.getAttribute(request.getSortKey());
+            String sortKey = sortAttribute.getName();
+            boolean sortById = sortKey.equals(idName);
+            boolean afterNull = !request.isFirstPage() && !sortById && request.getAfterValue() == null;
+
+            TypedQuery<R> query = em.createQuery(
+                    keysetJpql(entityType.getName(), idName, sortKey, request.isDescending(),
+                            !request.isFirstPage(), afterNull, isNullable(sortAttribute), selection), resultType)
+                    .setMaxResults(request.getPageSize() + 1);
+            if (fetchGraph != null) {
+                query.setHint(LOAD_GRAPH_HINT, em.getEntityGraph(fetchGraph));
+            }
+            if (!request.isFirstPage()) {
+                query.setParameter("afterId", request.getAfterId());
+                if (!sortById && !afterNull) {
+                    query.setParameter("afterValue", request.getAfterValue());
+                }
+            }
+            List<R> rows = query.getResultList();
+
+            if (rows.size() <= request.getPageSize()) {
+                return new Page<>(rows, null);
+            }
+            List<R> content = rows.subList(0, request.getPageSize());
+            R last = content.get(content.size() - 1);
+            Object lastId;
+            Object lastValue;
+            if (resultType == entityClass) {
+                lastId = emf().getPersistenceUnitUtil().getIdentifier(last);
+                lastValue = sortById ? lastId : readAttribute(sortAttribute, last);
+            } else {
+                lastId = readField(last, idName);
+                lastValue = sortById ? lastId : readField(last, sortKey);
+            }
+            return new Page<>(content, request.after(lastValue, lastId));
+        });
+    }
+
+    /**
+     * Builds the JPQL of a keyset page. The statement depends only on the
+     * shape of the page, never on the bound values, so Hibernate caches one
+     * plan per shape.
+     *
+     * <p>{@code NULL} has no order in a comparison, so a nullable sort key
+     * gets explicit conditions. MySQL sorts it lowest: ascending pages start
+     * with the nulls and continue with every non-null value, descending pages
+     * end with them. After a null, only the nulls with a later identifier
+     * remain in that group.</p>
+     */
+    private static String keysetJpql(String entityName, String idName, String sortKey, boolean descending,
+            boolean afterKey, boolean afterNull, boolean nullable, String selection) {
+        String direction = descending ? "DESC" : "ASC";
+        String comparator = descending ? "<" : ">";
+        boolean sortById = sortKey.equals(idName);
+        String key = "e." + sortKey;
+        String tieBreak = "e." + idName + ' ' + comparator + " :afterId";
+
+        StringBuilder jpql = new StringBuilder("SELECT ").append(selection).append(" FROM ")
+                .append(entityName).append(" e");
+        if (afterKey) {
+            if (sortById) {
+                jpql.append(" WHERE ").append(tieBreak);
+            } else if (afterNull) {
+                jpql.append(" WHERE (").append(key).append(" IS NULL AND ").append(tieBreak).append(')');
+                if (!descending) {
+                    jpql.append(" OR ").append(key).append(" IS NOT NULL");
+                }
+            } else {
+                jpql.append(" WHERE ").append(key).append(' ').append(comparator).append(" :afterValue")
+                        .append(" OR (").append(key).append(" = :afterValue AND ").append(tieBreak).append(')');
+                if (nullable && descending) {
+                    jpql.append(" OR ").append(key).append(" IS NULL");
+                }
+            }
+        }
+        jpql.append(" ORDER BY ");
+        if (!sortById) {
+            jpql.append("e.").append(sortKey).append(' ').append(direction).append(", ");
+        }
+        jpql.append("e.").append(idName).append(' ').append(direction);
+        return jpql.toString();
+    }
+
+    /**
+     * Compiles, without running them, the statements this DAO issues for the
+     * first screens: {@link #findAll()}, {@link #exists(Object)} and the
+     * keyset pages ordered by identifier. Hibernate keeps the resulting plans
+     * in its query plan cache, so the first real call skips the parsing.
+     *
+     * <p>Subclasses add the page shapes of their own screens with
+     * {@link #compileKeysetQueries}.</p>
+     *
+     * @param em the entity manager used to compile the statements
+     * @return the number of statements compiled
+     */
+    int warmUp(EntityManager em) {
+        String idName = idAttributeName(em);
+        em.createQuery("FROM " + entityClass.getSimpleName(), entityClass);
+        em.createQuery("SELECT e." + idName + " FROM " + entityClass.getSimpleName() + " e WHERE e." + idName + " = :id");
+        return 2 + compileKeysetQueries(em, idName, false, "e", entityClass);
+    }
+
+    /**
+     * Compiles the first-page and following-page statements of a keyset page
+     * shape, and the statement of the page after a {@code null} sort value if
+     * the sort attribute is nullable.
+     *
+     * @param em         the entity manager used to compile the statements
+     * @param sortKey    the sort attribute of the page
+     * @param descending whether the page is sorted in descending order
+     * @param selection  the JPQL select expression over the alias {@code e}
+     * @param resultType the type of each selected row
+     * @return the number of statements compiled
+     */
+    int compileKeysetQueries(EntityManager em, String sortKey, boolean descending, String selection,
+            Class<?> resultType) {
+        EntityType<T> entityType = em.getMetamodel().entity(entityClass);
+        String idName = idAttributeName(em);
+        Attribute<? super T, ?> sortAttribute = entityType.getAttribute(sortKey);
+        String sortName = sortAttribute.getName();
+        boolean nullable = isNullable(sortAttribute) && !sortName.equals(idName);
+        String entityName = entityType.getName();
+        em.createQuery(keysetJpql(entityName, idName, sortName, descending, false, false, nullable, selection),
+                resultType);
+        em.createQuery(keysetJpql(entityName, idName, sortName, descending, true, false, nullable, selection),
+                resultType);
+        if (!nullable) {
+            return 2;
+        }
+        em.createQuery(keysetJpql(entityName, idName, sortName, descending, true, true, true, selection),
+                resultType);
+        return 3;
+    }
+
+    /**
+     * @return whether the attribute is mapped to a column that accepts {@code NULL}
+     */
+    private static boolean isNullable(Attribute<?, ?> attribute) {
+        return attribute instanceof SingularAttribute<?, ?> singular && singular.isOptional();
+    }
+
+    /**
+     * Returns the row count estimate that MySQL keeps in
+     * {@code information_schema.TABLES} for the entity table. The value comes
+     * from the storage engine statistics, so it is cheap to obtain but may
+     * differ slightly from an exact {@code COUNT(*)}.
+     *
+     * @return the approximate number of rows, or {@code 0} if unknown
+     */
+    @Override
+    public long estimateCount() {
+        return read("estimateCount", em -> {
+            List<?> result = em.createNativeQuery(
+                    "SELECT TABLE_ROWS FROM information_schema.TABLES "
+                            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?1")
+                    .setParameter(1, tableName())
+                    .getResultList();
+            if (result.isEmpty() || result.get(0) == null) {
+                return 0L;
+            }
+            return ((Number) result.get(0)).longValue();
+        });
+    }
+
+    /**
+     * Resolves the table mapped by the entity, looking up the class hierarchy
+     * for the nearest {@link Table} annotation.
+     *
+     * @return the table name of the entity
+     */
+    protected String tableName() {
+        for (Class<?> type = entityClass; type != null; type = type.getSuperclass()) {
+            Table table = type.getAnnotation(Table.class);
+            if (table != null && !table.name().isEmpty()) {
+                return table.name();
+            }
+        }
+        return entityClass.getSimpleName();
+    }
+
+    private static Object readAttribute(Attribute<?, ?> attribute, Object entity) {
+        Member member = attribute.getJavaMember();
+        if (!(member instanceof Field field)) {
+            throw new IllegalArgumentException("Atributo no soportado para paginación: " + attribute.getName());
+        }
+        try {
+            field.setAccessible(true);
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object readField(Object row, String name) {
+        try {
+            Field field = row.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            return field.get(row);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("La proyección no declara el campo: " + name, e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Streams every instance of the entity using the default fetch size.
+     *
+     * @return a stream over all entities; it must be closed after use
+     * @see #streamAll(int)
+     */
+    public Stream<T> streamAll() {
+        return streamAll(STREAM_FETCH_SIZE);
+    }
+
+    /**
+     * Streams every instance of the entity through a forward-only database
+     * cursor, so the whole table never has to fit in memory.
+     *
+     * <p>
+     * Rows are read {@code fetchSize} at a time. Each entity stays managed
+     * only while the consumer handles it: it is evicted before the next one
+     * is read, and the persistence context is cleared every
+     * {@code fetchSize} rows to release lazily loaded associations. Entities
+     * are loaded read-only and bypass the second-level cache.
+     * </p>
+     *
+     * <p>
+     * The returned stream holds an open connection and must be closed,
+     * typically with try-with-resources.
+     * </p>
+     *
+     * @param fetchSize number of rows fetched per round trip
+     * @return a stream over all entities
+     * @throws IllegalArgumentException if {@code fetchSize} is not positive
+     */
+    public Stream<T> streamAll(int fetchSize) {
+        return stream("streamAll", "FROM " + entityClass.getSimpleName(), Map.of(), entityClass, fetchSize);
+    }
+
+    /**
+     * Streams the results of a JPQL query through a forward-only database
+     * cursor, with the same memory guarantees as {@link #streamAll(int)}.
+     * The query runs in its own entity manager, outside any
+     * {@link UnitOfWork}. The {@link DaoMetrics} of the operation record
+     * the whole scan, from the query to the closing of the stream.
+     *
+     * @param operation  the DAO method, used to tag the metrics
+     * @param jpql       the query; its rows must be of type {@code type}
+     * @param parameters the named parameters of the query
+     * @param type       the type of each row, an entity or a projection
+     * @param fetchSize  number of rows fetched per round trip
+     * @param <R>        the type of the streamed rows
+     * @return a stream over the rows; it must be closed after use
+     * @throws IllegalArgumentException if {@code fetchSize} is not positive
+     */
+    protected <R> Stream<R> stream(String operation, String jpql, Map<String, ?> parameters, Class<R> type,
+            int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("El tamaño de lectura debe ser positivo.");
+        }
+        OperationMetrics metrics = DaoMetrics.operation(entityClass.getSimpleName(), operation);
+        long start = System.nanoTime();
+        long statementsBefore = StatementCounter.current();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Session session = em.unwrap(Session.class);
+            Query<R> query = session.createQuery(jpql, type);
+            parameters.forEach(query::setParameter);
+            ScrollableResults results = query
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .setCacheMode(CacheMode.IGNORE)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            long statements = StatementCounter.current() - statementsBefore;
+            LongAdder rows = new LongAdder();
+            return scroll(session, results, fetchSize, type)
+                    .peek(row -> rows.increment())
+                    .onClose(() -> {
+                        results.close();
+                        em.close();
+                        metrics.record(System.nanoTime() - start, rows.sum(), statements, false);
+                    });
+        } catch (RuntimeException e) {
+            em.close();
+            metrics.record(System.nanoTime() - start, 0, StatementCounter.current() - statementsBefore, true);
+            throw e;
+        }
+    }
+
+    /**
+     * Adapts an open {@link ScrollableResults} into a sequential stream that
+     * keeps the persistence context small while it advances.
+     *
+     * @param session   the session that owns the cursor
+     * @param results   the cursor positioned before the first row
+     * @param fetchSize number of rows after which the session is cleared
+     * @param type      the type of the first column of each row
+     * @param <R>       the type of the streamed rows
+     * @return a stream over the rows; closing it does not close the cursor
+     */
+    protected static <R> Stream<R> scroll(Session session, ScrollableResults results, int fetchSize,
+            Class<R> type) {
+        boolean entityRows = isEntity(session, type);
+        Spliterator<R> spliterator = new Spliterators.AbstractSpliterator<R>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+
+            private Object previous;
+            private long read;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super R> action) {
+                if (entityRows && previous != null && session.contains(previous)) {
+                    session.evict(previous);
+                }
+                if (read > 0 && read % fetchSize == 0) {
+                    session.clear();
+                }
+                if (!results.next()) {
+                    return false;
+                }
+                R row = type.cast(results.get(0));
+                previous = row;
+                read++;
+                action.accept(row);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private static boolean isEntity(Session session, Class<?> type) {
+        try {
+            session.getSessionFactory().getMetamodel().entity(type);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Removes an entity from the second-level cache, if its type is cached.
+     * Writes made through the entity manager already keep the cache in sync
+     * ({@code READ_WRITE} strategy); this explicit eviction covers rows that
+     * disappear through cascades or database-side deletes.
+     *
+     * @param id the identifier of the entity to evict
+     */
+    protected void evictFromCache(Object id) {
+        if (id != null) {
+            emf().getCache().evict(entityClass, id);
+        }
+    }
+
+    /**
+     * Returns the hit, miss and put counters of every second-level cache
+     * region in use.
+     *
+     * @return one snapshot per cache region
+     */
+    public static List<CacheRegionMetrics> cacheMetrics() {
+        Statistics statistics = emf().unwrap(SessionFactory.class).getStatistics();
+        List<CacheRegionMetrics> metrics = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            metrics.add(new CacheRegionMetrics(region, statistics.getDomainDataRegionStatistics(region)));
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the live metrics (active, idle and waiting connections, wait
+     * times and timeouts) of the connection pool shared by all DAOs.
+     *
+     * @return the pool metrics, or {@code null} if the pool has not started yet
+     */
+    public static PoolMetrics poolMetrics() {
+        return PoolMetrics.current();
+    }
+
 }
@@ -0,0 +1,66 @@
+package com.prototype.model.daos;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.prototype.model.dtos.EntryRequestRow;
+import com.prototype.model.dtos.HistoryFilter;
+import com.prototype.model.entities.ArchivedEntryRequest;
+
+/**
+ * DAO class responsible for reading the {@link ArchivedEntryRequest} table.
+ *
+ * <p>Callers normally go through {@link EntryRequestDAO}, which routes each
+ * query to the hot table, the archive or both.</p>
+ */
+public class ArchivedEntryRequestDAO extends AbstractGenericDAO<ArchivedEntryRequest, Long> {
+
+    /**
+     * Constructs a DAO instance configured to manage
+     * {@link ArchivedEntryRequest} entities.
+     */
+    public ArchivedEntryRequestDAO() {
+        super(ArchivedEntryRequest.class);
+    }
+
+    /**
+     * Retrieves the most recent archived request of a person for a piece of
+     * equipment.
+     *
+     * @param equipmentId the identifier of the equipment
+     * @param personId    the identifier of the person
+     * @return the latest archived request, or {@code null} if there is none
+     */
+    public EntryRequestRow lastRequest(Long equipmentId, Long personId) {
+        return read("lastRequest", em -> {
+            List<EntryRequestRow> result = em.createNamedQuery(ArchivedEntryRequest.LAST_REQUEST,
+                            EntryRequestRow.class)
+                    .setParameter("idPersona", personId)
+                    .setParameter("idEquipment", equipmentId)
+                    .setMaxResults(1)
+                    .getResultList();
+            return result.isEmpty() ? null : result.get(0);
+        });
+    }
+
+    /**
+     * Retrieves a keyset page of archived requests as {@link EntryRequestRow}
+     * projections, the same rows the hot table produces.
+     *
+     * @param request the page to read
+     * @return the page of rows
+     */
+    public Page<EntryRequestRow> findRowPage(PageRequest request) {
+        return findPage(request, EntryRequestDAO.ROW_SELECTION, EntryRequestRow.class);
+    }
+
+    /**
+     * Streams the archived rows matching a filter, oldest first.
+     *
+     * @param filter the rows to include
+     * @return a stream over the rows; it must be closed after use
+     */
+    Stream<EntryRequestRow> streamRows(HistoryFilter filter) {
+        return EntryRequestDAO.streamRows(this, filter);
+    }
+}
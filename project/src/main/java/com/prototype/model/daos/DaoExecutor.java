@@ -0,0 +1,108 @@
+package com.prototype.model.daos;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.prototype.model.config.PersistenceConfig;
+
+/**
+ * Runs persistence work off the caller's thread and exposes the outcome as a
+ * {@link CompletableFuture}.
+ *
+ * <p>
+ * Every task gets its own virtual thread, so a task blocked on the database
+ * costs no platform thread. Concurrency is bounded by a semaphore sized like
+ * the connection pool ({@code hibernate.hikari.maximumPoolSize}, overridable
+ * with {@code prototype.async.max_concurrency}): extra tasks wait for a
+ * permit instead of queueing inside the pool.
+ * </p>
+ *
+ * <p>
+ * Each future fails with a {@link java.util.concurrent.TimeoutException}
+ * after the given timeout ({@code prototype.async.timeout_seconds} by
+ * default). A future that times out or is cancelled before its task gets a
+ * permit skips the task. A task already running is not interrupted, since
+ * interrupting a virtual thread blocked on a socket closes the pooled
+ * connection while the server keeps running the statement; it runs to the
+ * end and its result is discarded. A deployment that needs slow statements
+ * stopped on the server sets {@code javax.persistence.query.timeout}, which
+ * the driver enforces by cancelling the statement.
+ * </p>
+ *
+ * <p>
+ * A task runs entirely on one thread, so a service operation submitted as a
+ * whole keeps its {@link UnitOfWork}.
+ * </p>
+ */
+public final class DaoExecutor {
+
+    /** Default time a task may take before its future fails. */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(
+            PersistenceConfig.getInt("prototype.async.timeout_seconds", 30));
+
+    private static final int MAX_CONCURRENCY = PersistenceConfig.getInt("prototype.async.max_concurrency",
+            PersistenceConfig.getInt("hibernate.hikari.maximumPoolSize", 10));
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("dao-", 0).factory());
+
+    private static final Semaphore PERMITS = new Semaphore(MAX_CONCURRENCY, true);
+
+    private DaoExecutor() {
+    }
+
+    /**
+     * Runs the given work with the default timeout.
+     *
+     * @param work the work to run
+     * @param <R>  the type of the result
+     * @return a future completed with the result of the work
+     */
+    public static <R> CompletableFuture<R> submit(Supplier<R> work) {
+        return submit(work, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Runs the given work on a virtual thread once a permit is available.
+     *
+     * @param work    the work to run
+     * @param timeout maximum time, including the wait for a permit, before
+     *                the future fails with a {@code TimeoutException}
+     * @param <R>     the type of the result
+     * @return a future completed with the result of the work; cancelling it
+     *         skips the work if it has not started yet
+     */
+    public static <R> CompletableFuture<R> submit(Supplier<R> work, Duration timeout) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            try {
+                PERMITS.acquire();
+            } catch (InterruptedException e) {
+                future.cancel(false);
+                return;
+            }
+            try {
+                if (!future.isDone()) {
+                    future.complete(work.get());
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                PERMITS.release();
+            }
+        });
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the number of tasks that can reach the database at the same time
+     */
+    public static int maxConcurrency() {
+        return MAX_CONCURRENCY;
+    }
+}
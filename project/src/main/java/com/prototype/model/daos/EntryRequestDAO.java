@@ -1,8 +1,25 @@
 package com.prototype.model.daos;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
 import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+
+import org.hibernate.query.NativeQuery;
 
+import com.prototype.model.dtos.EntryRequestRow;
+import com.prototype.model.dtos.HistoryFilter;
+import com.prototype.model.entities.ArchivedEntryRequest;
 import com.prototype.model.entities.EntryRequest;
+import com.prototype.model.entities.EquipmentPresence;
+import com.prototype.model.entities.PresenceKey;
+import com.prototype.model.helpers.SequentialStreams;
 
 /**
  * DAO class responsible for managing persistence operations related to
@@ -19,6 +36,18 @@ import com.prototype.model.entities.EntryRequest;
  */
 public class EntryRequestDAO extends AbstractGenericDAO<EntryRequest, Long> {
 
+    /**
+     * Constructor expression of the columns shown in the requests table. The
+     * requester and equipment identifiers are read from the foreign key
+     * columns.
+     */
+    static final String ROW_SELECTION =
+            "new com.prototype.model.dtos.EntryRequestRow(e.id, e.purpose, e.requestType,"
+                    + " e.equipment.id, e.requester.id, e.requestedAt)";
+
+    /** Reads the closed months moved out of the hot table. */
+    private final ArchivedEntryRequestDAO archive = new ArchivedEntryRequestDAO();
+
     /**
      * Constructs a new DAO instance configured to operate with
      * {@link EntryRequest} entities by passing the entity class type to the
@@ -29,25 +58,277 @@ public class EntryRequestDAO extends AbstractGenericDAO<EntryRequest, Long> {
     }
 
     /**
-     * Retrieves the most recent {@link EntryRequest} made by a specific person
-     * for a specific piece of equipment.
+     * Updates the {@link EquipmentPresence} row of the request's
+     * person/equipment pair in the same transaction as the insert, creating
+     * it on the first request of the pair.
+     *
+     * @param em      the entity manager of the running transaction
+     * @param request the request just persisted
+     */
+    @Override
+    protected void afterPersist(EntityManager em, EntryRequest request) {
+        if (request.getRequester() == null || request.getEquipment() == null) {
+            return;
+        }
+        PresenceKey key = new PresenceKey(request.getRequester().getId(), request.getEquipment().getId());
+        EquipmentPresence presence = em.find(EquipmentPresence.class, key);
+        if (presence == null) {
+            presence = new EquipmentPresence(key);
+            em.persist(presence);
+        }
+        presence.record(request, request.getRequestedAt());
+    }
+
+    /**
+     * Recomputes the {@link EquipmentPresence} row of a pair from its latest
+     * remaining request, after a request of the pair was edited, moved to
+     * another pair or deleted. The row is removed when the pair has no
+     * request left. Pending changes of the running transaction are flushed
+     * before the history is read.
+     *
+     * @param personId    the requester of the pair
+     * @param equipmentId the equipment of the pair
+     */
+    public void refreshPresence(Long personId, Long equipmentId) {
+        if (personId == null || equipmentId == null) {
+            return;
+        }
+        write("refreshPresence", em -> {
+            em.flush();
+            List<EntryRequestRow> latest = em.createNamedQuery(EntryRequest.LAST_REQUEST, EntryRequestRow.class)
+                    .setParameter("idPersona", personId)
+                    .setParameter("idEquipment", equipmentId)
+                    .setMaxResults(1)
+                    .getResultList();
+            if (latest.isEmpty()) {
+                latest = em.createNamedQuery(ArchivedEntryRequest.LAST_REQUEST, EntryRequestRow.class)
+                        .setParameter("idPersona", personId)
+                        .setParameter("idEquipment", equipmentId)
+                        .setMaxResults(1)
+                        .getResultList();
+            }
+            PresenceKey key = new PresenceKey(personId, equipmentId);
+            EquipmentPresence presence = em.find(EquipmentPresence.class, key);
+            if (latest.isEmpty()) {
+                if (presence != null) {
+                    em.remove(presence);
+                }
+                return null;
+            }
+            if (presence == null) {
+                presence = new EquipmentPresence(key);
+                em.persist(presence);
+            }
+            presence.restore(latest.get(0));
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves the most recent request made by a specific person for a
+     * specific piece of equipment.
+     *
+     * <p>Uses the named query {@link EntryRequest#LAST_REQUEST}, which is
+     * compiled once at startup and served by the composite index on
+     * {@code (requester_id, id_equipment, requested_at)}. The archive is only
+     * read when the hot table has no request of the pair: archived requests
+     * are always older than the hot ones.</p>
      *
      * @param equipmentId the identifier of the equipment involved in the request
      * @param personId the identifier of the person who made the request
-     * @return the most recent matching {@code EntryRequest}, or {@code null} if no
-     *         result is found
+     * @return the most recent matching request
      *
-     * @throws javax.persistence.NoResultException if no matching entry request exists
-     *         and no result is allowed by the underlying query execution
+     * @throws javax.persistence.NoResultException if the pair has no request in
+     *         either table
      */
-    public EntryRequest lastRequest(Long equipmentId, Long personId) {
-        EntityManager em = emf.createEntityManager();
-        return em.createQuery(
-                "SELECT s FROM EntryRequest s WHERE s.requester.id = :idPersona AND s.equipment.id = :idEquipment ORDER BY s.requestedAt DESC",
-                entityClass)
+    public EntryRequestRow lastRequest(Long equipmentId, Long personId) {
+        List<EntryRequestRow> hot = read("lastRequest", em -> em.createNamedQuery(EntryRequest.LAST_REQUEST, EntryRequestRow.class)
                 .setParameter("idPersona", personId)
                 .setParameter("idEquipment", equipmentId)
                 .setMaxResults(1)
-                .getSingleResult();
+                .getResultList());
+        if (!hot.isEmpty()) {
+            return hot.get(0);
+        }
+        EntryRequestRow archived = archive.lastRequest(equipmentId, personId);
+        if (archived == null) {
+            throw new NoResultException("No hay solicitudes para el equipo " + equipmentId
+                    + " y la persona " + personId);
+        }
+        return archived;
+    }
+
+    /**
+     * Retrieves a keyset page of {@link EntryRequestRow} projections of the
+     * recent history. The requester and equipment identifiers are read from
+     * the foreign key columns, so the query touches only the hot
+     * {@code entry_request} table; use {@link #findHistoryRowPage} to
+     * include the archive.
+     *
+     * @param request the page to read
+     * @return the page of rows
+     */
+    public Page<EntryRequestRow> findRowPage(PageRequest request) {
+        return findPage(request, ROW_SELECTION, EntryRequestRow.class);
+    }
+
+    /**
+     * Retrieves a keyset page of {@link EntryRequestRow} projections over the
+     * full history, hot and archived. Both tables are read with the same
+     * keyset condition and the two pages are merged, so each page costs two
+     * indexed range scans whatever the size of the archive.
+     *
+     * @param request the page to read, sorted by {@code requestedAt} or {@code id}
+     * @return the page of rows
+     * @throws IllegalArgumentException if the request uses another sort key
+     */
+    public Page<EntryRequestRow> findHistoryRowPage(PageRequest request) {
+        Comparator<EntryRequestRow> order;
+        if ("requestedAt".equals(request.getSortKey())) {
+            order = Comparator.comparing(EntryRequestRow::getRequestedAt,
+                    Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                    .thenComparing(EntryRequestRow::getId);
+        } else if ("id".equals(request.getSortKey())) {
+            order = Comparator.comparing(EntryRequestRow::getId);
+        } else {
+            throw new IllegalArgumentException(
+                    "El historial de solicitudes solo se puede ordenar por requestedAt o id.");
+        }
+        Comparator<EntryRequestRow> pageOrder = request.isDescending() ? order.reversed() : order;
+        return measure("findHistoryRowPage", () -> mergeHistoryPage(request, pageOrder));
+    }
+
+    private Page<EntryRequestRow> mergeHistoryPage(PageRequest request, Comparator<EntryRequestRow> order) {
+        Page<EntryRequestRow> hot = findRowPage(request);
+        Page<EntryRequestRow> archived = archive.findRowPage(request);
+        List<EntryRequestRow> rows = new ArrayList<>(hot.getContent());
+        rows.addAll(archived.getContent());
+        rows.sort(order);
+
+        boolean more = rows.size() > request.getPageSize() || hot.hasNext() || archived.hasNext();
+        List<EntryRequestRow> content = rows.subList(0, Math.min(rows.size(), request.getPageSize()));
+        if (!more || content.isEmpty()) {
+            return new Page<>(content, null);
+        }
+        EntryRequestRow last = content.get(content.size() - 1);
+        Object lastValue = "id".equals(request.getSortKey()) ? last.getId() : last.getRequestedAt();
+        return new Page<>(content, request.after(lastValue, last.getId()));
+    }
+
+    /**
+     * Returns an approximate count of the full history, hot and archived
+     * requests, from the table statistics.
+     *
+     * @return the approximate number of requests, or {@code 0} if unknown
+     */
+    public long estimateHistoryCount() {
+        return estimateCount() + archive.estimateCount();
+    }
+
+    /**
+     * Streams the {@link EntryRequestRow} projections of the full history
+     * matching a filter, oldest first, through database cursors. The archive
+     * is read before the hot table, since every archived request is older
+     * than the hot ones; the hot cursor is opened only once the archive one is
+     * exhausted and closed, and rows are pulled one at a time from the open
+     * cursor. No entity is loaded, so memory use does not depend on the
+     * number of rows.
+     *
+     * @param filter the rows to include
+     * @return a stream over the rows; it must be closed after use
+     */
+    public Stream<EntryRequestRow> streamHistoryRows(HistoryFilter filter) {
+        return SequentialStreams.concat(List.of(
+                () -> archive.streamRows(filter),
+                () -> streamRows(filter)));
+    }
+
+    /**
+     * Streams the rows of the hot table matching a filter, oldest first.
+     *
+     * @param filter the rows to include
+     * @return a stream over the rows; it must be closed after use
+     */
+    Stream<EntryRequestRow> streamRows(HistoryFilter filter) {
+        return streamRows(this, filter);
+    }
+
+    /**
+     * Streams the {@link #ROW_SELECTION} of the table of a DAO, which maps
+     * either {@link EntryRequest} or {@link ArchivedEntryRequest}.
+     */
+    static Stream<EntryRequestRow> streamRows(AbstractGenericDAO<?, Long> dao, HistoryFilter filter) {
+        StringBuilder jpql = new StringBuilder("SELECT ").append(ROW_SELECTION)
+                .append(" FROM ").append(dao.entityClass.getSimpleName()).append(" e WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        if (filter.getFrom() != null) {
+            jpql.append(" AND e.requestedAt >= :from");
+            parameters.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" AND e.requestedAt < :to");
+            parameters.put("to", filter.getTo());
+        }
+        if (filter.getPersonId() != null) {
+            jpql.append(" AND e.requester.id = :personId");
+            parameters.put("personId", filter.getPersonId());
+        }
+        if (filter.getEquipmentId() != null) {
+            jpql.append(" AND e.equipment.id = :equipmentId");
+            parameters.put("equipmentId", filter.getEquipmentId());
+        }
+        jpql.append(" ORDER BY e.requestedAt, e.id");
+        return dao.stream("streamHistory", jpql.toString(), parameters, EntryRequestRow.class, STREAM_FETCH_SIZE);
+    }
+
+    /**
+     * Moves up to {@code limit} requests made before {@code boundary} from
+     * the hot table to the archive, oldest first, in one transaction.
+     *
+     * @param boundary requests made before this time are archived
+     * @param limit    maximum number of requests moved
+     * @return the number of requests moved; {@code 0} once nothing is left
+     */
+    public int archiveBefore(LocalDateTime boundary, int limit) {
+        return write("archiveBefore", em -> {
+            @SuppressWarnings("unchecked")
+            List<Number> ids = em.createNativeQuery(
+                    "SELECT id FROM entry_request WHERE requested_at < ?1 ORDER BY requested_at, id LIMIT ?2"
+                            + " FOR UPDATE")
+                    .setParameter(1, boundary)
+                    .setParameter(2, limit)
+                    .getResultList();
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            List<Long> chunk = new ArrayList<>(ids.size());
+            for (Number id : ids) {
+                chunk.add(id.longValue());
+            }
+            em.createNativeQuery(
+                    "INSERT INTO entry_request_archive (id, id_equipment, requester_id, purpose, requested_at,"
+                            + " requestType) SELECT id, id_equipment, requester_id, purpose, requested_at,"
+                            + " requestType FROM entry_request WHERE id IN (:ids)")
+                    .setParameter("ids", chunk)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(ArchivedEntryRequest.class)
+                    .executeUpdate();
+            return em.createNativeQuery("DELETE FROM entry_request WHERE id IN (:ids)")
+                    .setParameter("ids", chunk)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(EntryRequest.class)
+                    .executeUpdate();
+        });
+    }
+
+    /**
+     * Also compiles the pages sorted by newest request first, which is the
+     * order of the requests screen.
+     */
+    @Override
+    int warmUp(EntityManager em) {
+        return super.warmUp(em)
+                + compileKeysetQueries(em, "requestedAt", true, "e", EntryRequest.class)
+                + compileKeysetQueries(em, "requestedAt", true, ROW_SELECTION, EntryRequestRow.class);
     }
 }
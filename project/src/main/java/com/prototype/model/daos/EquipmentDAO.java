@@ -1,6 +1,15 @@
 package com.prototype.model.daos;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.Query;
+
+import com.prototype.model.dtos.EquipmentRow;
 import com.prototype.model.entities.Equipment;
+import com.prototype.model.enums.EquipmentStatus;
+import com.prototype.model.enums.EquipmentType;
+import com.prototype.model.enums.FrequencyType;
 
 /**
  * DAO class responsible for handling persistence operations related to
@@ -16,6 +25,18 @@ import com.prototype.model.entities.Equipment;
  */
 public class EquipmentDAO extends AbstractGenericDAO<Equipment, Long> {
 
+    /**
+     * Flat select of the columns shown in the equipment table. The subclass
+     * tables are outer joined by primary key, and only their displayed
+     * columns are read.
+     */
+    private static final String ROW_SELECT =
+            "SELECT e.id, e.serial, e.brand, e.model, e.type, e.state, e.frequencyType, e.image_path,"
+                    + " e.id_provider, t.os, t.ramGB, b.risk_class, b.calibration_cert"
+                    + " FROM equipments e"
+                    + " LEFT JOIN Tech_equipments t ON t.id = e.id"
+                    + " LEFT JOIN biomedical_equipments b ON b.id = e.id";
+
     /**
      * Constructs a DAO instance configured to manage {@link Equipment}
      * entities. The entity class is passed to the superclass to enable
@@ -24,4 +45,66 @@ public class EquipmentDAO extends AbstractGenericDAO<Equipment, Long> {
     public EquipmentDAO() {
         super(Equipment.class);
     }
+
+    /**
+     * Retrieves a keyset page of {@link EquipmentRow} projections with one
+     * native query, instead of loading the polymorphic entities.
+     *
+     * @param request the page to read; only the {@code id} sort key is supported
+     * @return the page of rows
+     * @throws IllegalArgumentException if the request is not sorted by {@code id}
+     */
+    public Page<EquipmentRow> findRowPage(PageRequest request) {
+        if (!"id".equals(request.getSortKey())) {
+            throw new IllegalArgumentException("Las filas de equipos solo se pueden ordenar por id.");
+        }
+        String direction = request.isDescending() ? "DESC" : "ASC";
+        String comparator = request.isDescending() ? "<" : ">";
+        StringBuilder sql = new StringBuilder(ROW_SELECT);
+        if (!request.isFirstPage()) {
+            sql.append(" WHERE e.id ").append(comparator).append(" ?1");
+        }
+        sql.append(" ORDER BY e.id ").append(direction);
+
+        return read("findRowPage", em -> {
+            Query query = em.createNativeQuery(sql.toString())
+                    .setMaxResults(request.getPageSize() + 1);
+            if (!request.isFirstPage()) {
+                query.setParameter(1, request.getAfterId());
+            }
+            List<?> result = query.getResultList();
+
+            List<EquipmentRow> rows = new ArrayList<>(result.size());
+            for (Object item : result) {
+                rows.add(toRow((Object[]) item));
+            }
+            if (rows.size() <= request.getPageSize()) {
+                return new Page<>(rows, null);
+            }
+            List<EquipmentRow> content = rows.subList(0, request.getPageSize());
+            Long lastId = content.get(content.size() - 1).getId();
+            return new Page<>(content, request.after(lastId, lastId));
+        });
+    }
+
+    private static EquipmentRow toRow(Object[] columns) {
+        return new EquipmentRow(
+                toLong(columns[0]),
+                (String) columns[1],
+                (String) columns[2],
+                (String) columns[3],
+                columns[4] != null ? EquipmentType.valueOf((String) columns[4]) : null,
+                columns[5] != null ? EquipmentStatus.valueOf((String) columns[5]) : null,
+                columns[6] != null ? FrequencyType.valueOf((String) columns[6]) : null,
+                (String) columns[7],
+                toLong(columns[8]),
+                (String) columns[9],
+                columns[10] != null ? ((Number) columns[10]).intValue() : null,
+                (String) columns[11],
+                (String) columns[12]);
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
 }
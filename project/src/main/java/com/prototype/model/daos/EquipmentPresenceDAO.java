@@ -0,0 +1,103 @@
+package com.prototype.model.daos;
+
+import org.hibernate.query.NativeQuery;
+
+import com.prototype.model.entities.EquipmentPresence;
+import com.prototype.model.entities.PresenceKey;
+
+/**
+ * DAO class responsible for the {@link EquipmentPresence} table, the
+ * materialized current state of every person/equipment pair.
+ *
+ * <p>
+ * Rows are maintained by {@link EntryRequestDAO} when requests are saved,
+ * edited or deleted; this DAO provides the lookups used by the gate toggle,
+ * the removal of the pairs of a deleted person or equipment and the command
+ * that recomputes the whole table from the request history.
+ * </p>
+ */
+public class EquipmentPresenceDAO extends AbstractGenericDAO<EquipmentPresence, PresenceKey> {
+
+    /**
+     * Constructs a DAO instance configured to manage
+     * {@link EquipmentPresence} entities.
+     */
+    public EquipmentPresenceDAO() {
+        super(EquipmentPresence.class);
+    }
+
+    /**
+     * Removes the pairs of a person, whose requests are deleted along with it.
+     *
+     * @param personId the deleted person
+     * @return the number of pairs removed
+     */
+    public int deleteByPerson(Long personId) {
+        return write("deleteByPerson", em -> em.createQuery(
+                        "DELETE FROM EquipmentPresence p WHERE p.id.personId = :id")
+                .setParameter("id", personId)
+                .executeUpdate());
+    }
+
+    /**
+     * Removes the pairs of an equipment, whose requests are deleted along with it.
+     *
+     * @param equipmentId the deleted equipment
+     * @return the number of pairs removed
+     */
+    public int deleteByEquipment(Long equipmentId) {
+        return write("deleteByEquipment", em -> em.createQuery(
+                        "DELETE FROM EquipmentPresence p WHERE p.id.equipmentId = :id")
+                .setParameter("id", equipmentId)
+                .executeUpdate());
+    }
+
+    /**
+     * Removes the pairs of every equipment of a provider, whose equipment and
+     * requests are deleted along with it. Must run before the provider is
+     * deleted, while its equipment can still be found.
+     *
+     * @param providerId the provider about to be deleted
+     * @return the number of pairs removed
+     */
+    public int deleteByProvider(Long providerId) {
+        return write("deleteByProvider", em -> em.createQuery(
+                        "DELETE FROM EquipmentPresence p WHERE p.id.equipmentId IN"
+                                + " (SELECT e.id FROM Equipment e WHERE e.provider.id = :id)")
+                .setParameter("id", providerId)
+                .executeUpdate());
+    }
+
+    /**
+     * Recomputes {@code equipment_presence} from {@code entry_request} and
+     * {@code entry_request_archive}, keeping for every pair the latest
+     * request by timestamp (and by id on ties).
+     * Both statements run in one transaction, so readers never see an empty
+     * table.
+     *
+     * @return the number of pairs written
+     */
+    public int rebuild() {
+        return write("rebuild", em -> {
+            em.createNativeQuery("DELETE FROM equipment_presence")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(EquipmentPresence.class)
+                    .executeUpdate();
+            return em.createNativeQuery(
+                    "INSERT INTO equipment_presence (person_id, equipment_id, last_request_id,"
+                            + " last_request_type, last_requested_at, last_purpose)"
+                            + " SELECT requester_id, id_equipment, id, requestType, requested_at, purpose"
+                            + " FROM (SELECT er.*, ROW_NUMBER() OVER (PARTITION BY er.requester_id, er.id_equipment"
+                            + " ORDER BY er.requested_at DESC, er.id DESC) AS rn"
+                            + " FROM (SELECT id, id_equipment, requester_id, purpose, requested_at, requestType"
+                            + " FROM entry_request UNION ALL"
+                            + " SELECT id, id_equipment, requester_id, purpose, requested_at, requestType"
+                            + " FROM entry_request_archive) er"
+                            + " WHERE er.requester_id IS NOT NULL) ranked"
+                            + " WHERE rn = 1")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(EquipmentPresence.class)
+                    .executeUpdate();
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package com.prototype.model.daos;
+
+import com.prototype.model.entities.GateCheckpoint;
+
+/**
+ * DAO class responsible for the {@link GateCheckpoint} table, which records
+ * how far each local gate journal has been replayed.
+ */
+public class GateCheckpointDAO extends AbstractGenericDAO<GateCheckpoint, String> {
+
+    /**
+     * Constructs a DAO instance configured to manage {@link GateCheckpoint}
+     * entities.
+     */
+    public GateCheckpointDAO() {
+        super(GateCheckpoint.class);
+    }
+
+    /**
+     * Returns the sequence number of the last event of a journal already
+     * applied to the database.
+     *
+     * @param journalId identifier of the journal
+     * @return the last applied sequence number, or {@code 0} if none
+     */
+    public long lastApplied(String journalId) {
+        return read("lastApplied", em -> {
+            GateCheckpoint checkpoint = em.find(GateCheckpoint.class, journalId);
+            return checkpoint != null ? checkpoint.getLastSequence() : 0L;
+        });
+    }
+
+    /**
+     * Moves the checkpoint of a journal forward. Call it inside the
+     * {@link UnitOfWork} that stores the events, so both are committed
+     * together.
+     *
+     * @param journalId    identifier of the journal
+     * @param lastSequence sequence number of the last event applied
+     */
+    public void advance(String journalId, long lastSequence) {
+        write("advance", em -> {
+            GateCheckpoint checkpoint = em.find(GateCheckpoint.class, journalId);
+            if (checkpoint == null) {
+                em.persist(new GateCheckpoint(journalId, lastSequence));
+            } else if (lastSequence > checkpoint.getLastSequence()) {
+                checkpoint.setLastSequence(lastSequence);
+            }
+            return null;
+        });
+    }
+}
@@ -1,6 +1,8 @@
 package com.prototype.model.daos;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Generic DAO interface that defines the basic CRUD operations to be implemented
@@ -31,6 +33,43 @@ public interface GenericDAO<T, K> {
      */
     T findById(K key);
 
+    /**
+     * Retrieves an entity by its identifier, loading the associations of the
+     * given entity graph in the same query.
+     *
+     * @param key        the identifier of the entity
+     * @param fetchGraph the name of a {@code @NamedEntityGraph} of the entity
+     * @return the entity if found, otherwise {@code null}
+     */
+    T findById(K key, String fetchGraph);
+
+    /**
+     * Returns a reference to the entity with the given identifier without
+     * loading its state, to be used as the target of an association.
+     *
+     * @param key the identifier of the entity
+     * @return a reference to the entity
+     */
+    T getReference(K key);
+
+    /**
+     * Checks whether an entity with the given identifier exists, without
+     * loading it.
+     *
+     * @param key the identifier to look for
+     * @return {@code true} if the entity exists
+     */
+    boolean exists(K key);
+
+    /**
+     * Returns which of the given identifiers exist, with one query per
+     * thousand identifiers instead of one per identifier.
+     *
+     * @param keys the identifiers to look for
+     * @return the subset of {@code keys} that exist
+     */
+    Set<K> findExistingIds(Collection<K> keys);
+
     /**
      * Retrieves all records associated with the entity type from the database.
      *
@@ -38,6 +77,15 @@ public interface GenericDAO<T, K> {
      */
     List<T> findAll();
 
+    /**
+     * Retrieves all records of the entity type, loading the associations of
+     * the given entity graph in the same query.
+     *
+     * @param fetchGraph the name of a {@code @NamedEntityGraph} of the entity
+     * @return a {@link List} containing all stored entities
+     */
+    List<T> findAll(String fetchGraph);
+
     /**
      * Updates the state of an existing entity in the database.
      *
@@ -53,4 +101,57 @@ public interface GenericDAO<T, K> {
      * @return the removed entity, or {@code null} if it did not exist
      */
     T delete(K id);
+
+    /**
+     * Persists several new entities in a single transaction, sending the
+     * inserts to the database in JDBC batches.
+     *
+     * @param entities the entities to be saved
+     * @return the persisted entities, with their generated identifiers
+     */
+    List<T> saveAll(Collection<T> entities);
+
+    /**
+     * Updates several existing entities in a single transaction, sending the
+     * updates to the database in JDBC batches.
+     *
+     * @param entities the entities with updated data
+     * @return the merged entities, in the same order as received
+     */
+    List<T> updateAll(Collection<T> entities);
+
+    /**
+     * Deletes every entity identified by the given keys in a single
+     * transaction. Keys that do not exist are ignored.
+     *
+     * @param ids the identifiers of the entities to remove
+     * @return the number of entities actually removed
+     */
+    int deleteAllById(Collection<K> ids);
+
+    /**
+     * Retrieves one page of entities using keyset (seek) pagination.
+     *
+     * @param request the sort key, page size and position of the page
+     * @return the page of entities and the request for the following one
+     */
+    Page<T> findPage(PageRequest request);
+
+    /**
+     * Retrieves one page of entities using keyset pagination, loading the
+     * associations of the given entity graph in the same query.
+     *
+     * @param request    the sort key, page size and position of the page
+     * @param fetchGraph the name of a {@code @NamedEntityGraph} of the entity
+     * @return the page of entities and the request for the following one
+     */
+    Page<T> findPage(PageRequest request, String fetchGraph);
+
+    /**
+     * Returns an estimate of the number of stored entities, taken from the
+     * database statistics instead of counting every row.
+     *
+     * @return the approximate number of rows of the entity table
+     */
+    long estimateCount();
 }
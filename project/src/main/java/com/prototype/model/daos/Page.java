@@ -0,0 +1,41 @@
+package com.prototype.model.daos;
+
+import java.util.List;
+
+/**
+ * A page of results read with a {@link PageRequest}.
+ *
+ * @param <T> the type of the rows in the page
+ */
+public class Page<T> {
+
+    private final List<T> content;
+    private final PageRequest nextPageRequest;
+
+    /**
+     * Creates a page.
+     *
+     * @param content         the rows of the page
+     * @param nextPageRequest the request for the following page, or
+     *                        {@code null} if this is the last one
+     */
+    public Page(List<T> content, PageRequest nextPageRequest) {
+        this.content = List.copyOf(content);
+        this.nextPageRequest = nextPageRequest;
+    }
+
+    /** @return the rows of the page, never {@code null} */
+    public List<T> getContent() {
+        return content;
+    }
+
+    /** @return {@code true} if more rows exist after this page */
+    public boolean hasNext() {
+        return nextPageRequest != null;
+    }
+
+    /** @return the request for the following page, or {@code null} if this is the last one */
+    public PageRequest nextPageRequest() {
+        return nextPageRequest;
+    }
+}
@@ -0,0 +1,107 @@
+package com.prototype.model.daos;
+
+/**
+ * Describes a keyset (seek) page to be read by {@link GenericDAO#findPage(PageRequest)}.
+ *
+ * <p>
+ * Instead of an offset, a page is positioned right after the last row of the
+ * previous page, identified by its sort value and its primary key (used as
+ * tie-breaker). This keeps the cost of reading any page constant, no matter
+ * how deep into the table it is.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable: use {@link #of(String, boolean, int)} to request
+ * the first page and {@link Page#nextPageRequest()} to continue.
+ * </p>
+ */
+public class PageRequest {
+
+    /** Largest page size accepted, to keep every page bounded in memory. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final String sortKey;
+    private final boolean descending;
+    private final int pageSize;
+    private final Object afterValue;
+    private final Object afterId;
+
+    private PageRequest(String sortKey, boolean descending, int pageSize, Object afterValue, Object afterId) {
+        if (sortKey == null || sortKey.isBlank()) {
+            throw new IllegalArgumentException("La clave de ordenamiento es obligatoria.");
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        this.sortKey = sortKey;
+        this.descending = descending;
+        this.pageSize = pageSize;
+        this.afterValue = afterValue;
+        this.afterId = afterId;
+    }
+
+    /**
+     * Creates the request for the first page.
+     *
+     * @param sortKey    the entity attribute used to order the rows; rows
+     *                   whose value is {@code null} sort lowest
+     * @param descending {@code true} to read from the highest value down
+     * @param pageSize   the maximum number of rows per page
+     * @return the request for the first page
+     * @throws IllegalArgumentException if the sort key is blank or the page size is out of range
+     */
+    public static PageRequest of(String sortKey, boolean descending, int pageSize) {
+        return new PageRequest(sortKey, descending, pageSize, null, null);
+    }
+
+    /**
+     * Creates the request for the page that starts right after the given row.
+     *
+     * @param sortValue the sort value of the last row already read
+     * @param id        the primary key of the last row already read
+     * @return the request for the following page
+     */
+    public PageRequest after(Object sortValue, Object id) {
+        return new PageRequest(sortKey, descending, pageSize, sortValue, id);
+    }
+
+    /** @return the entity attribute used to order the rows */
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    /** @return whether rows are read in descending order */
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /** @return the maximum number of rows per page */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /** @return the sort value the page starts after, or {@code null} for the first page */
+    public Object getAfterValue() {
+        return afterValue;
+    }
+
+    /** @return the primary key the page starts after, or {@code null} for the first page */
+    public Object getAfterId() {
+        return afterId;
+    }
+
+    /** @return {@code true} if this request points to the first page */
+    public boolean isFirstPage() {
+        return afterId == null;
+    }
+
+    @Override
+    public String toString() {
+        return "PageRequest {sortKey=" + sortKey +
+                ", descending=" + descending +
+                ", pageSize=" + pageSize +
+                ", afterValue=" + afterValue +
+                ", afterId=" + afterId +
+                "}";
+    }
+}
@@ -0,0 +1,262 @@
+package com.prototype.model.daos;
+
+import java.lang.System.Logger.Level;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.sql.DataSource;
+
+import org.flywaydb.core.api.output.MigrateResult;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import com.prototype.model.config.PersistenceConfig;
+import com.prototype.model.metrics.HibernateMetrics;
+
+/**
+ * Starts the persistence layer in the background.
+ *
+ * <p>
+ * Building the {@link EntityManagerFactory} fills the connection pool and
+ * the pending schema migrations are applied right after (see
+ * {@link SchemaMigrator}), which takes seconds on a remote server.
+ * {@link #start()} runs that work on a dedicated thread, so the application
+ * can show its first screen meanwhile; the DAOs wait for {@link #ready()}
+ * the first time they need the factory.
+ * </p>
+ *
+ * <p>
+ * Deployments whose schema is migrated by other means can skip the
+ * migrations with {@code prototype.migrations.enabled=false}.
+ * </p>
+ *
+ * <p>
+ * Unless {@code prototype.bootstrap.warm_up} is {@code false}, the bootstrap
+ * also opens the minimum idle connections of the pool and compiles the JPQL
+ * of the DAOs before reporting readiness, so the first page of each screen
+ * neither connects nor parses. The duration of each phase is logged and
+ * available through {@link #timings()}.
+ * </p>
+ *
+ * <p>
+ * A failed bootstrap is not final: the next call to {@link #start()}, or
+ * the next DAO that needs the factory, starts a new attempt, so the
+ * application recovers once the database is reachable again. Callers that
+ * arrive while an attempt is running share it.
+ * </p>
+ */
+public final class PersistenceBootstrap {
+
+    private static final System.Logger LOGGER = System.getLogger(PersistenceBootstrap.class.getName());
+
+    private static final boolean WARM_UP = Boolean.parseBoolean(
+            PersistenceConfig.get("prototype.bootstrap.warm_up", "true"));
+
+    private static final boolean MIGRATE = Boolean.parseBoolean(
+            PersistenceConfig.get("prototype.migrations.enabled", "true"));
+
+    /** The current attempt; replaced when a failed attempt is retried. */
+    private static volatile CompletableFuture<EntityManagerFactory> attempt = new CompletableFuture<>();
+
+    /** Whether a thread is building the factory of the current attempt. */
+    private static boolean running;
+
+    private static final Map<String, Duration> TIMINGS = new LinkedHashMap<>();
+
+    private PersistenceBootstrap() {
+    }
+
+    /**
+     * Starts the bootstrap if it has not been started yet or if the last
+     * attempt failed. Calling it while an attempt is running or after it
+     * succeeded has no effect.
+     *
+     * @return a future completed when the persistence layer is ready
+     */
+    public static CompletableFuture<Void> start() {
+        return readiness(startAttempt());
+    }
+
+    /**
+     * Returns a future completed when the factory is built and, if enabled,
+     * warmed up; it fails with the cause of a failed attempt. The future
+     * does not start the bootstrap by itself, nor retry a failed one.
+     *
+     * @return a new dependent future, so callers cannot complete the
+     *         readiness of the persistence layer
+     */
+    public static CompletableFuture<Void> ready() {
+        return readiness(attempt);
+    }
+
+    /**
+     * @return the duration of each completed startup phase, in execution order
+     */
+    public static Map<String, Duration> timings() {
+        synchronized (TIMINGS) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(TIMINGS));
+        }
+    }
+
+    /**
+     * Returns the factory, starting the bootstrap or retrying a failed one if
+     * needed and waiting until it is ready.
+     *
+     * @return the factory of the {@code test} persistence unit
+     * @throws IllegalStateException if this attempt failed or the wait was interrupted
+     */
+    static EntityManagerFactory factory() {
+        CompletableFuture<EntityManagerFactory> current = attempt;
+        if (current.isDone() && !current.isCompletedExceptionally()) {
+            return current.join();
+        }
+        try {
+            return startAttempt().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido mientras se iniciaba la capa de persistencia.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo iniciar la capa de persistencia.", e.getCause());
+        }
+    }
+
+    private static synchronized CompletableFuture<EntityManagerFactory> startAttempt() {
+        if (attempt.isCompletedExceptionally()) {
+            attempt = new CompletableFuture<>();
+            running = false;
+        }
+        if (!running) {
+            running = true;
+            synchronized (TIMINGS) {
+                TIMINGS.clear();
+            }
+            CompletableFuture<EntityManagerFactory> next = attempt;
+            Thread.ofPlatform()
+                    .name("persistence-bootstrap")
+                    .daemon(true)
+                    .start(() -> bootstrap(next));
+        }
+        return attempt;
+    }
+
+    private static CompletableFuture<Void> readiness(CompletableFuture<EntityManagerFactory> factory) {
+        return factory.thenApply(ignored -> null);
+    }
+
+    private static void bootstrap(CompletableFuture<EntityManagerFactory> target) {
+        long start = System.nanoTime();
+        EntityManagerFactory factory = null;
+        try {
+            long phase = System.nanoTime();
+            factory = Persistence.createEntityManagerFactory(
+                    PersistenceConfig.PERSISTENCE_UNIT, PersistenceConfig.overrides());
+            record("entityManagerFactory", phase);
+            HibernateMetrics.register(factory.unwrap(SessionFactory.class).getStatistics());
+
+            if (MIGRATE) {
+                phase = System.nanoTime();
+                MigrateResult result = SchemaMigrator.migrate(
+                        connectionProvider(factory).unwrap(DataSource.class));
+                record("migrations", phase);
+                LOGGER.log(Level.INFO, "Migraciones aplicadas: {0}, versión del esquema: {1}",
+                        result.migrationsExecuted, result.targetSchemaVersion);
+            }
+        } catch (Throwable t) {
+            LOGGER.log(Level.ERROR, "No se pudo iniciar la capa de persistencia", t);
+            if (factory != null) {
+                factory.close();
+            }
+            target.completeExceptionally(t);
+            return;
+        }
+        if (WARM_UP) {
+            warmUp(factory);
+        }
+        record("total", start);
+        LOGGER.log(Level.INFO, "Capa de persistencia lista: {0}", timings());
+        target.complete(factory);
+    }
+
+    /**
+     * Opens the pool connections and compiles the DAO queries. A failure here
+     * only costs the benefit of the warm-up, so it is logged and ignored.
+     */
+    private static void warmUp(EntityManagerFactory factory) {
+        long phase = System.nanoTime();
+        try {
+            int opened = openConnections(factory);
+            record("connections", phase);
+            LOGGER.log(Level.DEBUG, "Conexiones abiertas en el arranque: {0}", opened);
+        } catch (RuntimeException | SQLException e) {
+            LOGGER.log(Level.WARNING, "No se pudieron abrir las conexiones iniciales", e);
+        }
+
+        phase = System.nanoTime();
+        EntityManager em = factory.createEntityManager();
+        try {
+            int compiled = 0;
+            for (AbstractGenericDAO<?, ?> dao : List.of(new ProviderDAO(), new PersonDAO(),
+                    new EquipmentDAO(), new EntryRequestDAO())) {
+                compiled += dao.warmUp(em);
+            }
+            record("queries", phase);
+            LOGGER.log(Level.DEBUG, "Consultas JPQL compiladas en el arranque: {0}", compiled);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "No se pudieron compilar las consultas iniciales", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Borrows {@code hibernate.hikari.minimumIdle} connections at the same
+     * time, so the pool holds that many established connections, and
+     * validates each one with a round trip.
+     *
+     * @return the number of connections opened
+     */
+    private static int openConnections(EntityManagerFactory factory) throws SQLException {
+        ConnectionProvider provider = connectionProvider(factory);
+        int count = Math.max(1, Math.min(PersistenceConfig.getInt("hibernate.hikari.minimumIdle", 2),
+                PersistenceConfig.getInt("hibernate.hikari.maximumPoolSize", 10)));
+        List<Connection> connections = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                Connection connection = provider.getConnection();
+                connections.add(connection);
+                connection.isValid(5);
+            }
+        } finally {
+            for (Connection connection : connections) {
+                provider.closeConnection(connection);
+            }
+        }
+        return connections.size();
+    }
+
+    private static ConnectionProvider connectionProvider(EntityManagerFactory factory) {
+        return factory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+    }
+
+    private static void record(String phase, long startNanos) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        synchronized (TIMINGS) {
+            TIMINGS.put(phase, elapsed);
+        }
+        LOGGER.log(Level.DEBUG, "Arranque de persistencia, {0}: {1} ms", phase, elapsed.toMillis());
+    }
+}
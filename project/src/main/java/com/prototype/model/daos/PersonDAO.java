@@ -1,5 +1,8 @@
 package com.prototype.model.daos;
 
+import javax.persistence.EntityManager;
+
+import com.prototype.model.dtos.PersonRow;
 import com.prototype.model.entities.Person;
 
 /**
@@ -15,6 +18,10 @@ import com.prototype.model.entities.Person;
  */
 public class PersonDAO extends AbstractGenericDAO<Person, Long> {
 
+    /** Constructor expression of the columns shown in the people table. */
+    private static final String ROW_SELECTION =
+            "new com.prototype.model.dtos.PersonRow(e.id, e.fullName, e.document, e.role)";
+
     /**
      * Constructs a DAO instance configured to manage {@link Person} entities.
      * The entity type is delegated to the generic DAO superclass to enable
@@ -23,4 +30,20 @@ public class PersonDAO extends AbstractGenericDAO<Person, Long> {
     public PersonDAO() {
         super(Person.class);
     }
+
+    /**
+     * Retrieves a keyset page of {@link PersonRow} projections, reading only
+     * the columns shown in the people table.
+     *
+     * @param request the page to read
+     * @return the page of rows
+     */
+    public Page<PersonRow> findRowPage(PageRequest request) {
+        return findPage(request, ROW_SELECTION, PersonRow.class);
+    }
+
+    @Override
+    int warmUp(EntityManager em) {
+        return super.warmUp(em) + compileKeysetQueries(em, "id", false, ROW_SELECTION, PersonRow.class);
+    }
 }
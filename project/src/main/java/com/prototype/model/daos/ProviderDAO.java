@@ -1,5 +1,8 @@
 package com.prototype.model.daos;
 
+import javax.persistence.EntityManager;
+
+import com.prototype.model.dtos.ProviderRow;
 import com.prototype.model.entities.Provider;
 
 /**
@@ -16,6 +19,10 @@ import com.prototype.model.entities.Provider;
  */
 public class ProviderDAO extends AbstractGenericDAO<Provider, Long> {
 
+    /** Constructor expression of the columns shown in the providers table. */
+    private static final String ROW_SELECTION =
+            "new com.prototype.model.dtos.ProviderRow(e.id, e.name, e.taxId, e.contactEmail, e.address)";
+
     /**
      * Constructs a DAO instance configured to manage {@link Provider}
      * entities, delegating the entity class to the generic DAO superclass to
@@ -24,5 +31,20 @@ public class ProviderDAO extends AbstractGenericDAO<Provider, Long> {
     public ProviderDAO() {
         super(Provider.class);
     }
-}
 
+    /**
+     * Retrieves a keyset page of {@link ProviderRow} projections, reading only
+     * the columns shown in the providers table.
+     *
+     * @param request the page to read
+     * @return the page of rows
+     */
+    public Page<ProviderRow> findRowPage(PageRequest request) {
+        return findPage(request, ROW_SELECTION, ProviderRow.class);
+    }
+
+    @Override
+    int warmUp(EntityManager em) {
+        return super.warmUp(em) + compileKeysetQueries(em, "id", false, ROW_SELECTION, ProviderRow.class);
+    }
+}
@@ -0,0 +1,130 @@
+package com.prototype.model.daos;
+
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+/**
+ * Runs a whole service operation in one {@link EntityManager} and one
+ * transaction.
+ *
+ * <p>
+ * While a unit of work is active on the current thread, every DAO call made
+ * from it joins the same entity manager instead of opening its own: reads
+ * return managed entities, changes to them are written by dirty checking at
+ * commit, and no detached merge is needed. The transaction is committed when
+ * the work returns and rolled back if it throws.
+ * </p>
+ *
+ * <pre>{@code
+ * UnitOfWork.execute(() -> {
+ *     Person person = personDAO.findById(id);
+ *     person.setRole(role);
+ *     return person;
+ * });
+ * }</pre>
+ *
+ * <p>
+ * Units of work nest: an inner call joins the outer one and the outer call
+ * decides the outcome of the transaction.
+ * </p>
+ */
+public final class UnitOfWork {
+
+    private static final ThreadLocal<EntityManager> CURRENT = new ThreadLocal<>();
+
+    private UnitOfWork() {
+    }
+
+    /**
+     * Runs the given work in a transaction, joining the one already active on
+     * this thread if there is one.
+     *
+     * @param work the operation to run
+     * @param <R>  the type of the result
+     * @return the value returned by the work
+     */
+    public static <R> R execute(Supplier<R> work) {
+        if (CURRENT.get() != null) {
+            return work.get();
+        }
+        EntityManager em = PersistenceBootstrap.factory().createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        CURRENT.set(em);
+        try {
+            tx.begin();
+            R result = work.get();
+            tx.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw e;
+        } finally {
+            CURRENT.remove();
+            em.close();
+        }
+    }
+
+    /**
+     * Runs the given work in a transaction, joining the one already active on
+     * this thread if there is one.
+     *
+     * @param work the operation to run
+     */
+    public static void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the given work in a new transaction and rolls it back, after
+     * flushing so every statement of the work reaches the database. Used to
+     * measure a write, or to check that it would succeed, without keeping
+     * its changes. Identifiers taken from the table generator are not
+     * returned.
+     *
+     * @param work the operation to run
+     * @param <R>  the type of the result
+     * @return the value returned by the work
+     * @throws IllegalStateException if a unit of work is already active on this thread
+     */
+    public static <R> R dryRun(Supplier<R> work) {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("No se puede simular una escritura dentro de otra unidad de trabajo");
+        }
+        EntityManager em = PersistenceBootstrap.factory().createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        CURRENT.set(em);
+        try {
+            tx.begin();
+            R result = work.get();
+            em.flush();
+            return result;
+        } finally {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            CURRENT.remove();
+            em.close();
+        }
+    }
+
+    /**
+     * @return {@code true} if a unit of work is active on the current thread
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * @return the entity manager of the active unit of work, or {@code null}
+     */
+    static EntityManager current() {
+        return CURRENT.get();
+    }
+}
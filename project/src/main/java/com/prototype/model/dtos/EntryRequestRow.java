@@ -0,0 +1,91 @@
+package com.prototype.model.dtos;
+
+import java.time.LocalDateTime;
+
+import com.prototype.model.entities.EntryRequest;
+import com.prototype.model.enums.RequestType;
+
+/**
+ * Read-only row of the entry request table, holding only the columns shown
+ * in the user interface.
+ *
+ * <p>The requester and equipment are kept as identifiers, read from the
+ * foreign key columns of {@code entry_request}, so a page of rows is a single
+ * query without joins.</p>
+ */
+public class EntryRequestRow {
+
+    private final Long id;
+    private final String purpose;
+    private final RequestType requestType;
+    private final Long equipmentId;
+    private final Long requesterId;
+    private final LocalDateTime requestedAt;
+
+    /**
+     * Creates a row. Used by the JPQL constructor expression.
+     *
+     * @param id          the request ID
+     * @param purpose     the purpose of the request
+     * @param requestType the type of request
+     * @param equipmentId the ID of the equipment
+     * @param requesterId the ID of the requester, or {@code null}
+     * @param requestedAt the timestamp of the request
+     */
+    public EntryRequestRow(Long id, String purpose, RequestType requestType, Long equipmentId,
+            Long requesterId, LocalDateTime requestedAt) {
+        this.id = id;
+        this.purpose = purpose;
+        this.requestType = requestType;
+        this.equipmentId = equipmentId;
+        this.requesterId = requesterId;
+        this.requestedAt = requestedAt;
+    }
+
+    /**
+     * Creates the row of an already loaded request.
+     *
+     * @param request the entry request
+     * @return the row with the request's columns
+     */
+    public static EntryRequestRow from(EntryRequest request) {
+        return new EntryRequestRow(request.getId(), request.getPurpose(), request.getRequestType(),
+                request.getEquipment() != null ? request.getEquipment().getId() : null,
+                request.getRequester() != null ? request.getRequester().getId() : null,
+                request.getRequestedAt());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public RequestType getRequestType() {
+        return requestType;
+    }
+
+    public Long getEquipmentId() {
+        return equipmentId;
+    }
+
+    public Long getRequesterId() {
+        return requesterId;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "EntryRequestRow {id=" + id +
+                ", requestType=" + requestType +
+                ", equipmentId=" + equipmentId +
+                ", requesterId=" + requesterId +
+                ", requestedAt=" + requestedAt +
+                "}";
+    }
+}
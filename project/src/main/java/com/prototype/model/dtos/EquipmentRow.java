@@ -0,0 +1,156 @@
+package com.prototype.model.dtos;
+
+import com.prototype.model.entities.BiomedicalEquipment;
+import com.prototype.model.entities.Equipment;
+import com.prototype.model.entities.TechEquipment;
+import com.prototype.model.enums.EquipmentStatus;
+import com.prototype.model.enums.EquipmentType;
+import com.prototype.model.enums.FrequencyType;
+
+/**
+ * Read-only row of the equipment table, flattening the columns of
+ * {@link TechEquipment} and {@link BiomedicalEquipment} shown in the user
+ * interface.
+ *
+ * <p>Rows are read with a single flat query over {@code equipments} and its
+ * subclass tables, so listing equipment never instantiates the polymorphic
+ * entities, their lazy provider proxies nor their request collections. The
+ * provider is kept as its identifier. Columns of the other subtype are
+ * {@code null}.</p>
+ */
+public class EquipmentRow {
+
+    private final Long id;
+    private final String serial;
+    private final String brand;
+    private final String model;
+    private final EquipmentType type;
+    private final EquipmentStatus state;
+    private final FrequencyType frequencyType;
+    private final String imagePath;
+    private final Long providerId;
+    private final String os;
+    private final Integer ramGB;
+    private final String riskClass;
+    private final String calibrationCert;
+
+    /**
+     * Creates a row.
+     *
+     * @param id              the equipment ID
+     * @param serial          the serial number
+     * @param brand           the brand
+     * @param model           the model
+     * @param type            the equipment type
+     * @param state           the equipment status
+     * @param frequencyType   the frequency type
+     * @param imagePath       the URL of the equipment image
+     * @param providerId      the ID of the provider
+     * @param os              the operating system, for technological equipment
+     * @param ramGB           the RAM in GB, for technological equipment
+     * @param riskClass       the risk class, for biomedical equipment
+     * @param calibrationCert the calibration certificate, for biomedical equipment
+     */
+    public EquipmentRow(Long id, String serial, String brand, String model, EquipmentType type,
+            EquipmentStatus state, FrequencyType frequencyType, String imagePath, Long providerId,
+            String os, Integer ramGB, String riskClass, String calibrationCert) {
+        this.id = id;
+        this.serial = serial;
+        this.brand = brand;
+        this.model = model;
+        this.type = type;
+        this.state = state;
+        this.frequencyType = frequencyType;
+        this.imagePath = imagePath;
+        this.providerId = providerId;
+        this.os = os;
+        this.ramGB = ramGB;
+        this.riskClass = riskClass;
+        this.calibrationCert = calibrationCert;
+    }
+
+    /**
+     * Creates the row of an already loaded equipment.
+     *
+     * @param equipment the equipment
+     * @return the row with the equipment's columns
+     */
+    public static EquipmentRow from(Equipment equipment) {
+        String os = null;
+        Integer ramGB = null;
+        String riskClass = null;
+        String calibrationCert = null;
+        if (equipment instanceof TechEquipment tech) {
+            os = tech.getOs();
+            ramGB = tech.getRamGB();
+        } else if (equipment instanceof BiomedicalEquipment bio) {
+            riskClass = bio.getRiskClass();
+            calibrationCert = bio.getCalibrationCert();
+        }
+        return new EquipmentRow(equipment.getId(), equipment.getSerial(), equipment.getBrand(),
+                equipment.getModel(), equipment.getType(), equipment.getState(), equipment.getFrequencyType(),
+                equipment.getImagePath(), equipment.getProvider() != null ? equipment.getProvider().getId() : null,
+                os, ramGB, riskClass, calibrationCert);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSerial() {
+        return serial;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public EquipmentType getType() {
+        return type;
+    }
+
+    public EquipmentStatus getState() {
+        return state;
+    }
+
+    public FrequencyType getFrequencyType() {
+        return frequencyType;
+    }
+
+    public String getImagePath() {
+        return imagePath;
+    }
+
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public String getOs() {
+        return os;
+    }
+
+    public Integer getRamGB() {
+        return ramGB;
+    }
+
+    public String getRiskClass() {
+        return riskClass;
+    }
+
+    public String getCalibrationCert() {
+        return calibrationCert;
+    }
+
+    @Override
+    public String toString() {
+        return "EquipmentRow {id=" + id +
+                ", serial='" + serial + "'" +
+                ", type=" + type +
+                ", providerId=" + providerId +
+                "}";
+    }
+}
@@ -0,0 +1,64 @@
+package com.prototype.model.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criteria that select part of the entry request history. Every criterion
+ * is optional; a {@code null} one does not restrict the result.
+ */
+public class HistoryFilter {
+
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final Long personId;
+    private final Long equipmentId;
+
+    /**
+     * @param from        first instant included, or {@code null}
+     * @param to          first instant excluded, or {@code null}
+     * @param personId    the requester, or {@code null} for every person
+     * @param equipmentId the equipment, or {@code null} for every equipment
+     * @throws IllegalArgumentException if {@code to} is not after {@code from}
+     */
+    public HistoryFilter(LocalDateTime from, LocalDateTime to, Long personId, Long equipmentId) {
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new IllegalArgumentException("La fecha final debe ser posterior a la fecha inicial.");
+        }
+        this.from = from;
+        this.to = to;
+        this.personId = personId;
+        this.equipmentId = equipmentId;
+    }
+
+    /**
+     * @return a filter that selects the whole history
+     */
+    public static HistoryFilter all() {
+        return new HistoryFilter(null, null, null, null);
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public Long getEquipmentId() {
+        return equipmentId;
+    }
+
+    @Override
+    public String toString() {
+        return "HistoryFilter {from=" + from +
+                ", to=" + to +
+                ", personId=" + personId +
+                ", equipmentId=" + equipmentId +
+                "}";
+    }
+}
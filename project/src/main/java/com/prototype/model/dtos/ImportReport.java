@@ -0,0 +1,71 @@
+package com.prototype.model.dtos;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Outcome of a bulk CSV import: how many rows were read, stored and
+ * rejected, how long it took and where the rejected rows are described.
+ */
+public class ImportReport {
+
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final Duration elapsed;
+    private final Path errorReport;
+
+    /**
+     * @param rowsRead     number of data rows read from the file
+     * @param rowsImported number of rows stored in the database
+     * @param rowsRejected number of rows rejected by validation or by the database
+     * @param elapsed      total duration of the import
+     * @param errorReport  CSV file with one line per rejected row, or {@code null} if none was rejected
+     */
+    public ImportReport(long rowsRead, long rowsImported, long rowsRejected, Duration elapsed, Path errorReport) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.elapsed = elapsed;
+        this.errorReport = errorReport;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public Path getErrorReport() {
+        return errorReport;
+    }
+
+    /**
+     * @return rows read per second over the whole import
+     */
+    public double getRowsPerSecond() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return rowsRead * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport {rowsRead=" + rowsRead +
+                ", rowsImported=" + rowsImported +
+                ", rowsRejected=" + rowsRejected +
+                ", elapsed=" + elapsed.toMillis() + " ms" +
+                ", rowsPerSecond=" + Math.round(getRowsPerSecond()) +
+                ", errorReport=" + errorReport +
+                "}";
+    }
+}
@@ -0,0 +1,65 @@
+package com.prototype.model.dtos;
+
+import com.prototype.model.entities.Person;
+import com.prototype.model.enums.Role;
+
+/**
+ * Read-only row of the people table, holding only the columns shown in the
+ * user interface.
+ *
+ * <p>Built directly by a JPQL constructor expression, so listing people never
+ * instantiates {@link Person} entities nor their request collections.</p>
+ */
+public class PersonRow {
+
+    private final Long id;
+    private final String fullName;
+    private final String document;
+    private final Role role;
+
+    /**
+     * Creates a row. Used by the JPQL constructor expression.
+     *
+     * @param id       the person ID
+     * @param fullName the full name
+     * @param document the identification document
+     * @param role     the role of the person
+     */
+    public PersonRow(Long id, String fullName, String document, Role role) {
+        this.id = id;
+        this.fullName = fullName;
+        this.document = document;
+        this.role = role;
+    }
+
+    /**
+     * Creates the row of an already loaded person.
+     *
+     * @param person the person
+     * @return the row with the person's columns
+     */
+    public static PersonRow from(Person person) {
+        return new PersonRow(person.getId(), person.getFullName(), person.getDocument(), person.getRole());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getDocument() {
+        return document;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    @Override
+    public String toString() {
+        return "PersonRow {id=" + id + ", fullName='" + fullName + "'}";
+    }
+}
@@ -0,0 +1,73 @@
+package com.prototype.model.dtos;
+
+import com.prototype.model.entities.Provider;
+
+/**
+ * Read-only row of the providers table, holding only the columns shown in
+ * the user interface.
+ *
+ * <p>Built directly by a JPQL constructor expression, so listing providers
+ * never instantiates {@link Provider} entities nor their equipment
+ * collections.</p>
+ */
+public class ProviderRow {
+
+    private final Long id;
+    private final String name;
+    private final String taxId;
+    private final String contactEmail;
+    private final String address;
+
+    /**
+     * Creates a row. Used by the JPQL constructor expression.
+     *
+     * @param id           the provider ID
+     * @param name         the provider name
+     * @param taxId        the tax identification number
+     * @param contactEmail the contact email
+     * @param address      the address
+     */
+    public ProviderRow(Long id, String name, String taxId, String contactEmail, String address) {
+        this.id = id;
+        this.name = name;
+        this.taxId = taxId;
+        this.contactEmail = contactEmail;
+        this.address = address;
+    }
+
+    /**
+     * Creates the row of an already loaded provider.
+     *
+     * @param provider the provider
+     * @return the row with the provider's columns
+     */
+    public static ProviderRow from(Provider provider) {
+        return new ProviderRow(provider.getId(), provider.getName(), provider.getTaxId(),
+                provider.getContactEmail(), provider.getAddress());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTaxId() {
+        return taxId;
+    }
+
+    public String getContactEmail() {
+        return contactEmail;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    @Override
+    public String toString() {
+        return "ProviderRow {id=" + id + ", name='" + name + "'}";
+    }
+}
@@ -0,0 +1,111 @@
+package com.prototype.model.entities;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.Immutable;
+
+import com.prototype.model.enums.RequestType;
+
+/**
+ * Entry request of a closed month, moved out of {@code entry_request} by the
+ * archiver so that recent-history queries only read the current months.
+ *
+ * <p>
+ * Rows keep the identifier and every column of the original
+ * {@link EntryRequest} and are never modified. They are removed together
+ * with their person or equipment by the foreign keys of the table
+ * ({@code ON DELETE CASCADE}).
+ * </p>
+ *
+ * <p>Instances of this class are stored in the {@code entry_request_archive} table.</p>
+ */
+@Entity
+@Immutable
+@Table(name = "entry_request_archive", indexes = {
+        @Index(name = "idx_entry_request_archive_requested_at", columnList = "requested_at, id"),
+        @Index(name = "idx_entry_request_archive_requester_equipment",
+                columnList = "requester_id, id_equipment, requested_at")
+})
+@NamedQuery(name = ArchivedEntryRequest.LAST_REQUEST,
+        query = "SELECT new com.prototype.model.dtos.EntryRequestRow(s.id, s.purpose, s.requestType,"
+                + " s.equipment.id, s.requester.id, s.requestedAt)"
+                + " FROM ArchivedEntryRequest s WHERE s.requester.id = :idPersona AND s.equipment.id = :idEquipment"
+                + " ORDER BY s.requestedAt DESC, s.id DESC")
+public class ArchivedEntryRequest {
+
+    /** Archive counterpart of {@link EntryRequest#LAST_REQUEST}. */
+    public static final String LAST_REQUEST = "ArchivedEntryRequest.lastRequest";
+
+    /** Identifier of the original request. */
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(nullable = false, name = "id_equipment")
+    private Equipment equipment;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requester_id")
+    private Person requester;
+
+    @Column(nullable = false, length = 100)
+    private String purpose;
+
+    @Column(name = "requested_at")
+    private LocalDateTime requestedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RequestType requestType;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public ArchivedEntryRequest() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Equipment getEquipment() {
+        return equipment;
+    }
+
+    public Person getRequester() {
+        return requester;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public RequestType getRequestType() {
+        return requestType;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedEntryRequest {id=" + id +
+                ", purpose='" + purpose + '\'' +
+                ", requestedAt=" + requestedAt +
+                ", requestType=" + requestType +
+                "}";
+    }
+}
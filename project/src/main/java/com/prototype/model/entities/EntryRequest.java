@@ -12,9 +12,12 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedQuery;
+import javax.persistence.PrePersist;
 import javax.persistence.Table;
-
-import org.hibernate.annotations.CreationTimestamp;
+import javax.persistence.TableGenerator;
 
 import com.prototype.model.enums.RequestType;
 
@@ -25,17 +28,44 @@ import com.prototype.model.enums.RequestType;
  * <p>This entity records who made the request, which equipment is involved,
  * the stated purpose, the timestamp of creation, and the request type.</p>
  *
- * <p>Instances of this class are persisted in the {@code entry_request} table.</p>
+ * <p>Instances of this class are persisted in the {@code entry_request} table.
+ * Its indexes are created by the Flyway migration
+ * {@code V1__baseline_schema.sql}, not by Hibernate.</p>
+ *
+ * <p>Both associations are lazy; use the {@value #WITH_EQUIPMENT_AND_REQUESTER}
+ * entity graph when they are read after the entity manager is closed.</p>
  */
 @Entity
 @Table(name = "entry_request")
+@NamedQuery(name = EntryRequest.LAST_REQUEST,
+        query = "SELECT new com.prototype.model.dtos.EntryRequestRow(s.id, s.purpose, s.requestType,"
+                + " s.equipment.id, s.requester.id, s.requestedAt)"
+                + " FROM EntryRequest s WHERE s.requester.id = :idPersona AND s.equipment.id = :idEquipment"
+                + " ORDER BY s.requestedAt DESC, s.id DESC")
+@NamedEntityGraph(name = EntryRequest.WITH_EQUIPMENT_AND_REQUESTER, attributeNodes = {
+        @NamedAttributeNode("equipment"),
+        @NamedAttributeNode("requester")
+})
 public class EntryRequest {
 
+    /**
+     * Name of the query that finds the latest request of a person for a piece
+     * of equipment, as an {@code EntryRequestRow}. It is resolved by the index
+     * {@code idx_entry_request_requester_equipment}, so its cost does not
+     * depend on the size of the history.
+     */
+    public static final String LAST_REQUEST = "EntryRequest.lastRequest";
+
+    /** Name of the entity graph that fetches the equipment and the requester with the request. */
+    public static final String WITH_EQUIPMENT_AND_REQUESTER = "EntryRequest.withEquipmentAndRequester";
+
     /** Placeholder static reference used elsewhere in the application. */
     public static Class<Long> classS;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "entry_request_id")
+    @TableGenerator(name = "entry_request_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "entry_request", allocationSize = 50)
     private Long id;
 
     /**
@@ -51,6 +81,7 @@ public class EntryRequest {
      * Also loaded lazily for efficiency.
      */
     @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requester_id")
     private Person requester;
 
     /**
@@ -60,9 +91,9 @@ public class EntryRequest {
     private String purpose;
 
     /**
-     * Timestamp generated automatically upon the creation of the record.
+     * Timestamp of the request. When it is not set before the record is
+     * created, the creation time is used (see {@link #onCreate()}).
      */
-    @CreationTimestamp
     @Column(name = "requested_at")
     private LocalDateTime requestedAt;
 
@@ -107,6 +138,17 @@ public class EntryRequest {
         this.requestType = requestType;
     }
 
+    /**
+     * Fills the request timestamp with the current time unless the request
+     * carries its own, such as a gate scan replayed from the local journal.
+     */
+    @PrePersist
+    void onCreate() {
+        if (requestedAt == null) {
+            requestedAt = LocalDateTime.now();
+        }
+    }
+
     public Long getId() {
         return id;
     }
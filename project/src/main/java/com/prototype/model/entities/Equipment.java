@@ -3,6 +3,7 @@ package com.prototype.model.entities;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -16,8 +17,15 @@ import javax.persistence.Inheritance;
 import javax.persistence.InheritanceType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.TableGenerator;
+
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import com.prototype.model.enums.EquipmentStatus;
 import com.prototype.model.enums.EquipmentType;
@@ -39,17 +47,40 @@ import com.prototype.model.enums.FrequencyType;
  * brand, model, classification type, operational status, the stored image
  * reference, and the provider associated with the equipment.
  * </p>
+ *
+ * <p>
+ * The whole hierarchy shares the {@code equipments} second-level cache
+ * region; the cache settings must be declared on this root entity.
+ * </p>
+ *
+ * <p>
+ * The {@value #WITH_PROVIDER} entity graph loads the provider in the same
+ * query; otherwise uninitialized equipment and provider proxies are loaded
+ * in batches of up to 50 ids.
+ * </p>
  */
 @Entity
+@BatchSize(size = 50)
+@NamedEntityGraph(name = Equipment.WITH_PROVIDER, attributeNodes = @NamedAttributeNode("provider"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "equipments")
 @Table(name = "equipments")
 @Inheritance(strategy = InheritanceType.JOINED)
 public abstract class Equipment {
 
+    /** Name of the entity graph that fetches the provider together with the equipment. */
+    public static final String WITH_PROVIDER = "Equipment.withProvider";
+
     /**
      * Automatically generated identifier for the equipment.
+     * Identifiers are reserved in blocks from the {@code id_generator} table
+     * instead of using an identity column, which keeps JDBC insert batching
+     * available for bulk loads.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "equipments_id")
+    @TableGenerator(name = "equipments_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "equipments", allocationSize = 50)
     private Long id;
 
     /**
@@ -107,6 +138,7 @@ public abstract class Equipment {
      * relationship between equipment and its authorization requests.
      */
     @OneToMany(mappedBy = "equipment", cascade = {CascadeType.MERGE,CascadeType.REFRESH,CascadeType.REMOVE})
+    @BatchSize(size = 50)
     private List<EntryRequest> entryRequests;
 
     @Column(nullable = false)
@@ -0,0 +1,132 @@
+package com.prototype.model.entities;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Table;
+
+import com.prototype.model.dtos.EntryRequestRow;
+import com.prototype.model.enums.RequestType;
+
+/**
+ * Materialized current state of a person/equipment pair: whether the
+ * equipment is currently inside or outside the institution.
+ *
+ * <p>
+ * One row is kept per pair and it is updated in the same transaction that
+ * inserts, edits or deletes each {@link EntryRequest}, so the gate can
+ * decide the next request type with a primary key lookup instead of
+ * searching the history. The
+ * table can always be recomputed from {@code entry_request}
+ * (see {@code EquipmentPresenceDAO#rebuild()}).
+ * </p>
+ *
+ * <p>
+ * The identifiers are stored as plain columns, without foreign keys, so
+ * deleting people or equipment is never blocked by this table.
+ * </p>
+ *
+ * <p>Instances are stored in the {@code equipment_presence} table.</p>
+ */
+@Entity
+@Table(name = "equipment_presence")
+public class EquipmentPresence {
+
+    @EmbeddedId
+    private PresenceKey id;
+
+    /** Identifier of the latest entry request of the pair. */
+    @Column(name = "last_request_id", nullable = false)
+    private Long lastRequestId;
+
+    /** Type of the latest request: ENTRY means the equipment is inside. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_request_type", nullable = false)
+    private RequestType lastRequestType;
+
+    /** Timestamp of the latest request. */
+    @Column(name = "last_requested_at", nullable = false)
+    private LocalDateTime lastRequestedAt;
+
+    /** Purpose of the latest request, reused by the gate toggle. */
+    @Column(name = "last_purpose", nullable = false, length = 100)
+    private String lastPurpose;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public EquipmentPresence() {
+    }
+
+    /**
+     * Creates the state of a pair that has no recorded request yet.
+     *
+     * @param id the person/equipment pair
+     */
+    public EquipmentPresence(PresenceKey id) {
+        this.id = id;
+    }
+
+    /**
+     * Applies a newly stored request to this state. Requests older than the
+     * one already recorded are ignored.
+     *
+     * @param request     the stored request
+     * @param requestedAt the timestamp of the request
+     */
+    public void record(EntryRequest request, LocalDateTime requestedAt) {
+        if (lastRequestedAt != null && requestedAt.isBefore(lastRequestedAt)) {
+            return;
+        }
+        this.lastRequestId = request.getId();
+        this.lastRequestType = request.getRequestType();
+        this.lastRequestedAt = requestedAt;
+        this.lastPurpose = request.getPurpose();
+    }
+
+    /**
+     * Replaces this state with the given request, whatever the one recorded,
+     * after the latest request of the pair was edited or deleted.
+     *
+     * @param latest the latest remaining request of the pair
+     */
+    public void restore(EntryRequestRow latest) {
+        this.lastRequestId = latest.getId();
+        this.lastRequestType = latest.getRequestType();
+        this.lastRequestedAt = latest.getRequestedAt();
+        this.lastPurpose = latest.getPurpose();
+    }
+
+    public PresenceKey getId() {
+        return id;
+    }
+
+    public Long getLastRequestId() {
+        return lastRequestId;
+    }
+
+    public RequestType getLastRequestType() {
+        return lastRequestType;
+    }
+
+    public LocalDateTime getLastRequestedAt() {
+        return lastRequestedAt;
+    }
+
+    public String getLastPurpose() {
+        return lastPurpose;
+    }
+
+    @Override
+    public String toString() {
+        return "EquipmentPresence {id=" + id +
+                ", lastRequestId=" + lastRequestId +
+                ", lastRequestType=" + lastRequestType +
+                ", lastRequestedAt=" + lastRequestedAt +
+                "}";
+    }
+}
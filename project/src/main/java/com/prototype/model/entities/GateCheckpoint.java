@@ -0,0 +1,68 @@
+package com.prototype.model.entities;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Replay position of a local gate journal: the sequence number of the last
+ * journal event already stored as an {@link EntryRequest}.
+ *
+ * <p>
+ * The checkpoint is advanced in the same transaction as the requests it
+ * covers, so an event is applied exactly once even if the application stops
+ * in the middle of a replay.
+ * </p>
+ *
+ * <p>Instances are stored in the {@code gate_journal_checkpoint} table.</p>
+ */
+@Entity
+@Table(name = "gate_journal_checkpoint")
+public class GateCheckpoint {
+
+    /** Identifier of the journal, written in the journal file header. */
+    @Id
+    @Column(name = "journal_id", length = 36)
+    private String journalId;
+
+    /** Sequence number of the last applied event. */
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public GateCheckpoint() {
+    }
+
+    /**
+     * Creates the checkpoint of a journal.
+     *
+     * @param journalId    identifier of the journal
+     * @param lastSequence sequence number of the last applied event
+     */
+    public GateCheckpoint(String journalId, long lastSequence) {
+        this.journalId = journalId;
+        this.lastSequence = lastSequence;
+    }
+
+    public String getJournalId() {
+        return journalId;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    @Override
+    public String toString() {
+        return "GateCheckpoint {journalId=" + journalId +
+                ", lastSequence=" + lastSequence +
+                "}";
+    }
+}
@@ -3,6 +3,7 @@ package com.prototype.model.entities;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -13,6 +14,11 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.TableGenerator;
+
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import com.prototype.model.enums.Role;
 
@@ -24,8 +30,15 @@ import com.prototype.model.enums.Role;
  * <p>This entity is stored in the {@code people} table and contains the basic
  * personal and role-related information necessary for access control and
  * auditing processes.</p>
+ *
+ * <p>Instances are cached in the {@code people} second-level cache region,
+ * because every entry request looks up its requester. Uninitialized
+ * requester proxies are loaded in batches of up to 50 ids.</p>
  */
 @Entity
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "people")
 @Table(name = "people")
 public class Person {
 
@@ -33,7 +46,9 @@ public class Person {
      * Automatically generated identifier for the person.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "people_id")
+    @TableGenerator(name = "people_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "people", allocationSize = 50)
     private Long id;
 
     /**
@@ -61,6 +76,7 @@ public class Person {
      * and their corresponding entry requests.</p>
      */
     @OneToMany(mappedBy = "requester",cascade = {CascadeType.REMOVE,CascadeType.REFRESH,CascadeType.MERGE})
+    @BatchSize(size = 50)
     private List<EntryRequest> entryRequests;
 
     /**
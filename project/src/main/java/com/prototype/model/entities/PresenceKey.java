@@ -0,0 +1,72 @@
+package com.prototype.model.entities;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+/**
+ * Composite identifier of {@link EquipmentPresence}: one row exists per pair
+ * of person and equipment.
+ */
+@Embeddable
+public class PresenceKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Identifier of the person who carries the equipment. */
+    @Column(name = "person_id", nullable = false)
+    private Long personId;
+
+    /** Identifier of the equipment. */
+    @Column(name = "equipment_id", nullable = false)
+    private Long equipmentId;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public PresenceKey() {
+    }
+
+    /**
+     * Creates the key of a person/equipment pair.
+     *
+     * @param personId    identifier of the person
+     * @param equipmentId identifier of the equipment
+     */
+    public PresenceKey(Long personId, Long equipmentId) {
+        this.personId = personId;
+        this.equipmentId = equipmentId;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public Long getEquipmentId() {
+        return equipmentId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PresenceKey)) {
+            return false;
+        }
+        PresenceKey other = (PresenceKey) o;
+        return Objects.equals(personId, other.personId) && Objects.equals(equipmentId, other.equipmentId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(personId, equipmentId);
+    }
+
+    @Override
+    public String toString() {
+        return "PresenceKey {personId=" + personId + ", equipmentId=" + equipmentId + "}";
+    }
+}
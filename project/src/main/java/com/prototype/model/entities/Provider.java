@@ -3,6 +3,7 @@ package com.prototype.model.entities;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -11,6 +12,11 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.TableGenerator;
+
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity representing an equipment provider registered within the system.
@@ -21,8 +27,17 @@ import javax.persistence.Table;
  *
  * <p>Each provider may be associated with multiple {@link Equipment}
  * instances, forming a one-to-many relationship.</p>
+ *
+ * <p>Providers rarely change, so they are kept in the {@code providers}
+ * second-level cache region (see {@code ehcache.xml}).</p>
+ *
+ * <p>Uninitialized provider proxies, such as those of
+ * {@link Equipment#getProvider()}, are loaded in batches of up to 50 ids.</p>
  */
 @Entity
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "providers")
 @Table(name = "providers")
 public class Provider {
 
@@ -30,7 +45,9 @@ public class Provider {
      * Automatically generated identifier for the provider.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "providers_id")
+    @TableGenerator(name = "providers_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "providers", allocationSize = 50)
     private Long id;
 
     /**
@@ -61,6 +78,7 @@ public class Provider {
      * to propagate to the associated equipment records.</p>
      */
     @OneToMany(mappedBy = "provider", cascade = { CascadeType.MERGE, CascadeType.REFRESH, CascadeType.REMOVE })
+    @BatchSize(size = 50)
     private List<Equipment> equipments;
 
     /**
@@ -0,0 +1,6 @@
+package com.prototype.model.enums;
+
+public enum ExportFormat {
+    CSV, // Plain UTF-8 comma-separated file.
+    CSV_GZIP; // The same file compressed with gzip.
+}
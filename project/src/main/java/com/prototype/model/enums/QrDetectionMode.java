@@ -0,0 +1,6 @@
+package com.prototype.model.enums;
+
+public enum QrDetectionMode {
+    FULL_FRAME, // ZXing binarizes and searches every whole frame.
+    REGION; // OpenCV locates the code on a reduced frame and ZXing decodes only that region.
+}
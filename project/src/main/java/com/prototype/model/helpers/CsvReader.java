@@ -0,0 +1,183 @@
+package com.prototype.model.helpers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader of comma-separated files with a header row.
+ *
+ * <p>
+ * Records are parsed one at a time from the underlying reader, so files of
+ * any size are read in constant memory. Fields may be quoted with
+ * {@code "}; quoted fields can contain commas, line breaks and doubled
+ * quotes. Header names are matched ignoring case and surrounding spaces.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public class CsvReader implements Closeable {
+
+    private final Reader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long line = 1;
+
+    /**
+     * Opens a CSV source and reads its header row.
+     *
+     * @param reader  the source, ideally buffered by the caller
+     * @param required the columns that must be present in the header
+     * @throws IOException if the source cannot be read
+     * @throws IllegalArgumentException if the header is missing a required column
+     */
+    public CsvReader(Reader reader, List<String> required) throws IOException {
+        this.reader = reader;
+        List<String> header = nextFields();
+        if (header == null) {
+            header = List.of();
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalize(header.get(i)), i);
+        }
+        for (String column : required) {
+            if (!columns.containsKey(normalize(column))) {
+                throw new IllegalArgumentException(ErrorMessageManager.FIELD_REQUIRED + "columna " + column);
+            }
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record, or {@code null} at the end of the file
+     * @throws IOException if the source cannot be read
+     */
+    public CsvRecord next() throws IOException {
+        long start;
+        List<String> fields;
+        do {
+            start = line;
+            fields = nextFields();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isEmpty());
+        return new CsvRecord(start, fields, columns);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> nextFields() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Comillas sin cerrar en la línea " + line);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private static String normalize(String column) {
+        // Files saved by spreadsheet tools may start with a byte order mark.
+        String name = column.startsWith("\uFEFF") ? column.substring(1) : column;
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One row of a CSV file, with access to its fields by column name.
+     */
+    public static final class CsvRecord {
+
+        private final long line;
+        private final List<String> fields;
+        private final Map<String, Integer> columns;
+
+        CsvRecord(long line, List<String> fields, Map<String, Integer> columns) {
+            this.line = line;
+            this.fields = fields;
+            this.columns = columns;
+        }
+
+        /**
+         * @return the line of the file where the record starts, the header being line 1
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * Returns the trimmed value of a column.
+         *
+         * @param column the column name
+         * @return the value, or {@code null} if the record has no such field or it is empty
+         */
+        public String get(String column) {
+            Integer index = columns.get(normalize(column));
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).strip();
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
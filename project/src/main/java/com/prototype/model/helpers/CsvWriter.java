@@ -0,0 +1,85 @@
+package com.prototype.model.helpers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes comma-separated rows in the format read by {@link CsvReader}.
+ *
+ * <p>
+ * Values containing commas, quotes or line breaks are quoted, with inner
+ * quotes doubled; {@code null} is written as an empty field. Rows end with
+ * {@code \n}.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public class CsvWriter implements Closeable {
+
+    private final Writer writer;
+    private final StringBuilder row = new StringBuilder(256);
+
+    /**
+     * @param writer the destination, ideally buffered by the caller
+     */
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes one row.
+     *
+     * @param values the fields of the row, converted with {@code toString}
+     * @throws IOException if the destination cannot be written
+     */
+    public void writeRow(Object... values) throws IOException {
+        row.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            if (values[i] != null) {
+                appendField(values[i].toString());
+            }
+        }
+        row.append('\n');
+        writer.append(row);
+    }
+
+    /**
+     * Writes any buffered rows to the destination.
+     *
+     * @throws IOException if the destination cannot be written
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void appendField(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+}
@@ -91,4 +91,20 @@ public class IoManager {
         }
     }
 
+    /**
+     * Validates the result of an existence check made without loading the
+     * entity, such as {@code GenericDAO#exists}.
+     *
+     * @param exists    whether the entity was found
+     * @param fieldName the name of the field being validated
+     * @param id        the identifier used in the lookup
+     * @throws IllegalArgumentException if the entity does not exist
+     */
+    public static void requireExists(boolean exists, String fieldName, Object id) {
+        if (!exists) {
+            throw new IllegalArgumentException(
+                    ErrorMessageManager.ID_NOT_FOUND + id);
+        }
+    }
+
 }
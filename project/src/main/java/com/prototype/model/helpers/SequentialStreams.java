@@ -0,0 +1,84 @@
+package com.prototype.model.helpers;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Concatenates streams that hold resources, such as database cursors,
+ * opening each one only when the previous one is exhausted.
+ *
+ * <p>
+ * {@code Stream.flatMap} is not suitable for cursors read through
+ * {@code iterator()}: the whole inner stream is pushed into a buffer on the
+ * first read, so a cursor of millions of rows ends up in memory. The stream
+ * returned here pulls one element at a time from the open source, closes it
+ * as soon as it is exhausted and only then opens the next one, so at most
+ * one source is open at any time.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public final class SequentialStreams {
+
+    private SequentialStreams() {
+    }
+
+    /**
+     * Builds a lazy, sequential concatenation of the streams produced by
+     * {@code sources}, in order. Closing the returned stream closes the
+     * source currently open, if any; sources not reached yet are never opened.
+     *
+     * @param sources suppliers of the streams to concatenate
+     * @param <T>     the type of the elements
+     * @return a sequential stream over every element; it must be closed after use
+     */
+    public static <T> Stream<T> concat(List<? extends Supplier<? extends Stream<? extends T>>> sources) {
+        Deque<Supplier<? extends Stream<? extends T>>> pending = new ArrayDeque<>(sources);
+        Stream<? extends T>[] open = newHolder();
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+            private Iterator<? extends T> current;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                while (current == null || !current.hasNext()) {
+                    closeOpen(open);
+                    current = null;
+                    if (pending.isEmpty()) {
+                        return false;
+                    }
+                    open[0] = pending.poll().get();
+                    current = open[0].iterator();
+                }
+                action.accept(current.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            pending.clear();
+            closeOpen(open);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Stream<? extends T>[] newHolder() {
+        return (Stream<? extends T>[]) new Stream<?>[1];
+    }
+
+    private static void closeOpen(Stream<?>[] open) {
+        if (open[0] != null) {
+            Stream<?> stream = open[0];
+            open[0] = null;
+            stream.close();
+        }
+    }
+}
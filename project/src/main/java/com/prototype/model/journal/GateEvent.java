@@ -0,0 +1,61 @@
+package com.prototype.model.journal;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * A QR scan at the gate, as recorded in the {@link GateJournal}: who scanned
+ * which equipment and when. Whether it is an entry or an exit is decided
+ * when the event is applied to the database, from the current presence of
+ * the pair.
+ */
+public final class GateEvent {
+
+    private final long sequence;
+    private final long personId;
+    private final long equipmentId;
+    private final long scannedAtMillis;
+
+    GateEvent(long sequence, long personId, long equipmentId, long scannedAtMillis) {
+        this.sequence = sequence;
+        this.personId = personId;
+        this.equipmentId = equipmentId;
+        this.scannedAtMillis = scannedAtMillis;
+    }
+
+    /**
+     * @return position of the event in its journal; strictly increasing
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getPersonId() {
+        return personId;
+    }
+
+    public long getEquipmentId() {
+        return equipmentId;
+    }
+
+    /**
+     * @return the local time of the scan
+     */
+    public LocalDateTime getScannedAt() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(scannedAtMillis), ZoneId.systemDefault());
+    }
+
+    long getScannedAtMillis() {
+        return scannedAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "GateEvent {sequence=" + sequence +
+                ", personId=" + personId +
+                ", equipmentId=" + equipmentId +
+                ", scannedAt=" + getScannedAt() +
+                "}";
+    }
+}
@@ -0,0 +1,438 @@
+package com.prototype.model.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of {@link GateEvent}s kept on the local disk of a gate
+ * station.
+ *
+ * <p>
+ * Appends are group committed: a single writer thread takes every event
+ * queued since its last write, writes them with one system call and makes
+ * them durable with one {@code fsync}. A scan therefore waits for the local
+ * disk only, and concurrent scans share the same flush. The future returned
+ * by {@link #append} completes once the event is durable.
+ * </p>
+ *
+ * <p>
+ * The file starts with a header (format version, journal identifier and the
+ * first sequence number) followed by fixed-size records protected by a
+ * CRC-32. A record torn by a crash fails its check and is discarded when the
+ * journal is opened. Sequence numbers are consecutive and never reused, even
+ * after {@link #compact(long)} empties the file.
+ * </p>
+ *
+ * <p>
+ * The file is locked while open, so only one process can write a journal.
+ * </p>
+ */
+public final class GateJournal implements AutoCloseable {
+
+    private static final int MAGIC = 0x47415445;
+    private static final int VERSION = 1;
+
+    /** Magic, version, identifier (two longs) and base sequence. */
+    private static final int HEADER_SIZE = 32;
+
+    /** Sequence, person, equipment and scan time, plus the CRC-32. */
+    private static final int RECORD_SIZE = 36;
+
+    /** Maximum number of events written and flushed together. */
+    private static final int MAX_BATCH = 256;
+
+    /** Compaction only rewrites the file once it reaches this size. */
+    private static final long COMPACT_THRESHOLD = 1L << 20;
+
+    /** Queued by {@link #close()} to stop the writer after the events before it. */
+    private static final PendingEvent STOP = new PendingEvent(0, 0, 0);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final String id;
+    private final BlockingQueue<PendingEvent> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    /** Guards the file layout: held by the writer while writing and by compaction. */
+    private final Object fileLock = new Object();
+
+    /** Sequence number of the first record in the file. */
+    private volatile long firstSequence;
+
+    /** Sequence number assigned to the next appended event; owned by the writer. */
+    private long nextSequence;
+
+    /** End of the durable records; readers never look past it. */
+    private volatile long durableSize;
+
+    /** Sequence number of the last durable event. */
+    private volatile long lastSequence;
+
+    private volatile boolean closed;
+
+    private GateJournal(Path path, FileChannel channel, FileLock lock, String id, long firstSequence,
+            long nextSequence, long size) {
+        this.path = path;
+        this.channel = channel;
+        this.lock = lock;
+        this.id = id;
+        this.firstSequence = firstSequence;
+        this.nextSequence = nextSequence;
+        this.durableSize = size;
+        this.lastSequence = nextSequence - 1;
+        this.writer = Thread.ofPlatform().name("gate-journal-writer").daemon(true).unstarted(this::writeLoop);
+    }
+
+    /**
+     * Opens the journal at the given path, creating it if needed, and
+     * discards a trailing record left incomplete by a crash.
+     *
+     * @param path the journal file
+     * @return the open journal
+     * @throws UncheckedIOException if the file cannot be read, is not a gate
+     *         journal or is already open in another process
+     */
+    public static GateJournal open(Path path) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                throw new IOException("El diario de portería ya está abierto en otro proceso: " + path);
+            }
+            GateJournal journal = channel.size() < HEADER_SIZE
+                    ? create(path, channel, lock)
+                    : recover(path, channel, lock);
+            journal.writer.start();
+            return journal;
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    private static GateJournal create(Path path, FileChannel channel, FileLock lock) throws IOException {
+        String id = UUID.randomUUID().toString();
+        channel.truncate(0);
+        writeHeader(channel, UUID.fromString(id), 1);
+        channel.force(true);
+        return new GateJournal(path, channel, lock, id, 1, 1, HEADER_SIZE);
+    }
+
+    private static GateJournal recover(Path path, FileChannel channel, FileLock lock) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("El archivo no es un diario de portería válido: " + path);
+        }
+        String id = new UUID(header.getLong(), header.getLong()).toString();
+        long baseSequence = header.getLong();
+
+        long position = HEADER_SIZE;
+        long firstSequence = -1;
+        long expected = -1;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        while (position + RECORD_SIZE <= channel.size()) {
+            record.clear();
+            readFully(channel, record, position);
+            record.flip();
+            GateEvent event = decode(record);
+            if (event == null || (expected != -1 && event.getSequence() != expected)) {
+                break;
+            }
+            if (firstSequence == -1) {
+                firstSequence = event.getSequence();
+            }
+            expected = event.getSequence() + 1;
+            position += RECORD_SIZE;
+        }
+        if (position < channel.size()) {
+            channel.truncate(position);
+            channel.force(true);
+        }
+        long nextSequence = Math.max(baseSequence, expected);
+        return new GateJournal(path, channel, lock, id, firstSequence != -1 ? firstSequence : nextSequence,
+                nextSequence, position);
+    }
+
+    /**
+     * @return the identifier of this journal, stable across restarts
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the journal file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Queues a scan for writing.
+     *
+     * @param personId    identifier of the person
+     * @param equipmentId identifier of the equipment
+     * @param scannedAtMillis time of the scan, in epoch milliseconds
+     * @return a future completed with the stored event once it is durable,
+     *         or failed with an {@link UncheckedIOException} if it could not
+     *         be written
+     * @throws IllegalStateException if the journal is closed
+     */
+    public CompletableFuture<GateEvent> append(long personId, long equipmentId, long scannedAtMillis) {
+        if (closed) {
+            throw new IllegalStateException("El diario de portería está cerrado.");
+        }
+        PendingEvent pending = new PendingEvent(personId, equipmentId, scannedAtMillis);
+        queue.add(pending);
+        return pending.future;
+    }
+
+    /**
+     * Reads durable events in sequence order.
+     *
+     * @param afterSequence only events with a greater sequence number are returned
+     * @param max           maximum number of events to return
+     * @return the events, empty if none is pending
+     */
+    public List<GateEvent> read(long afterSequence, int max) {
+        long first = firstSequence;
+        long end = durableSize;
+        long from = Math.max(afterSequence + 1, first);
+        long position = HEADER_SIZE + (from - first) * RECORD_SIZE;
+        List<GateEvent> events = new ArrayList<>();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        try {
+            while (events.size() < max && position + RECORD_SIZE <= end) {
+                record.clear();
+                readFully(channel, record, position);
+                record.flip();
+                GateEvent event = decode(record);
+                if (event == null) {
+                    throw new IOException("Registro dañado en el diario de portería en la posición " + position);
+                }
+                events.add(event);
+                position += RECORD_SIZE;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return events;
+    }
+
+    /**
+     * @return the sequence number of the last durable event, or {@code 0} if
+     *         none was ever written
+     */
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Empties the file once every event it holds has been applied to the
+     * database and it has grown past the compaction threshold.
+     *
+     * @param appliedSequence sequence number of the last event applied
+     * @return {@code true} if the file was emptied
+     */
+    public boolean compact(long appliedSequence) {
+        synchronized (fileLock) {
+            if (durableSize < COMPACT_THRESHOLD || appliedSequence < nextSequence - 1) {
+                return false;
+            }
+            try {
+                // The header goes first: if the truncation is lost, the old
+                // records stay below the new base and are never replayed twice.
+                writeHeader(channel, UUID.fromString(id), nextSequence);
+                channel.force(true);
+                channel.truncate(HEADER_SIZE);
+                channel.force(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            durableSize = HEADER_SIZE;
+            firstSequence = nextSequence;
+            return true;
+        }
+    }
+
+    /**
+     * Stops the writer after the queued events are written and releases the
+     * file.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // A pill instead of an interrupt: interrupting a thread blocked in
+        // FileChannel I/O closes the channel.
+        queue.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingEvent pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new IllegalStateException("El diario de portería está cerrado."));
+        }
+        try {
+            lock.release();
+        } catch (IOException e) {
+            // The lock is released with the channel anyway.
+        }
+        closeQuietly(channel);
+    }
+
+    private void writeLoop() {
+        List<PendingEvent> batch = new ArrayList<>(MAX_BATCH);
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            int pill = batch.indexOf(STOP);
+            if (pill >= 0) {
+                batch.subList(pill, batch.size()).clear();
+                stop = true;
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<PendingEvent> batch) {
+        List<GateEvent> events = new ArrayList<>(batch.size());
+        synchronized (fileLock) {
+            ByteBuffer buffer = ByteBuffer.allocate(batch.size() * RECORD_SIZE);
+            long sequence = nextSequence;
+            for (PendingEvent pending : batch) {
+                GateEvent event = new GateEvent(sequence++, pending.personId, pending.equipmentId,
+                        pending.scannedAtMillis);
+                encode(event, buffer);
+                events.add(event);
+            }
+            buffer.flip();
+            long position = durableSize;
+            try {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                try {
+                    channel.truncate(durableSize);
+                } catch (IOException ignored) {
+                    // Recovery discards the partial records on the next open.
+                }
+                UncheckedIOException failure = new UncheckedIOException(e);
+                for (PendingEvent pending : batch) {
+                    pending.future.completeExceptionally(failure);
+                }
+                return;
+            }
+            nextSequence = sequence;
+            durableSize = position;
+            lastSequence = sequence - 1;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(events.get(i));
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, UUID id, long baseSequence) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .putLong(baseSequence);
+        header.flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+
+    private static void encode(GateEvent event, ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putLong(event.getSequence())
+                .putLong(event.getPersonId())
+                .putLong(event.getEquipmentId())
+                .putLong(event.getScannedAtMillis());
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), start, RECORD_SIZE - Integer.BYTES);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * @return the decoded event, or {@code null} if the record fails its check
+     */
+    private static GateEvent decode(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, RECORD_SIZE - Integer.BYTES);
+        GateEvent event = new GateEvent(record.getLong(), record.getLong(), record.getLong(), record.getLong());
+        return record.getInt() == (int) crc.getValue() ? event : null;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Fin inesperado del diario de portería");
+            }
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing else can be done with a channel that fails to close.
+        }
+    }
+
+    /** An event waiting for the writer. */
+    private static final class PendingEvent {
+
+        final long personId;
+        final long equipmentId;
+        final long scannedAtMillis;
+        final CompletableFuture<GateEvent> future = new CompletableFuture<>();
+
+        PendingEvent(long personId, long equipmentId, long scannedAtMillis) {
+            this.personId = personId;
+            this.equipmentId = equipmentId;
+            this.scannedAtMillis = scannedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.prototype.model.metrics;
+
+import org.hibernate.stat.CacheRegionStatistics;
+
+/**
+ * Snapshot of the hit/miss statistics of one second-level cache region.
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public class CacheRegionMetrics {
+
+    private final String region;
+    private final long hits;
+    private final long misses;
+    private final long puts;
+    private final long elementsInMemory;
+
+    /**
+     * Captures the current values of a region.
+     *
+     * @param region     the region name
+     * @param statistics the Hibernate statistics of the region
+     */
+    public CacheRegionMetrics(String region, CacheRegionStatistics statistics) {
+        this.region = region;
+        this.hits = statistics.getHitCount();
+        this.misses = statistics.getMissCount();
+        this.puts = statistics.getPutCount();
+        this.elementsInMemory = statistics.getElementCountInMemory();
+    }
+
+    /** @return the region name */
+    public String getRegion() {
+        return region;
+    }
+
+    /** @return lookups served from the cache */
+    public long getHits() {
+        return hits;
+    }
+
+    /** @return lookups that had to go to the database */
+    public long getMisses() {
+        return misses;
+    }
+
+    /** @return entries stored in the region */
+    public long getPuts() {
+        return puts;
+    }
+
+    /** @return entries currently held in memory, or a negative value if unknown */
+    public long getElementsInMemory() {
+        return elementsInMemory;
+    }
+
+    /** @return the fraction of lookups served from the cache, between 0 and 1 */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : hits / (double) lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheRegionMetrics {region=" + region +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", puts=" + puts +
+                ", elementsInMemory=" + elementsInMemory +
+                ", hitRatio=" + String.format("%.3f", getHitRatio()) +
+                "}";
+    }
+}
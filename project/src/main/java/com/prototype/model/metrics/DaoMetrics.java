@@ -0,0 +1,76 @@
+package com.prototype.model.metrics;
+
+import java.lang.System.Logger.Level;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Registry of the {@link OperationMetrics} of every DAO operation, tagged by
+ * entity and method name.
+ *
+ * <p>
+ * Each operation is also registered in the platform MBean server the first
+ * time it is called, as
+ * {@code com.prototype:type=DaoOperation,entity=<entity>,operation=<method>},
+ * so it can be watched with JConsole or any JMX agent.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public final class DaoMetrics {
+
+    private static final System.Logger LOGGER = System.getLogger(DaoMetrics.class.getName());
+
+    private static final Map<String, Map<String, OperationMetrics>> OPERATIONS = new ConcurrentHashMap<>();
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * Returns the metrics of an operation, creating and registering them on
+     * first use.
+     *
+     * @param entity    the entity managed by the DAO
+     * @param operation the DAO method
+     * @return the metrics of the operation
+     */
+    public static OperationMetrics operation(String entity, String operation) {
+        Map<String, OperationMetrics> byOperation = OPERATIONS.computeIfAbsent(entity,
+                key -> new ConcurrentHashMap<>());
+        OperationMetrics metrics = byOperation.get(operation);
+        if (metrics != null) {
+            return metrics;
+        }
+        return byOperation.computeIfAbsent(operation, key -> register(new OperationMetrics(entity, key)));
+    }
+
+    /**
+     * @return the metrics of every operation called so far, sorted by entity and operation
+     */
+    public static List<OperationMetrics> operations() {
+        List<OperationMetrics> all = new ArrayList<>();
+        OPERATIONS.values().forEach(byOperation -> all.addAll(byOperation.values()));
+        all.sort(Comparator.comparing(OperationMetrics::getEntity).thenComparing(OperationMetrics::getOperation));
+        return all;
+    }
+
+    private static OperationMetrics register(OperationMetrics metrics) {
+        try {
+            ObjectName name = new ObjectName("com.prototype:type=DaoOperation,entity="
+                    + ObjectName.quote(metrics.getEntity()) + ",operation=" + ObjectName.quote(metrics.getOperation()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "No se pudo registrar la métrica JMX de " + metrics.getEntity() + "."
+                    + metrics.getOperation(), e);
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,147 @@
+package com.prototype.model.metrics;
+
+import java.lang.System.Logger.Level;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of the gate: the latency of recording a scan, which is the wait
+ * for the gate journal to reach the disk, and the latency of replaying a
+ * batch of scans to the database.
+ *
+ * <p>
+ * The scan latency is the one the guard perceives at the gate, so its p99
+ * is the figure to alert on; the replay latency only delays when the scans
+ * show up in the database.
+ * </p>
+ *
+ * <p>
+ * The metrics are registered in the platform MBean server as
+ * {@code com.prototype:type=Gate} on first use.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public class GateMetrics implements GateMetricsMXBean {
+
+    private static final System.Logger LOGGER = System.getLogger(GateMetrics.class.getName());
+
+    private static volatile GateMetrics current;
+
+    private final LatencyHistogram scan = new LatencyHistogram();
+    private final LatencyHistogram replay = new LatencyHistogram();
+    private final LongAdder scanErrors = new LongAdder();
+
+    GateMetrics() {
+    }
+
+    /**
+     * Returns the metrics of the gate, creating and registering them on first use.
+     *
+     * @return the shared instance
+     */
+    public static GateMetrics current() {
+        GateMetrics metrics = current;
+        if (metrics == null) {
+            synchronized (GateMetrics.class) {
+                metrics = current;
+                if (metrics == null) {
+                    metrics = register(new GateMetrics());
+                    current = metrics;
+                }
+            }
+        }
+        return metrics;
+    }
+
+    private static GateMetrics register(GateMetrics metrics) {
+        try {
+            ObjectName name = new ObjectName("com.prototype:type=Gate");
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "No se pudo registrar la métrica JMX de la portería", e);
+        }
+        return metrics;
+    }
+
+    /**
+     * @param elapsedNanos time taken to record a scan in the journal
+     * @param failed       whether the scan could not be recorded
+     */
+    public void recordScan(long elapsedNanos, boolean failed) {
+        scan.record(elapsedNanos);
+        if (failed) {
+            scanErrors.increment();
+        }
+    }
+
+    /** @param elapsedNanos time taken to apply a batch of scans to the database */
+    public void recordReplay(long elapsedNanos) {
+        replay.record(elapsedNanos);
+    }
+
+    /** @return the latency histogram of the scans */
+    public LatencyHistogram getScan() {
+        return scan;
+    }
+
+    /** @return the latency histogram of the replayed batches */
+    public LatencyHistogram getReplay() {
+        return replay;
+    }
+
+    @Override
+    public long getScans() {
+        return scan.getCount();
+    }
+
+    @Override
+    public long getScanErrors() {
+        return scanErrors.sum();
+    }
+
+    @Override
+    public double getScanP50Millis() {
+        return scan.percentileMillis(0.50);
+    }
+
+    @Override
+    public double getScanP99Millis() {
+        return scan.percentileMillis(0.99);
+    }
+
+    @Override
+    public double getScanMaxMillis() {
+        return scan.getMaxMillis();
+    }
+
+    @Override
+    public long getReplayedBatches() {
+        return replay.getCount();
+    }
+
+    @Override
+    public double getReplayP50Millis() {
+        return replay.percentileMillis(0.50);
+    }
+
+    @Override
+    public double getReplayP99Millis() {
+        return replay.percentileMillis(0.99);
+    }
+
+    @Override
+    public String toString() {
+        return "GateMetrics {scans=" + getScans() +
+                ", scanErrors=" + getScanErrors() +
+                ", scanP50Ms=" + String.format("%.3f", getScanP50Millis()) +
+                ", scanP99Ms=" + String.format("%.3f", getScanP99Millis()) +
+                ", replayedBatches=" + getReplayedBatches() +
+                ", replayP99Ms=" + String.format("%.3f", getReplayP99Millis()) +
+                "}";
+    }
+}
@@ -0,0 +1,24 @@
+package com.prototype.model.metrics;
+
+/**
+ * JMX view of the gate scans of this station, registered as
+ * {@code com.prototype:type=Gate}.
+ */
+public interface GateMetricsMXBean {
+
+    long getScans();
+
+    long getScanErrors();
+
+    double getScanP50Millis();
+
+    double getScanP99Millis();
+
+    double getScanMaxMillis();
+
+    long getReplayedBatches();
+
+    double getReplayP50Millis();
+
+    double getReplayP99Millis();
+}
@@ -0,0 +1,169 @@
+package com.prototype.model.metrics;
+
+import java.lang.System.Logger.Level;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.hibernate.stat.Statistics;
+
+/**
+ * Session factory counters of Hibernate: sessions, transactions, flushes,
+ * statements, queries, entity operations and second-level cache lookups.
+ *
+ * <p>
+ * They require {@code hibernate.generate_statistics=true}, set in
+ * {@code persistence.xml}. The persistence bootstrap publishes them through
+ * {@link #register(Statistics)} once the factory is built.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public class HibernateMetrics implements HibernateMetricsMXBean {
+
+    private static final System.Logger LOGGER = System.getLogger(HibernateMetrics.class.getName());
+
+    /** Metrics of the running session factory, if any. */
+    private static volatile HibernateMetrics current;
+
+    private final Statistics statistics;
+
+    private HibernateMetrics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Publishes the statistics of a new session factory through
+     * {@link #current()} and as the {@code com.prototype:type=Hibernate} MBean.
+     *
+     * @param statistics the statistics of the session factory
+     */
+    public static synchronized void register(Statistics statistics) {
+        HibernateMetrics metrics = new HibernateMetrics(statistics);
+        try {
+            ObjectName name = new ObjectName("com.prototype:type=Hibernate");
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(metrics, name);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "No se pudieron registrar las métricas JMX de Hibernate", e);
+        }
+        current = metrics;
+    }
+
+    /**
+     * @return the metrics of the running session factory, or {@code null} if
+     *         the persistence layer has not started yet
+     */
+    public static HibernateMetrics current() {
+        return current;
+    }
+
+    /**
+     * @return one snapshot per second-level cache region
+     */
+    public List<CacheRegionMetrics> cacheRegions() {
+        List<CacheRegionMetrics> metrics = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            metrics.add(new CacheRegionMetrics(region, statistics.getDomainDataRegionStatistics(region)));
+        }
+        return metrics;
+    }
+
+    @Override
+    public long getSessionsOpened() {
+        return statistics.getSessionOpenCount();
+    }
+
+    @Override
+    public long getTransactions() {
+        return statistics.getTransactionCount();
+    }
+
+    @Override
+    public long getFlushes() {
+        return statistics.getFlushCount();
+    }
+
+    @Override
+    public long getStatementsPrepared() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Override
+    public long getQueryExecutions() {
+        return statistics.getQueryExecutionCount();
+    }
+
+    @Override
+    public long getQueryExecutionMaxMillis() {
+        return statistics.getQueryExecutionMaxTime();
+    }
+
+    @Override
+    public String getSlowestQuery() {
+        return statistics.getQueryExecutionMaxTimeQueryString();
+    }
+
+    @Override
+    public long getEntityLoads() {
+        return statistics.getEntityLoadCount();
+    }
+
+    @Override
+    public long getEntityFetches() {
+        return statistics.getEntityFetchCount();
+    }
+
+    @Override
+    public long getEntityInserts() {
+        return statistics.getEntityInsertCount();
+    }
+
+    @Override
+    public long getEntityUpdates() {
+        return statistics.getEntityUpdateCount();
+    }
+
+    @Override
+    public long getEntityDeletes() {
+        return statistics.getEntityDeleteCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheHits() {
+        return statistics.getSecondLevelCacheHitCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheMisses() {
+        return statistics.getSecondLevelCacheMissCount();
+    }
+
+    @Override
+    public long getSecondLevelCachePuts() {
+        return statistics.getSecondLevelCachePutCount();
+    }
+
+    @Override
+    public long getOptimisticFailures() {
+        return statistics.getOptimisticFailureCount();
+    }
+
+    @Override
+    public String toString() {
+        return "HibernateMetrics {sessions=" + getSessionsOpened() +
+                ", transactions=" + getTransactions() +
+                ", flushes=" + getFlushes() +
+                ", statements=" + getStatementsPrepared() +
+                ", cacheHits=" + getSecondLevelCacheHits() +
+                ", cacheMisses=" + getSecondLevelCacheMisses() +
+                "}";
+    }
+}
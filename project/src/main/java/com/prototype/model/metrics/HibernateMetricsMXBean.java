@@ -0,0 +1,40 @@
+package com.prototype.model.metrics;
+
+/**
+ * JMX view of the Hibernate session factory statistics, registered as
+ * {@code com.prototype:type=Hibernate}.
+ */
+public interface HibernateMetricsMXBean {
+
+    long getSessionsOpened();
+
+    long getTransactions();
+
+    long getFlushes();
+
+    long getStatementsPrepared();
+
+    long getQueryExecutions();
+
+    long getQueryExecutionMaxMillis();
+
+    String getSlowestQuery();
+
+    long getEntityLoads();
+
+    long getEntityFetches();
+
+    long getEntityInserts();
+
+    long getEntityUpdates();
+
+    long getEntityDeletes();
+
+    long getSecondLevelCacheHits();
+
+    long getSecondLevelCacheMisses();
+
+    long getSecondLevelCachePuts();
+
+    long getOptimisticFailures();
+}
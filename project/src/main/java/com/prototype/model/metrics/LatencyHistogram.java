@@ -0,0 +1,118 @@
+package com.prototype.model.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed buckets from 1 ms to 10 s, the
+ * layout of a Prometheus histogram.
+ *
+ * <p>
+ * Recording is a bucket search and two additions, cheap enough for every
+ * DAO call. Percentiles are estimated by linear interpolation inside the
+ * bucket that holds them, so they are exact to the bucket resolution.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+    /** Upper bounds of the buckets, in milliseconds; a last bucket holds slower samples. */
+    static final double[] BOUNDS_MILLIS = {1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Adds a sample.
+     *
+     * @param elapsedNanos the duration of the operation
+     */
+    void record(long elapsedNanos) {
+        double millis = elapsedNanos / NANOS_PER_MILLI;
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        sumNanos.add(elapsedNanos);
+        maxNanos.accumulate(elapsedNanos);
+    }
+
+    /** @return number of samples */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /** @return sum of all samples, in milliseconds */
+    public double getSumMillis() {
+        return sumNanos.sum() / NANOS_PER_MILLI;
+    }
+
+    /** @return average sample, in milliseconds */
+    public double getMeanMillis() {
+        long samples = count.sum();
+        return samples == 0 ? 0.0 : getSumMillis() / samples;
+    }
+
+    /** @return slowest sample, in milliseconds */
+    public double getMaxMillis() {
+        return maxNanos.get() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * @return the number of samples of each bucket, in the order of
+     *         {@link #BOUNDS_MILLIS}, the last one being the overflow bucket
+     */
+    long[] bucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Estimates a percentile.
+     *
+     * @param quantile the quantile, between 0 and 1, such as 0.99
+     * @return the estimated latency, in milliseconds, or 0 without samples
+     */
+    public double percentileMillis(double quantile) {
+        long[] counts = bucketCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        double rank = quantile * total;
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 && seen + counts[i] >= rank) {
+                if (i == BOUNDS_MILLIS.length) {
+                    return getMaxMillis();
+                }
+                double lower = i == 0 ? 0 : BOUNDS_MILLIS[i - 1];
+                double upper = Math.min(BOUNDS_MILLIS[i], Math.max(lower, getMaxMillis()));
+                return lower + (upper - lower) * (rank - seen) / counts[i];
+            }
+            seen += counts[i];
+        }
+        return getMaxMillis();
+    }
+}
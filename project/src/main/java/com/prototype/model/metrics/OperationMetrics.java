@@ -0,0 +1,120 @@
+package com.prototype.model.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one operation of one DAO: a latency histogram, the number of
+ * failed calls, the rows returned or affected and the SQL statements issued.
+ *
+ * <p>
+ * Instances are created and published by {@link DaoMetrics}.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String entity;
+    private final String operation;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+
+    OperationMetrics(String entity, String operation) {
+        this.entity = entity;
+        this.operation = operation;
+    }
+
+    /**
+     * Records one call.
+     *
+     * @param elapsedNanos duration of the call
+     * @param rowCount     rows returned or affected
+     * @param statementCount SQL statements prepared during the call
+     * @param failed       whether the call threw
+     */
+    public void record(long elapsedNanos, long rowCount, long statementCount, boolean failed) {
+        latency.record(elapsedNanos);
+        rows.add(rowCount);
+        statements.add(statementCount);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /** @return the latency histogram of the operation */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String getEntity() {
+        return entity;
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanMillis();
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.percentileMillis(0.50);
+    }
+
+    @Override
+    public double getP95Millis() {
+        return latency.percentileMillis(0.95);
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.percentileMillis(0.99);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxMillis();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "OperationMetrics {entity=" + entity +
+                ", operation=" + operation +
+                ", count=" + getCount() +
+                ", errors=" + getErrors() +
+                ", p50Ms=" + String.format("%.3f", getP50Millis()) +
+                ", p99Ms=" + String.format("%.3f", getP99Millis()) +
+                ", maxMs=" + String.format("%.3f", getMaxMillis()) +
+                ", rows=" + getRows() +
+                ", statements=" + getStatements() +
+                "}";
+    }
+}
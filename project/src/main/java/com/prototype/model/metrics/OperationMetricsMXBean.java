@@ -0,0 +1,30 @@
+package com.prototype.model.metrics;
+
+/**
+ * JMX view of the metrics of one DAO operation, registered as
+ * {@code com.prototype:type=DaoOperation,entity=<entity>,operation=<method>}.
+ */
+public interface OperationMetricsMXBean {
+
+    String getEntity();
+
+    String getOperation();
+
+    long getCount();
+
+    long getErrors();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    long getRows();
+
+    long getStatements();
+}
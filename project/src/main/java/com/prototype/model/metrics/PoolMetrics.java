@@ -0,0 +1,146 @@
+package com.prototype.model.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Live metrics of the JDBC connection pool used by the persistence layer.
+ *
+ * <p>
+ * Gauges (active, idle, total and waiting threads) are read from the pool
+ * itself, while acquisition times, usage times and timeouts are accumulated
+ * by the {@link PoolMetricsTrackerFactory} registered in
+ * {@code persistence.xml}.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public class PoolMetrics {
+
+    /** Metrics of the pool that is currently running, if any. */
+    private static volatile PoolMetrics current;
+
+    private final String poolName;
+    private final PoolStats poolStats;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+
+    PoolMetrics(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+    }
+
+    /**
+     * Returns the metrics of the running pool.
+     *
+     * @return the pool metrics, or {@code null} if the pool has not started yet
+     */
+    public static PoolMetrics current() {
+        return current;
+    }
+
+    static void setCurrent(PoolMetrics metrics) {
+        current = metrics;
+    }
+
+    void recordAcquire(long elapsedNanos) {
+        acquisitions.increment();
+        acquireNanos.add(elapsedNanos);
+        maxAcquireNanos.accumulate(elapsedNanos);
+    }
+
+    void recordUsage(long elapsedMillis) {
+        usageMillis.add(elapsedMillis);
+    }
+
+    void recordTimeout() {
+        timeouts.increment();
+    }
+
+    void recordCreated() {
+        connectionsCreated.increment();
+    }
+
+    /** @return the configured pool name */
+    public String getPoolName() {
+        return poolName;
+    }
+
+    /** @return connections currently borrowed by the application */
+    public int getActiveConnections() {
+        return poolStats.getActiveConnections();
+    }
+
+    /** @return connections currently idle in the pool */
+    public int getIdleConnections() {
+        return poolStats.getIdleConnections();
+    }
+
+    /** @return total connections currently open */
+    public int getTotalConnections() {
+        return poolStats.getTotalConnections();
+    }
+
+    /** @return maximum size the pool is allowed to reach */
+    public int getMaxConnections() {
+        return poolStats.getMaxConnections();
+    }
+
+    /** @return threads currently waiting for a connection */
+    public int getPendingThreads() {
+        return poolStats.getPendingThreads();
+    }
+
+    /** @return number of connections handed out since startup */
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    /** @return average time spent waiting for a connection, in milliseconds */
+    public double getAverageWaitMillis() {
+        long count = acquisitions.sum();
+        return count == 0 ? 0.0 : acquireNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /** @return longest time spent waiting for a connection, in milliseconds */
+    public double getMaxWaitMillis() {
+        return maxAcquireNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /** @return total time connections were held by the application, in milliseconds */
+    public long getTotalUsageMillis() {
+        return usageMillis.sum();
+    }
+
+    /** @return number of requests that timed out waiting for a connection */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /** @return number of physical connections opened since startup */
+    public long getConnectionsCreated() {
+        return connectionsCreated.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics {pool=" + poolName +
+                ", active=" + getActiveConnections() +
+                ", idle=" + getIdleConnections() +
+                ", total=" + getTotalConnections() +
+                ", pending=" + getPendingThreads() +
+                ", avgWaitMs=" + String.format("%.3f", getAverageWaitMillis()) +
+                ", maxWaitMs=" + String.format("%.3f", getMaxWaitMillis()) +
+                ", timeouts=" + getTimeouts() +
+                "}";
+    }
+}
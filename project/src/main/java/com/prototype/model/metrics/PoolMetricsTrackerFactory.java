@@ -0,0 +1,53 @@
+package com.prototype.model.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * HikariCP metrics hook that feeds {@link PoolMetrics}.
+ *
+ * <p>
+ * It is referenced by class name from {@code persistence.xml}
+ * ({@code hibernate.hikari.metricsTrackerFactory}), so it must keep a public
+ * no-argument constructor.
+ * </p>
+ */
+public class PoolMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    /**
+     * Creates the tracker for a newly started pool and publishes its metrics
+     * through {@link PoolMetrics#current()}.
+     *
+     * @param poolName  the name of the pool
+     * @param poolStats live gauges provided by the pool
+     * @return the tracker that records pool events
+     */
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolMetrics metrics = new PoolMetrics(poolName, poolStats);
+        PoolMetrics.setCurrent(metrics);
+        return new IMetricsTracker() {
+
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                metrics.recordCreated();
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                metrics.recordAcquire(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                metrics.recordUsage(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                metrics.recordTimeout();
+            }
+        };
+    }
+}
@@ -0,0 +1,294 @@
+package com.prototype.model.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.System.Logger.Level;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import com.prototype.model.config.PersistenceConfig;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Publishes the persistence metrics in the Prometheus text format (version
+ * 0.0.4): the {@link DaoMetrics} of every DAO operation, the
+ * {@link HibernateMetrics} counters, the second-level cache regions, the
+ * {@link PoolMetrics} of the connection pool, the {@link GateMetrics} of
+ * the gate and the {@link QrPipelineMetrics} of every camera.
+ *
+ * <p>
+ * Two outputs are available, both optional:
+ * </p>
+ * <ul>
+ * <li>an HTTP endpoint {@code /metrics} bound to the loopback interface on
+ * port {@code prototype.metrics.port} (9464 by default, {@code 0} disables
+ * it), for a Prometheus server or agent running on the station;</li>
+ * <li>a file, {@code prototype.metrics.file}, rewritten every
+ * {@code prototype.metrics.file_interval_seconds} seconds (15 by default),
+ * for the textfile collector of the node exporter.</li>
+ * </ul>
+ *
+ * <p>
+ * Latencies are exported as histograms in seconds, so an alert on the p99
+ * of a scan is a {@code histogram_quantile(0.99, ...)} over
+ * {@code prototype_dao_operation_duration_seconds_bucket}.
+ * </p>
+ */
+public final class PrometheusExporter {
+
+    private static final System.Logger LOGGER = System.getLogger(PrometheusExporter.class.getName());
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static boolean started;
+
+    private PrometheusExporter() {
+    }
+
+    /**
+     * Starts the configured outputs. Calling it again has no effect. A
+     * failure to open the port is logged and does not stop the application.
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        int port = PersistenceConfig.getInt("prototype.metrics.port", 9464);
+        if (port > 0) {
+            try {
+                HttpServer server = HttpServer.create(
+                        new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+                server.createContext("/metrics", exchange -> {
+                    byte[] body = render().getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+                server.setExecutor(Executors.newSingleThreadExecutor(
+                        Thread.ofPlatform().name("metrics-http").daemon(true).factory()));
+                server.start();
+                LOGGER.log(Level.INFO, "Métricas disponibles en http://localhost:{0,number,#}/metrics", port);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "No se pudo abrir el puerto de métricas " + port, e);
+            }
+        }
+
+        String file = PersistenceConfig.get("prototype.metrics.file", "");
+        if (!file.isBlank()) {
+            Path target = Paths.get(file);
+            int interval = Math.max(1, PersistenceConfig.getInt("prototype.metrics.file_interval_seconds", 15));
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("metrics-file").daemon(true).factory());
+            scheduler.scheduleWithFixedDelay(() -> writeFile(target), interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Renders every metric.
+     *
+     * @return the metrics in the Prometheus text format
+     */
+    public static String render() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+        renderOperations(out, DaoMetrics.operations());
+        HibernateMetrics hibernate = HibernateMetrics.current();
+        if (hibernate != null) {
+            renderHibernate(out, hibernate);
+        }
+        PoolMetrics pool = PoolMetrics.current();
+        if (pool != null) {
+            renderPool(out, pool);
+        }
+        renderGate(out, GateMetrics.current());
+        List<QrPipelineMetrics> cameras = QrPipelineMetrics.cameras();
+        if (!cameras.isEmpty()) {
+            renderQrPipelines(out, cameras);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Replaces the file atomically, so the collector never reads it half written.
+     */
+    private static void writeFile(Path target) {
+        try {
+            Path partial = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.writeString(partial, render(), StandardCharsets.UTF_8);
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "No se pudo escribir el archivo de métricas " + target, e);
+        }
+    }
+
+    private static void renderOperations(StringBuilder out, List<OperationMetrics> operations) {
+        String histogram = "prototype_dao_operation_duration_seconds";
+        header(out, histogram, "histogram", "Latency of DAO operations.");
+        for (OperationMetrics metrics : operations) {
+            String labels = "entity=\"" + escape(metrics.getEntity()) + "\",operation=\""
+                    + escape(metrics.getOperation()) + "\"";
+            histogram(out, histogram, labels, metrics.getLatency());
+        }
+        counter(out, "prototype_dao_operation_errors_total", "DAO operations that threw.", operations,
+                OperationMetrics::getErrors);
+        counter(out, "prototype_dao_operation_rows_total", "Rows returned or affected by DAO operations.",
+                operations, OperationMetrics::getRows);
+        counter(out, "prototype_dao_operation_statements_total", "SQL statements prepared by DAO operations.",
+                operations, OperationMetrics::getStatements);
+    }
+
+    private static void histogram(StringBuilder out, String name, String labels, LatencyHistogram latency) {
+        long[] counts = latency.bucketCounts();
+        long cumulative = 0;
+        String prefix = labels != null ? labels + "," : "";
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            String le = i < LatencyHistogram.BOUNDS_MILLIS.length
+                    ? number(LatencyHistogram.BOUNDS_MILLIS[i] / 1000) : "+Inf";
+            out.append(name).append("_bucket{").append(prefix).append("le=\"").append(le)
+                    .append("\"} ").append(cumulative).append('\n');
+        }
+        sample(out, name + "_sum", labels, number(latency.getSumMillis() / 1000));
+        sample(out, name + "_count", labels, Long.toString(cumulative));
+    }
+
+    private static void counter(StringBuilder out, String name, String help, List<OperationMetrics> operations,
+            ToLongFunction<OperationMetrics> value) {
+        header(out, name, "counter", help);
+        for (OperationMetrics metrics : operations) {
+            sample(out, name, "entity=\"" + escape(metrics.getEntity()) + "\",operation=\""
+                    + escape(metrics.getOperation()) + "\"", Long.toString(value.applyAsLong(metrics)));
+        }
+    }
+
+    private static void renderHibernate(StringBuilder out, HibernateMetrics metrics) {
+        simple(out, "prototype_hibernate_sessions_opened_total", "counter", "Sessions opened.",
+                metrics.getSessionsOpened());
+        simple(out, "prototype_hibernate_transactions_total", "counter", "Transactions completed.",
+                metrics.getTransactions());
+        simple(out, "prototype_hibernate_flushes_total", "counter", "Session flushes.", metrics.getFlushes());
+        simple(out, "prototype_hibernate_statements_prepared_total", "counter", "JDBC statements prepared.",
+                metrics.getStatementsPrepared());
+        simple(out, "prototype_hibernate_query_executions_total", "counter", "HQL and JPQL queries executed.",
+                metrics.getQueryExecutions());
+        simple(out, "prototype_hibernate_query_execution_max_seconds", "gauge", "Slowest query execution.",
+                metrics.getQueryExecutionMaxMillis() / 1000.0);
+        simple(out, "prototype_hibernate_entity_loads_total", "counter", "Entities loaded.",
+                metrics.getEntityLoads());
+        simple(out, "prototype_hibernate_entity_fetches_total", "counter", "Entities fetched lazily.",
+                metrics.getEntityFetches());
+        simple(out, "prototype_hibernate_entity_inserts_total", "counter", "Entities inserted.",
+                metrics.getEntityInserts());
+        simple(out, "prototype_hibernate_entity_updates_total", "counter", "Entities updated.",
+                metrics.getEntityUpdates());
+        simple(out, "prototype_hibernate_entity_deletes_total", "counter", "Entities deleted.",
+                metrics.getEntityDeletes());
+        simple(out, "prototype_hibernate_optimistic_failures_total", "counter", "Optimistic lock failures.",
+                metrics.getOptimisticFailures());
+
+        List<CacheRegionMetrics> regions = metrics.cacheRegions();
+        String[][] series = {
+                {"prototype_hibernate_cache_hits_total", "Second-level cache hits."},
+                {"prototype_hibernate_cache_misses_total", "Second-level cache misses."},
+                {"prototype_hibernate_cache_puts_total", "Second-level cache puts."}};
+        for (int s = 0; s < series.length; s++) {
+            header(out, series[s][0], "counter", series[s][1]);
+            for (CacheRegionMetrics region : regions) {
+                long value = s == 0 ? region.getHits() : s == 1 ? region.getMisses() : region.getPuts();
+                sample(out, series[s][0], "region=\"" + escape(region.getRegion()) + "\"", Long.toString(value));
+            }
+        }
+    }
+
+    private static void renderPool(StringBuilder out, PoolMetrics pool) {
+        simple(out, "prototype_pool_active_connections", "gauge", "Connections borrowed.",
+                pool.getActiveConnections());
+        simple(out, "prototype_pool_idle_connections", "gauge", "Idle connections.", pool.getIdleConnections());
+        simple(out, "prototype_pool_max_connections", "gauge", "Maximum pool size.", pool.getMaxConnections());
+        simple(out, "prototype_pool_pending_threads", "gauge", "Threads waiting for a connection.",
+                pool.getPendingThreads());
+        simple(out, "prototype_pool_acquisitions_total", "counter", "Connections handed out.",
+                pool.getAcquisitions());
+        simple(out, "prototype_pool_wait_max_seconds", "gauge", "Longest wait for a connection.",
+                pool.getMaxWaitMillis() / 1000);
+        simple(out, "prototype_pool_timeouts_total", "counter", "Connection requests that timed out.",
+                pool.getTimeouts());
+    }
+
+    private static void renderGate(StringBuilder out, GateMetrics metrics) {
+        String scan = "prototype_gate_scan_duration_seconds";
+        header(out, scan, "histogram", "Time to record a gate scan in the local journal.");
+        histogram(out, scan, null, metrics.getScan());
+        simple(out, "prototype_gate_scan_errors_total", "counter", "Gate scans that could not be recorded.",
+                metrics.getScanErrors());
+        String replay = "prototype_gate_replay_duration_seconds";
+        header(out, replay, "histogram", "Time to apply a batch of gate scans to the database.");
+        histogram(out, replay, null, metrics.getReplay());
+    }
+
+    private static void renderQrPipelines(StringBuilder out, List<QrPipelineMetrics> cameras) {
+        String histogram = "prototype_qr_stage_duration_seconds";
+        header(out, histogram, "histogram", "Latency of each stage of the QR decoding pipeline.");
+        for (QrPipelineMetrics metrics : cameras) {
+            String camera = "camera=\"" + metrics.getCamera() + "\"";
+            histogram(out, histogram, camera + ",stage=\"grab\"", metrics.getGrab());
+            histogram(out, histogram, camera + ",stage=\"handoff\"", metrics.getHandoff());
+            histogram(out, histogram, camera + ",stage=\"wait\"", metrics.getWait());
+            histogram(out, histogram, camera + ",stage=\"decode\"", metrics.getDecode());
+        }
+        header(out, "prototype_qr_frames_dropped_total", "counter",
+                "Frames replaced by a newer one before a decoder was free.");
+        for (QrPipelineMetrics metrics : cameras) {
+            sample(out, "prototype_qr_frames_dropped_total", "camera=\"" + metrics.getCamera() + "\"",
+                    Long.toString(metrics.getFramesDropped()));
+        }
+        header(out, "prototype_qr_codes_total", "counter", "Frames in which a QR code was read.");
+        for (QrPipelineMetrics metrics : cameras) {
+            sample(out, "prototype_qr_codes_total", "camera=\"" + metrics.getCamera() + "\"",
+                    Long.toString(metrics.getCodesFound()));
+        }
+    }
+
+    private static void simple(StringBuilder out, String name, String type, String help, double value) {
+        header(out, name, type, help);
+        sample(out, name, null, number(value));
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, String value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String number(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,213 @@
+package com.prototype.model.metrics;
+
+import java.lang.System.Logger.Level;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of the QR decoding pipeline of one camera: the latency of each
+ * stage and the number of frames grabbed, dropped and decoded.
+ *
+ * <p>
+ * The stages are {@code grab}, the wait for the camera to deliver a frame;
+ * {@code handoff}, the conversion to grey of the frame into a free buffer;
+ * {@code wait}, the time the frame spends in the handoff before a decoder
+ * takes it; and {@code decode}. A frame is dropped when a newer one replaces
+ * it before any decoder is free.
+ * </p>
+ *
+ * <p>
+ * Metrics are kept per camera for the life of the application and
+ * registered in the platform MBean server as
+ * {@code com.prototype:type=QrPipeline,camera=<device>}.
+ * </p>
+ *
+ * @author Jorge Forero
+ * @version 1.0
+ */
+public class QrPipelineMetrics implements QrPipelineMetricsMXBean {
+
+    private static final System.Logger LOGGER = System.getLogger(QrPipelineMetrics.class.getName());
+
+    private static final Map<Integer, QrPipelineMetrics> CAMERAS = new ConcurrentHashMap<>();
+
+    private final int camera;
+    private final LatencyHistogram grab = new LatencyHistogram();
+    private final LatencyHistogram handoff = new LatencyHistogram();
+    private final LatencyHistogram wait = new LatencyHistogram();
+    private final LatencyHistogram decode = new LatencyHistogram();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder codes = new LongAdder();
+
+    QrPipelineMetrics(int camera) {
+        this.camera = camera;
+    }
+
+    /**
+     * Returns the metrics of a camera, creating and registering them on first use.
+     *
+     * @param camera index of the camera
+     * @return the metrics of its pipeline
+     */
+    public static QrPipelineMetrics camera(int camera) {
+        return CAMERAS.computeIfAbsent(camera, key -> register(new QrPipelineMetrics(key)));
+    }
+
+    /**
+     * @return the metrics of every camera used so far, sorted by camera
+     */
+    public static List<QrPipelineMetrics> cameras() {
+        List<QrPipelineMetrics> all = new ArrayList<>(CAMERAS.values());
+        all.sort(Comparator.comparingInt(QrPipelineMetrics::getCamera));
+        return all;
+    }
+
+    private static QrPipelineMetrics register(QrPipelineMetrics metrics) {
+        try {
+            ObjectName name = new ObjectName("com.prototype:type=QrPipeline,camera=" + metrics.getCamera());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "No se pudo registrar la métrica JMX de la cámara " + metrics.getCamera(), e);
+        }
+        return metrics;
+    }
+
+    /** @param elapsedNanos time the camera took to deliver a frame */
+    public void recordGrab(long elapsedNanos) {
+        grab.record(elapsedNanos);
+    }
+
+    /** @param elapsedNanos time spent converting a frame and handing it off */
+    public void recordHandoff(long elapsedNanos) {
+        handoff.record(elapsedNanos);
+    }
+
+    /** Counts a frame replaced in the handoff before any decoder took it. */
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    /** @param elapsedNanos time a frame waited in the handoff */
+    public void recordWait(long elapsedNanos) {
+        wait.record(elapsedNanos);
+    }
+
+    /**
+     * @param elapsedNanos time spent decoding a frame
+     * @param found        whether the frame held a readable code
+     */
+    public void recordDecode(long elapsedNanos, boolean found) {
+        decode.record(elapsedNanos);
+        if (found) {
+            codes.increment();
+        }
+    }
+
+    /** @return the latency histogram of the grab stage */
+    public LatencyHistogram getGrab() {
+        return grab;
+    }
+
+    /** @return the latency histogram of the handoff stage */
+    public LatencyHistogram getHandoff() {
+        return handoff;
+    }
+
+    /** @return the latency histogram of the wait in the handoff */
+    public LatencyHistogram getWait() {
+        return wait;
+    }
+
+    /** @return the latency histogram of the decode stage */
+    public LatencyHistogram getDecode() {
+        return decode;
+    }
+
+    @Override
+    public int getCamera() {
+        return camera;
+    }
+
+    @Override
+    public long getFramesGrabbed() {
+        return grab.getCount();
+    }
+
+    @Override
+    public long getFramesDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public long getFramesDecoded() {
+        return decode.getCount();
+    }
+
+    @Override
+    public long getCodesFound() {
+        return codes.sum();
+    }
+
+    @Override
+    public double getGrabP50Millis() {
+        return grab.percentileMillis(0.50);
+    }
+
+    @Override
+    public double getGrabP99Millis() {
+        return grab.percentileMillis(0.99);
+    }
+
+    @Override
+    public double getHandoffP50Millis() {
+        return handoff.percentileMillis(0.50);
+    }
+
+    @Override
+    public double getHandoffP99Millis() {
+        return handoff.percentileMillis(0.99);
+    }
+
+    @Override
+    public double getWaitP50Millis() {
+        return wait.percentileMillis(0.50);
+    }
+
+    @Override
+    public double getWaitP99Millis() {
+        return wait.percentileMillis(0.99);
+    }
+
+    @Override
+    public double getDecodeP50Millis() {
+        return decode.percentileMillis(0.50);
+    }
+
+    @Override
+    public double getDecodeP99Millis() {
+        return decode.percentileMillis(0.99);
+    }
+
+    @Override
+    public String toString() {
+        return "QrPipelineMetrics {camera=" + camera +
+                ", grabbed=" + getFramesGrabbed() +
+                ", dropped=" + getFramesDropped() +
+                ", decoded=" + getFramesDecoded() +
+                ", codes=" + getCodesFound() +
+                ", grabP50Ms=" + String.format("%.3f", getGrabP50Millis()) +
+                ", handoffP50Ms=" + String.format("%.3f", getHandoffP50Millis()) +
+                ", waitP50Ms=" + String.format("%.3f", getWaitP50Millis()) +
+                ", decodeP50Ms=" + String.format("%.3f", getDecodeP50Millis()) +
+                ", decodeP99Ms=" + String.format("%.3f", getDecodeP99Millis()) +
+                "}";
+    }
+}
@@ -0,0 +1,34 @@
+package com.prototype.model.metrics;
+
+/**
+ * JMX view of the QR decoding pipeline of one camera, registered as
+ * {@code com.prototype:type=QrPipeline,camera=<device>}.
+ */
+public interface QrPipelineMetricsMXBean {
+
+    int getCamera();
+
+    long getFramesGrabbed();
+
+    long getFramesDropped();
+
+    long getFramesDecoded();
+
+    long getCodesFound();
+
+    double getGrabP50Millis();
+
+    double getGrabP99Millis();
+
+    double getHandoffP50Millis();
+
+    double getHandoffP99Millis();
+
+    double getWaitP50Millis();
+
+    double getWaitP99Millis();
+
+    double getDecodeP50Millis();
+
+    double getDecodeP99Millis();
+}
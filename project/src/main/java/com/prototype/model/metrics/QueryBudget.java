@@ -0,0 +1,32 @@
+package com.prototype.model.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the maximum number of SQL statements a service method may issue,
+ * whatever the amount of data it returns.
+ *
+ * <p>
+ * A lazy association touched in a loop turns a one-statement method into
+ * one statement per row (the N+1 pattern). The {@code QueryBudgetIT}
+ * integration test runs every annotated method against a throwaway database
+ * with data, writes in transactions that are rolled back, counts its
+ * statements with {@link StatementCounter} and fails when one goes over
+ * its budget. Statements served by the second-level cache are not issued,
+ * so the budget is a maximum, not an exact count.
+ * </p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface QueryBudget {
+
+    /**
+     * @return the maximum number of statements
+     */
+    int value();
+}
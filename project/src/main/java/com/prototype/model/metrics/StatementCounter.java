@@ -0,0 +1,37 @@
+package com.prototype.model.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate hook that counts the SQL statements prepared by each thread, so
+ * a DAO operation can tell how many statements it issued.
+ *
+ * <p>
+ * It is referenced by class name from {@code persistence.xml}
+ * ({@code hibernate.session_factory.statement_inspector}), so it must keep a
+ * public no-argument constructor. The SQL is returned unchanged.
+ * </p>
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Counts a statement about to be prepared on the current thread.
+     *
+     * @param sql the statement
+     * @return the same statement
+     */
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * @return the number of statements prepared by the current thread since it started
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
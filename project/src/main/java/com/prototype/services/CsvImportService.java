@@ -0,0 +1,536 @@
+package com.prototype.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger.Level;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DataTruncation;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityNotFoundException;
+
+import com.prototype.model.config.PersistenceConfig;
+import com.prototype.model.daos.AbstractGenericDAO;
+import com.prototype.model.daos.BiomedicalEquipmentDAO;
+import com.prototype.model.daos.PersonDAO;
+import com.prototype.model.daos.ProviderDAO;
+import com.prototype.model.daos.TechEquipmentDAO;
+import com.prototype.model.daos.UnitOfWork;
+import com.prototype.model.dtos.ImportReport;
+import com.prototype.model.entities.BiomedicalEquipment;
+import com.prototype.model.entities.Equipment;
+import com.prototype.model.entities.Person;
+import com.prototype.model.entities.Provider;
+import com.prototype.model.entities.TechEquipment;
+import com.prototype.model.enums.EquipmentStatus;
+import com.prototype.model.enums.EquipmentType;
+import com.prototype.model.enums.FrequencyType;
+import com.prototype.model.enums.Role;
+import com.prototype.model.helpers.CsvReader;
+import com.prototype.model.helpers.CsvReader.CsvRecord;
+import com.prototype.model.helpers.CsvWriter;
+import com.prototype.model.helpers.ErrorMessageManager;
+import com.prototype.model.helpers.IoManager;
+
+/**
+ * Bulk import of providers, people and equipment from CSV files.
+ *
+ * <p>
+ * The file is streamed in chunks of {@code prototype.import.chunk_size} rows
+ * (1000 by default), so its size does not bound memory. Each chunk goes
+ * through three stages:
+ * </p>
+ * <ol>
+ * <li>validation, in parallel, with the same rules as the {@code create*}
+ * methods of {@link ProviderService}, {@link PersonService} and
+ * {@link EquipmentService};</li>
+ * <li>for equipment, one query that checks every provider ID of the chunk
+ * not seen before, instead of one query per row;</li>
+ * <li>insertion in one {@link UnitOfWork} with
+ * {@link AbstractGenericDAO#saveAll(java.util.Collection) saveAll}, which
+ * sends JDBC batches.</li>
+ * </ol>
+ * <p>
+ * Insertion runs on a writer thread with one chunk in flight, so the next
+ * chunk is read and validated while the previous one is written.
+ * </p>
+ *
+ * <p>
+ * Invalid rows never stop the import. They are written, with their line and
+ * the reason, to {@code <file>.errors.csv} next to the source file. When the
+ * database rejects a chunk, for instance because of a duplicated document or
+ * serial, its rows are inserted one at a time so only the offending rows are
+ * rejected. A database failure, such as a lost connection, stops the import
+ * with an exception instead; the rows of earlier chunks stay inserted.
+ * </p>
+ *
+ * <p>
+ * Columns are matched by header name, ignoring case:
+ * </p>
+ * <ul>
+ * <li>providers: {@code name, tax_id, contact_email, address};</li>
+ * <li>people: {@code full_name, document, role};</li>
+ * <li>technological equipment: {@code serial, brand, model, state,
+ * provider_id, image_path, frequency_type, os, ram_gb};</li>
+ * <li>biomedical equipment: {@code serial, brand, model, state, provider_id,
+ * image_path, frequency_type, risk_class, calibration_cert}.</li>
+ * </ul>
+ * <p>
+ * Enumerated values use the constant names, such as {@code IN_USE} or
+ * {@code DOCTOR}.
+ * </p>
+ */
+public class CsvImportService {
+
+    private static final System.Logger LOGGER = System.getLogger(CsvImportService.class.getName());
+
+    private static final int CHUNK_SIZE = PersistenceConfig.getInt("prototype.import.chunk_size", 1000);
+
+    private static final List<String> PROVIDER_COLUMNS = List.of("name", "tax_id", "contact_email", "address");
+
+    private static final List<String> PERSON_COLUMNS = List.of("full_name", "document", "role");
+
+    private static final List<String> TECH_EQUIPMENT_COLUMNS = List.of("serial", "brand", "model", "state",
+            "provider_id", "image_path", "frequency_type", "os", "ram_gb");
+
+    private static final List<String> BIOMEDICAL_EQUIPMENT_COLUMNS = List.of("serial", "brand", "model", "state",
+            "provider_id", "image_path", "frequency_type", "risk_class", "calibration_cert");
+
+    private final ProviderDAO providerDAO;
+    private final PersonDAO personDAO;
+    private final TechEquipmentDAO techEquipmentDAO;
+    private final BiomedicalEquipmentDAO biomedicalEquipmentDAO;
+
+    /**
+     * Constructs a new {@code CsvImportService} and initializes its DAO dependencies.
+     */
+    public CsvImportService() {
+        this.providerDAO = new ProviderDAO();
+        this.personDAO = new PersonDAO();
+        this.techEquipmentDAO = new TechEquipmentDAO();
+        this.biomedicalEquipmentDAO = new BiomedicalEquipmentDAO();
+    }
+
+    /**
+     * Imports providers.
+     *
+     * @param file the CSV file
+     * @return the outcome of the import
+     * @throws IllegalArgumentException if the header is missing a column
+     * @throws UncheckedIOException if the file cannot be read or the error report cannot be written
+     */
+    public ImportReport importProviders(Path file) {
+        return importFile(file, PROVIDER_COLUMNS, providerDAO, CsvImportService::toProvider, null);
+    }
+
+    /**
+     * Imports people.
+     *
+     * @param file the CSV file
+     * @return the outcome of the import
+     * @throws IllegalArgumentException if the header is missing a column
+     * @throws UncheckedIOException if the file cannot be read or the error report cannot be written
+     */
+    public ImportReport importPeople(Path file) {
+        return importFile(file, PERSON_COLUMNS, personDAO, CsvImportService::toPerson, null);
+    }
+
+    /**
+     * Imports technological equipment. Every row must reference an existing provider.
+     *
+     * @param file the CSV file
+     * @return the outcome of the import
+     * @throws IllegalArgumentException if the header is missing a column
+     * @throws UncheckedIOException if the file cannot be read or the error report cannot be written
+     */
+    public ImportReport importTechEquipment(Path file) {
+        return importFile(file, TECH_EQUIPMENT_COLUMNS, techEquipmentDAO, CsvImportService::toTechEquipment,
+                record -> parseId(record, "provider_id"));
+    }
+
+    /**
+     * Imports biomedical equipment. Every row must reference an existing provider.
+     *
+     * @param file the CSV file
+     * @return the outcome of the import
+     * @throws IllegalArgumentException if the header is missing a column
+     * @throws UncheckedIOException if the file cannot be read or the error report cannot be written
+     */
+    public ImportReport importBiomedicalEquipment(Path file) {
+        return importFile(file, BIOMEDICAL_EQUIPMENT_COLUMNS, biomedicalEquipmentDAO,
+                CsvImportService::toBiomedicalEquipment, record -> parseId(record, "provider_id"));
+    }
+
+    /**
+     * Runs the import pipeline.
+     *
+     * @param providerOf extracts the provider ID of a validated row, or
+     *                   {@code null} for entities without provider
+     */
+    private <T> ImportReport importFile(Path file, List<String> columns, AbstractGenericDAO<T, Long> dao,
+            Function<CsvRecord, T> parser, Function<CsvRecord, Long> providerOf) {
+        IoManager.requireNotNull(file, "Archivo");
+        long start = System.nanoTime();
+        AtomicLong read = new AtomicLong();
+        AtomicLong imported = new AtomicLong();
+        Path errorFile = file.resolveSibling(file.getFileName() + ".errors.csv");
+        Set<Long> knownProviders = new HashSet<>();
+        ExecutorService writer = Executors.newSingleThreadExecutor(runnable ->
+                Thread.ofPlatform().name("csv-import-writer").daemon(true).unstarted(runnable));
+
+        try (Reader source = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                ErrorReport errors = new ErrorReport(errorFile)) {
+            CsvReader csv = new CsvReader(source, columns);
+            CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+            List<CsvRecord> chunk;
+            while (!(chunk = readChunk(csv)).isEmpty()) {
+                read.addAndGet(chunk.size());
+                List<Row<T>> rows = chunk.parallelStream()
+                        .map(record -> Row.parse(record, parser, providerOf))
+                        .collect(Collectors.toList());
+                if (providerOf != null) {
+                    checkProviders(rows, knownProviders);
+                }
+                List<Row<T>> valid = new ArrayList<>(rows.size());
+                for (Row<T> row : rows) {
+                    if (row.error != null) {
+                        errors.add(row.record.getLine(), row.error);
+                    } else {
+                        valid.add(row);
+                    }
+                }
+                // One chunk in flight: wait for the previous insert before queuing this one.
+                join(inFlight);
+                inFlight = CompletableFuture.runAsync(
+                        () -> imported.addAndGet(insert(valid, dao, parser, providerOf, errors)), writer);
+            }
+            join(inFlight);
+
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            ImportReport report = new ImportReport(read.get(), imported.get(), errors.count(), elapsed,
+                    errors.count() > 0 ? errorFile : null);
+            LOGGER.log(Level.INFO, "Importación de " + file + " terminada: " + report);
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo importar el archivo " + file, e);
+        } finally {
+            writer.shutdownNow();
+        }
+    }
+
+    private static List<CsvRecord> readChunk(CsvReader csv) throws IOException {
+        List<CsvRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+        CsvRecord record;
+        while (chunk.size() < CHUNK_SIZE && (record = csv.next()) != null) {
+            chunk.add(record);
+        }
+        return chunk;
+    }
+
+    /**
+     * Rejects the rows whose provider does not exist, querying only the IDs
+     * not already known from previous chunks.
+     */
+    private <T> void checkProviders(List<Row<T>> rows, Set<Long> knownProviders) {
+        Set<Long> unknown = rows.stream()
+                .filter(row -> row.error == null)
+                .map(row -> row.providerId)
+                .filter(id -> !knownProviders.contains(id))
+                .collect(Collectors.toSet());
+        if (!unknown.isEmpty()) {
+            knownProviders.addAll(providerDAO.findExistingIds(unknown));
+        }
+        for (Row<T> row : rows) {
+            if (row.error == null && !knownProviders.contains(row.providerId)) {
+                row.error = ErrorMessageManager.ID_NOT_FOUND + row.providerId;
+            }
+        }
+    }
+
+    /**
+     * Inserts a chunk in one transaction, falling back to one transaction per
+     * row if the database rejects the data of the chunk. Any other failure,
+     * such as a lost connection, stops the import: retrying row by row would
+     * only report every row as invalid.
+     *
+     * @return the number of rows inserted
+     * @throws RuntimeException if the database fails for a reason other than
+     *         the data
+     */
+    private <T> int insert(List<Row<T>> rows, AbstractGenericDAO<T, Long> dao, Function<CsvRecord, T> parser,
+            Function<CsvRecord, Long> providerOf, ErrorReport errors) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            UnitOfWork.run(() -> dao.saveAll(rows.stream()
+                    .map(row -> attachProvider(row.entity, row.providerId))
+                    .collect(Collectors.toList())));
+            return rows.size();
+        } catch (RuntimeException e) {
+            if (!isRejection(e)) {
+                throw e;
+            }
+            LOGGER.log(Level.DEBUG, "Bloque rechazado, se reintenta fila por fila", e);
+        }
+        int inserted = 0;
+        for (Row<T> row : rows) {
+            // The entities of the failed chunk may hold generated IDs, so each row is rebuilt.
+            Row<T> fresh = Row.parse(row.record, parser, providerOf);
+            try {
+                UnitOfWork.run(() -> dao.save(attachProvider(fresh.entity, fresh.providerId)));
+                inserted++;
+            } catch (RuntimeException e) {
+                if (!isRejection(e)) {
+                    throw e;
+                }
+                errors.add(row.record.getLine(), rootMessage(e));
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Tells a rejection of the data, such as a duplicated document or serial
+     * or a value too long for its column, from a failure of the database
+     * itself. Only the former is worth retrying row by row.
+     */
+    private static boolean isRejection(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLIntegrityConstraintViolationException
+                    || cause instanceof SQLDataException
+                    || cause instanceof DataTruncation) {
+                return true;
+            }
+            if (cause instanceof SQLException) {
+                return false;
+            }
+        }
+        return error instanceof IllegalArgumentException
+                || error instanceof EntityNotFoundException;
+    }
+
+    private <T> T attachProvider(T entity, Long providerId) {
+        if (providerId != null && entity instanceof Equipment equipment) {
+            equipment.setProvider(providerDAO.getReference(providerId));
+        }
+        return entity;
+    }
+
+    private static Provider toProvider(CsvRecord record) {
+        String name = record.get("name");
+        String taxId = record.get("tax_id");
+        String contactEmail = record.get("contact_email");
+        String address = record.get("address");
+
+        IoManager.requireNotBlank(name, "Nombre");
+        IoManager.requireNotBlank(taxId, "Tax ID");
+        IoManager.requireValidEmail(contactEmail);
+        IoManager.requireNotBlank(address, "Dirección");
+
+        return new Provider(name, taxId, contactEmail, address);
+    }
+
+    private static Person toPerson(CsvRecord record) {
+        String fullName = record.get("full_name");
+        String document = record.get("document");
+        Role role = parseEnum(Role.class, record, "role");
+
+        IoManager.requireNotBlank(fullName, "Nombre completo");
+        IoManager.requireNotBlank(document, "Documento");
+        IoManager.requireNotNull(role, "Rol de la persona");
+
+        return new Person(fullName, document, role);
+    }
+
+    private static TechEquipment toTechEquipment(CsvRecord record) {
+        TechEquipment techEquipment = new TechEquipment();
+        fillEquipment(techEquipment, record, EquipmentType.TECH);
+        IoManager.requireNotNull(techEquipment.getFrequencyType(), "Tipo de Frecuencia");
+
+        String os = record.get("os");
+        IoManager.requireNotBlank(os, "Sistema operativo");
+        techEquipment.setOs(os);
+        Integer ramGB = parseInt(record, "ram_gb");
+        techEquipment.setRamGB(ramGB == null ? 0 : ramGB);
+        return techEquipment;
+    }
+
+    private static BiomedicalEquipment toBiomedicalEquipment(CsvRecord record) {
+        BiomedicalEquipment biomedicalEquipment = new BiomedicalEquipment();
+        fillEquipment(biomedicalEquipment, record, EquipmentType.BIOMEDICAL);
+
+        String riskClass = record.get("risk_class");
+        String calibrationCert = record.get("calibration_cert");
+        IoManager.requireNotBlank(riskClass, "Clase de riesgo");
+        IoManager.requireNotBlank(calibrationCert, "Certificado de calibración");
+        biomedicalEquipment.setRiskClass(riskClass);
+        biomedicalEquipment.setCalibrationCert(calibrationCert);
+        return biomedicalEquipment;
+    }
+
+    /**
+     * Validates and copies the columns shared by every kind of equipment.
+     * The provider is attached at insertion time.
+     */
+    private static void fillEquipment(Equipment equipment, CsvRecord record, EquipmentType type) {
+        String serial = record.get("serial");
+        String brand = record.get("brand");
+        String model = record.get("model");
+        EquipmentStatus state = parseEnum(EquipmentStatus.class, record, "state");
+        Long providerId = parseId(record, "provider_id");
+
+        IoManager.requireNotBlank(serial, "Serial");
+        IoManager.requireNotBlank(brand, "Marca");
+        IoManager.requireNotBlank(model, "Modelo");
+        IoManager.requireNotNull(state, "Estado del equipo");
+        IoManager.requireNotNull(providerId, "ID del proveedor");
+
+        equipment.setSerial(serial);
+        equipment.setBrand(brand);
+        equipment.setModel(model);
+        equipment.setType(type);
+        equipment.setState(state);
+        equipment.setImagePath(record.get("image_path"));
+        equipment.setFrecuencyType(parseEnum(FrequencyType.class, record, "frequency_type"));
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, CsvRecord record, String column) {
+        String value = record.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(ErrorMessageManager.INVALID_FORMAT + column, e);
+        }
+    }
+
+    private static Long parseId(CsvRecord record, String column) {
+        String value = record.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(ErrorMessageManager.INVALID_FORMAT + column, e);
+        }
+    }
+
+    private static Integer parseInt(CsvRecord record, String column) {
+        String value = record.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(ErrorMessageManager.INVALID_FORMAT + column, e);
+        }
+    }
+
+    private static void join(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return Objects.requireNonNullElse(root.getMessage(), ErrorMessageManager.UNEXPECTED_ERROR);
+    }
+
+    /**
+     * A CSV record with its validated entity or the reason it was rejected.
+     */
+    private static final class Row<T> {
+
+        private final CsvRecord record;
+        private final T entity;
+        private final Long providerId;
+        private String error;
+
+        private Row(CsvRecord record, T entity, Long providerId, String error) {
+            this.record = record;
+            this.entity = entity;
+            this.providerId = providerId;
+            this.error = error;
+        }
+
+        static <T> Row<T> parse(CsvRecord record, Function<CsvRecord, T> parser,
+                Function<CsvRecord, Long> providerOf) {
+            try {
+                T entity = parser.apply(record);
+                return new Row<>(record, entity, providerOf == null ? null : providerOf.apply(record), null);
+            } catch (IllegalArgumentException e) {
+                return new Row<>(record, null, null, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Lazily created CSV file with one line per rejected row. It is written
+     * by the reading thread and by the writer thread, hence synchronized.
+     */
+    private static final class ErrorReport implements AutoCloseable {
+
+        private final Path file;
+        private CsvWriter out;
+        private long count;
+
+        ErrorReport(Path file) throws IOException {
+            this.file = file;
+            Files.deleteIfExists(file);
+        }
+
+        synchronized void add(long line, String error) {
+            try {
+                if (out == null) {
+                    out = new CsvWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+                    out.writeRow("linea", "error");
+                }
+                out.writeRow(line, error);
+                count++;
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo escribir el reporte de errores " + file, e);
+            }
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+}
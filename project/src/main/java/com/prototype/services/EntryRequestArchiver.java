@@ -0,0 +1,60 @@
+package com.prototype.services;
+
+import java.lang.System.Logger.Level;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.prototype.model.config.PersistenceConfig;
+
+/**
+ * Background task that keeps {@code entry_request} small by moving the
+ * requests of closed months to {@code entry_request_archive}.
+ *
+ * <p>
+ * It runs shortly after startup and then every
+ * {@code prototype.archive.interval_hours} hours (24 by default), keeping
+ * {@code prototype.archive.hot_months} months (3 by default, the current one
+ * included) in the hot table. Set {@code prototype.archive.enabled=false} to
+ * disable it, for instance on every station but one.
+ * </p>
+ */
+public final class EntryRequestArchiver {
+
+    private static final System.Logger LOGGER = System.getLogger(EntryRequestArchiver.class.getName());
+
+    private static final int HOT_MONTHS = PersistenceConfig.getInt("prototype.archive.hot_months", 3);
+    private static final int BATCH_SIZE = PersistenceConfig.getInt("prototype.archive.batch_size", 1000);
+    private static final int INTERVAL_HOURS = PersistenceConfig.getInt("prototype.archive.interval_hours", 24);
+    private static final long INITIAL_DELAY_MINUTES = 5;
+
+    private static ScheduledExecutorService scheduler;
+
+    private EntryRequestArchiver() {
+    }
+
+    /**
+     * Schedules the archiver, unless it is disabled or already scheduled.
+     */
+    public static synchronized void start() {
+        if (scheduler != null || !Boolean.parseBoolean(PersistenceConfig.get("prototype.archive.enabled", "true"))) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("entry-request-archiver").daemon(true).factory());
+        scheduler.scheduleWithFixedDelay(EntryRequestArchiver::archive, INITIAL_DELAY_MINUTES,
+                TimeUnit.HOURS.toMinutes(INTERVAL_HOURS), TimeUnit.MINUTES);
+    }
+
+    private static void archive() {
+        long start = System.nanoTime();
+        try {
+            long archived = new EntryRequestService().archiveClosedMonths(HOT_MONTHS, BATCH_SIZE);
+            LOGGER.log(Level.INFO, "Solicitudes archivadas: {0} en {1} ms", archived,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // A failure must not cancel the following executions.
+            LOGGER.log(Level.WARNING, "No se pudieron archivar las solicitudes", e);
+        }
+    }
+}
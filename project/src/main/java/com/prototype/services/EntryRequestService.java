@@ -1,17 +1,48 @@
 package com.prototype.services;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import com.prototype.model.apis.CvApi;
 import com.prototype.model.apis.GoogleApiZxing;
+import com.prototype.model.apis.QrScanner;
 import com.prototype.model.daos.EntryRequestDAO;
 import com.prototype.model.daos.EquipmentDAO;
+import com.prototype.model.daos.EquipmentPresenceDAO;
+import com.prototype.model.daos.Page;
+import com.prototype.model.daos.PageRequest;
 import com.prototype.model.daos.PersonDAO;
+import com.prototype.model.daos.UnitOfWork;
+import com.prototype.model.dtos.EntryRequestRow;
+import com.prototype.model.dtos.HistoryFilter;
 import com.prototype.model.entities.EntryRequest;
 import com.prototype.model.entities.Equipment;
+import com.prototype.model.entities.EquipmentPresence;
 import com.prototype.model.entities.Person;
+import com.prototype.model.entities.PresenceKey;
+import com.prototype.model.enums.ExportFormat;
 import com.prototype.model.enums.RequestType;
+import com.prototype.model.helpers.CsvWriter;
 import com.prototype.model.helpers.IoManager;
+import com.prototype.model.metrics.QueryBudget;
+import com.prototype.model.journal.GateEvent;
 
 import java.awt.image.BufferedImage;
 
@@ -21,9 +52,15 @@ import java.awt.image.BufferedImage;
  */
 public class EntryRequestService {
 
+    /** Number of exported rows between two progress notifications. */
+    private static final int EXPORT_PROGRESS_STEP = 10_000;
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final EntryRequestDAO entryRequestDAO;
     private final EquipmentDAO equipmentDAO;
     private final PersonDAO personDAO;
+    private final EquipmentPresenceDAO presenceDAO;
 
     /**
      * Default constructor initializing required DAOs.
@@ -32,6 +69,7 @@ public class EntryRequestService {
         this.entryRequestDAO = new EntryRequestDAO();
         this.equipmentDAO = new EquipmentDAO();
         this.personDAO = new PersonDAO();
+        this.presenceDAO = new EquipmentPresenceDAO();
     }
 
     /**
@@ -39,22 +77,239 @@ public class EntryRequestService {
      *
      * @return list of all {@link EntryRequest} records
      */
+    @QueryBudget(1)
     public List<EntryRequest> findAll() {
         return entryRequestDAO.findAll();
     }
 
     /**
-     * Finds an entry request by ID.
+     * Retrieves the first page of entry requests, newest first.
+     *
+     * @param pageSize maximum number of rows in the page
+     * @return the first {@link Page} of {@link EntryRequest}
+     * @throws IllegalArgumentException if the page size is out of range
+     */
+    @QueryBudget(1)
+    public Page<EntryRequest> findFirstPage(int pageSize) {
+        return entryRequestDAO.findPage(PageRequest.of("requestedAt", true, pageSize),
+                EntryRequest.WITH_EQUIPMENT_AND_REQUESTER);
+    }
+
+    /**
+     * Retrieves a page of entry requests using keyset pagination.
+     *
+     * @param request the page to read, usually {@link Page#nextPageRequest()}
+     *                of the previous page
+     * @return the requested {@link Page} of {@link EntryRequest}
+     * @throws IllegalArgumentException if the request is null
+     */
+    @QueryBudget(1)
+    public Page<EntryRequest> findPage(PageRequest request) {
+        IoManager.requireNotNull(request, "Página");
+        return entryRequestDAO.findPage(request, EntryRequest.WITH_EQUIPMENT_AND_REQUESTER);
+    }
+
+    /**
+     * Retrieves the first page of entry requests as read-only {@link EntryRequestRow}
+     * projections, newest first, for display in tables.
+     *
+     * @param pageSize maximum number of rows in the page
+     * @return the first {@link Page} of {@link EntryRequestRow}
+     * @throws IllegalArgumentException if the page size is out of range
+     */
+    @QueryBudget(1)
+    public Page<EntryRequestRow> findFirstRowPage(int pageSize) {
+        return entryRequestDAO.findRowPage(PageRequest.of("requestedAt", true, pageSize));
+    }
+
+    /**
+     * Retrieves a page of {@link EntryRequestRow} projections using keyset pagination.
+     *
+     * @param request the page to read, usually {@link Page#nextPageRequest()}
+     *                of the previous page
+     * @return the requested {@link Page} of {@link EntryRequestRow}
+     * @throws IllegalArgumentException if the request is null
+     */
+    @QueryBudget(1)
+    public Page<EntryRequestRow> findRowPage(PageRequest request) {
+        IoManager.requireNotNull(request, "Página");
+        return entryRequestDAO.findRowPage(request);
+    }
+
+    /**
+     * Retrieves the first page of the full request history, including the
+     * archived months, newest first.
+     *
+     * @param pageSize maximum number of rows in the page
+     * @return the first {@link Page} of {@link EntryRequestRow}
+     * @throws IllegalArgumentException if the page size is out of range
+     */
+    @QueryBudget(2)
+    public Page<EntryRequestRow> findFirstHistoryRowPage(int pageSize) {
+        return entryRequestDAO.findHistoryRowPage(PageRequest.of("requestedAt", true, pageSize));
+    }
+
+    /**
+     * Retrieves a page of the full request history, including the archived
+     * months, using keyset pagination.
+     *
+     * @param request the page to read, usually {@link Page#nextPageRequest()}
+     *                of the previous page
+     * @return the requested {@link Page} of {@link EntryRequestRow}
+     * @throws IllegalArgumentException if the request is null or not sorted by
+     *         {@code requestedAt} or {@code id}
+     */
+    @QueryBudget(2)
+    public Page<EntryRequestRow> findHistoryRowPage(PageRequest request) {
+        IoManager.requireNotNull(request, "Página");
+        return entryRequestDAO.findHistoryRowPage(request);
+    }
+
+    /**
+     * Exports the request history matching a filter, archived months
+     * included, to a CSV file, oldest request first.
+     *
+     * <p>
+     * Rows are streamed from database cursors straight to the file as
+     * {@link EntryRequestRow} projections, so memory use is constant whatever
+     * the number of rows. The file is written next to {@code target} under a
+     * temporary name and renamed when complete, so a failed export never
+     * leaves a truncated file behind.
+     * </p>
+     *
+     * <p>
+     * {@code progress} receives the number of rows written every
+     * {@value #EXPORT_PROGRESS_STEP} rows and once at the end. It runs on the
+     * exporting thread; UI callers must hand it over to the FX thread.
+     * </p>
+     *
+     * @param filter   the rows to export
+     * @param target   the file to create or replace
+     * @param format   plain or gzip-compressed CSV
+     * @param progress receives the number of rows written so far, or {@code null}
+     * @return the number of rows exported
+     * @throws IllegalArgumentException if the filter, target or format is null
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public long exportHistory(HistoryFilter filter, Path target, ExportFormat format, LongConsumer progress) {
+        IoManager.requireNotNull(filter, "Filtro");
+        IoManager.requireNotNull(target, "Archivo");
+        IoManager.requireNotNull(format, "Formato");
+
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        long rows = 0;
+        try (Stream<EntryRequestRow> history = entryRequestDAO.streamHistoryRows(filter);
+                CsvWriter csv = new CsvWriter(openExport(partial, format))) {
+            csv.writeRow("id", "fecha_solicitud", "tipo", "id_persona", "id_equipo", "proposito");
+            for (Iterator<EntryRequestRow> it = history.iterator(); it.hasNext(); ) {
+                EntryRequestRow row = it.next();
+                csv.writeRow(row.getId(), row.getRequestedAt(), row.getRequestType(), row.getRequesterId(),
+                        row.getEquipmentId(), row.getPurpose());
+                if (++rows % EXPORT_PROGRESS_STEP == 0 && progress != null) {
+                    progress.accept(rows);
+                }
+            }
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new UncheckedIOException("No se pudo exportar el historial a " + target, e);
+        } catch (RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new UncheckedIOException("No se pudo exportar el historial a " + target, e);
+        }
+        if (progress != null) {
+            progress.accept(rows);
+        }
+        return rows;
+    }
+
+    private static Writer openExport(Path file, ExportFormat format) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        try {
+            if (format == ExportFormat.CSV_GZIP) {
+                out = new GZIPOutputStream(out, EXPORT_BUFFER_SIZE);
+            }
+            return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // The original failure is the one worth reporting.
+        }
+    }
+
+    /**
+     * Moves the requests of closed months to the archive table, keeping the
+     * current month and the {@code hotMonths - 1} previous ones in
+     * {@code entry_request}. Requests are moved in short transactions of
+     * {@code batchSize} rows, so the gate is never blocked for long.
+     *
+     * @param hotMonths number of months, including the current one, that stay
+     *                  in the hot table
+     * @param batchSize number of requests moved per transaction
+     * @return the number of requests archived
+     * @throws IllegalArgumentException if a value is not positive
+     */
+    public long archiveClosedMonths(int hotMonths, int batchSize) {
+        if (hotMonths < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Los meses activos y el tamaño de lote deben ser positivos.");
+        }
+        LocalDateTime boundary = YearMonth.now().minusMonths(hotMonths - 1).atDay(1).atStartOfDay();
+        long total = 0;
+        int moved;
+        do {
+            moved = entryRequestDAO.archiveBefore(boundary, batchSize);
+            total += moved;
+        } while (moved > 0);
+        return total;
+    }
+
+    /**
+     * Returns an approximate count of entry requests without scanning the table.
+     *
+     * @return estimated number of {@link EntryRequest} rows
+     */
+    @QueryBudget(1)
+    public long estimateCount() {
+        return entryRequestDAO.estimateCount();
+    }
+
+    /**
+     * Returns an approximate count of the full request history, including
+     * the archived months, without scanning the tables.
+     *
+     * @return estimated number of requests
+     */
+    @QueryBudget(2)
+    public long estimateHistoryCount() {
+        return entryRequestDAO.estimateHistoryCount();
+    }
+
+    /**
+     * Finds an entry request by ID. The equipment and the requester are
+     * fetched in the same query, so they can be read from the UI.
      *
      * @param id the ID of the entry request to retrieve
      * @return the found {@link EntryRequest}
      * @throws IllegalArgumentException if the ID is null
      * @throws RuntimeException if the entry request does not exist
      */
+    @QueryBudget(1)
     public EntryRequest findById(Long id) {
         IoManager.requireNotNull(id, "ID de la solicitud");
 
-        EntryRequest entryRequest = entryRequestDAO.findById(id);
+        EntryRequest entryRequest = entryRequestDAO.findById(id, EntryRequest.WITH_EQUIPMENT_AND_REQUESTER);
         IoManager.requireExists(entryRequest, "EntryRequest", id);
 
         return entryRequest;
@@ -83,36 +338,100 @@ public class EntryRequestService {
     }
 
     /**
-     * Reads a QR code using {@link CvApi}, extracts its data, determines the last
-     * request for the equipment and person, automatically toggles the request type
-     * between ENTRY and EXIT, and saves the new request.
+     * Reads a QR code using {@link CvApi} and records the scan in the local
+     * gate journal (see {@link GateService}). The call does not wait for the
+     * database: the request is created in the background by
+     * {@link #registerScan(Long, Long, LocalDateTime)}.
+     *
+     * @return the recorded scan, or {@code null} if no QR code was read
+     * @throws IllegalArgumentException if the QR code does not hold two IDs
      */
-    public void bufferedQR() {
+    public GateEvent bufferedQR() {
         String path;
 
         try {
             path = CvApi.readQr();
         } catch (Exception e) {
             e.printStackTrace();
-            return;
+            return null;
+        }
+        if (path == null) {
+            return null;
         }
+        return recordQr(path);
+    }
 
-        String[] temp = path.split(",");
-        Long idPerson = Long.parseLong(temp[0]);
-        Long idEquipment = Long.parseLong(temp[1]);
+    /**
+     * Records in the gate journal a QR code read elsewhere, typically by a
+     * {@link QrScanner} that keeps the camera open between scans.
+     *
+     * @param code the text of the QR code, {@code "<person ID>,<equipment ID>"}
+     * @return the recorded scan
+     * @throws IllegalArgumentException if the QR code does not hold two IDs
+     */
+    public GateEvent recordQr(String code) {
+        IoManager.requireNotNull(code, "Código QR");
+        String[] temp = code.split(",");
+        if (temp.length != 2) {
+            throw new IllegalArgumentException("Código QR no válido: " + code);
+        }
+        Long idPerson;
+        Long idEquipment;
+        try {
+            idPerson = Long.parseLong(temp[0].trim());
+            idEquipment = Long.parseLong(temp[1].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Código QR no válido: " + code, e);
+        }
 
-        EntryRequest entryRequest = entryRequestDAO.lastRequest(idEquipment, idPerson);
+        return GateService.shared().record(idPerson, idEquipment);
+    }
 
-        if (entryRequest.getRequestType() == RequestType.ENTRY) {
-            entryRequest.setRequestType(RequestType.EXIT);
-        } else {
-            entryRequest.setRequestType(RequestType.ENTRY);
-        }
+    /**
+     * Stores a gate scan as a new request, automatically toggling the
+     * request type between ENTRY and EXIT and reusing the purpose of the
+     * pair's latest request.
+     *
+     * <p>The current state of the pair is read from the
+     * {@link EquipmentPresence} table by primary key, so the cost of the
+     * lookup does not depend on the size of the request history. Pairs with
+     * no presence row yet fall back to searching the history.</p>
+     *
+     * @param idPerson    the person ID read from the QR
+     * @param idEquipment the equipment ID read from the QR
+     * @param scannedAt   the time of the scan, stored as the request time
+     * @return the created {@link EntryRequest}
+     * @throws javax.persistence.NoResultException if the pair has no previous request
+     * @throws IllegalArgumentException if the person or the equipment does not exist
+     */
+    @QueryBudget(10)
+    public EntryRequest registerScan(Long idPerson, Long idEquipment, LocalDateTime scannedAt) {
+        return UnitOfWork.execute(() -> {
+            EquipmentPresence presence = presenceDAO.findById(new PresenceKey(idPerson, idEquipment));
+            if (presence != null) {
+                return saveRequest(idPerson, idEquipment, presence.getLastPurpose(),
+                        toggle(presence.getLastRequestType()), scannedAt);
+            }
+            EntryRequestRow last = entryRequestDAO.lastRequest(idEquipment, idPerson);
+            return saveRequest(idPerson, idEquipment, last.getPurpose(), toggle(last.getRequestType()), scannedAt);
+        });
+    }
 
-        entryRequest.setId(null);
-        entryRequest.setRequestedAt(null);
+    private static RequestType toggle(RequestType last) {
+        return last == RequestType.ENTRY ? RequestType.EXIT : RequestType.ENTRY;
+    }
 
-        entryRequestDAO.save(entryRequest);
+    /**
+     * Recomputes the current presence of every person/equipment pair from the
+     * request history. Edits and deletions made through this service keep
+     * the table up to date; this is needed after changes made directly in
+     * the database, or when the presence table is created on an existing
+     * database.
+     *
+     * @return the number of pairs written
+     */
+    public int rebuildPresence() {
+        return presenceDAO.rebuild();
     }
 
     /**
@@ -125,6 +444,7 @@ public class EntryRequestService {
      * @return the created {@link EntryRequest}
      * @throws IllegalArgumentException if any mandatory field is null or blank
      */
+    @QueryBudget(7)
     public EntryRequest createEntryRequest(
             Long requesterId,
             Long equipmentId,
@@ -136,19 +456,27 @@ public class EntryRequestService {
         IoManager.requireNotBlank(purpose, "Propósito de la solicitud");
         IoManager.requireNotNull(requestType, "Tipo de solicitud");
 
-        Person requester = personDAO.findById(requesterId);
-        IoManager.requireExists(requester, "Person", requesterId);
+        return saveRequest(requesterId, equipmentId, purpose, requestType, null);
+    }
 
-        Equipment equipment = equipmentDAO.findById(equipmentId);
-        IoManager.requireExists(equipment, "Equipment", equipmentId);
+    private EntryRequest saveRequest(Long requesterId, Long equipmentId, String purpose,
+            RequestType requestType, LocalDateTime requestedAt) {
+        return UnitOfWork.execute(() -> {
+            IoManager.requireExists(personDAO.exists(requesterId), "Person", requesterId);
+            IoManager.requireExists(equipmentDAO.exists(equipmentId), "Equipment", equipmentId);
 
-        EntryRequest entryRequest = new EntryRequest();
-        entryRequest.setRequester(requester);
-        entryRequest.setEquipment(equipment);
-        entryRequest.setPurpose(purpose);
-        entryRequest.setRequestType(requestType);
+            EntryRequest entryRequest = new EntryRequest();
+            entryRequest.setRequester(personDAO.getReference(requesterId));
+            entryRequest.setEquipment(equipmentDAO.getReference(equipmentId));
+            entryRequest.setPurpose(purpose);
+            entryRequest.setRequestType(requestType);
+            // Set here rather than left to @PrePersist, so the presence row
+            // gets exactly the value stored in the request.
+            entryRequest.setRequestedAt(requestedAt != null ? requestedAt
+                    : LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
 
-        return entryRequestDAO.save(entryRequest);
+            return entryRequestDAO.save(entryRequest);
+        });
     }
 
     /**
@@ -163,6 +491,7 @@ public class EntryRequestService {
      * @throws IllegalArgumentException if the ID is null
      * @throws RuntimeException if the entry request does not exist
      */
+    @QueryBudget(13)
     public EntryRequest updateEntryRequest(
             Long id,
             Long newRequesterId,
@@ -172,30 +501,38 @@ public class EntryRequestService {
 
         IoManager.requireNotNull(id, "ID de la solicitud");
 
-        EntryRequest entryRequest = entryRequestDAO.findById(id);
-        IoManager.requireExists(entryRequest, "EntryRequest", id);
-
-        if (newRequesterId != null) {
-            Person person = personDAO.findById(newRequesterId);
-            IoManager.requireExists(person, "Person", newRequesterId);
-            entryRequest.setRequester(person);
-        }
-
-        if (newEquipmentId != null) {
-            Equipment equipment = equipmentDAO.findById(newEquipmentId);
-            IoManager.requireExists(equipment, "Equipment", newEquipmentId);
-            entryRequest.setEquipment(equipment);
-        }
-
-        if (newPurpose != null && !newPurpose.isBlank()) {
-            entryRequest.setPurpose(newPurpose);
-        }
-
-        if (requestType != null) {
-            entryRequest.setRequestType(requestType);
-        }
-
-        return entryRequestDAO.update(entryRequest);
+        return UnitOfWork.execute(() -> {
+            EntryRequest entryRequest = entryRequestDAO.findById(id);
+            IoManager.requireExists(entryRequest, "EntryRequest", id);
+            Long oldRequesterId = idOf(entryRequest.getRequester());
+            Long oldEquipmentId = idOf(entryRequest.getEquipment());
+
+            if (newRequesterId != null) {
+                IoManager.requireExists(personDAO.exists(newRequesterId), "Person", newRequesterId);
+                entryRequest.setRequester(personDAO.getReference(newRequesterId));
+            }
+
+            if (newEquipmentId != null) {
+                IoManager.requireExists(equipmentDAO.exists(newEquipmentId), "Equipment", newEquipmentId);
+                entryRequest.setEquipment(equipmentDAO.getReference(newEquipmentId));
+            }
+
+            if (newPurpose != null && !newPurpose.isBlank()) {
+                entryRequest.setPurpose(newPurpose);
+            }
+
+            if (requestType != null) {
+                entryRequest.setRequestType(requestType);
+            }
+
+            Long requesterId = idOf(entryRequest.getRequester());
+            Long equipmentId = idOf(entryRequest.getEquipment());
+            entryRequestDAO.refreshPresence(oldRequesterId, oldEquipmentId);
+            if (!Objects.equals(requesterId, oldRequesterId) || !Objects.equals(equipmentId, oldEquipmentId)) {
+                entryRequestDAO.refreshPresence(requesterId, equipmentId);
+            }
+            return entryRequest;
+        });
     }
 
     /**
@@ -206,13 +543,24 @@ public class EntryRequestService {
      * @throws IllegalArgumentException if the ID is null
      * @throws RuntimeException if the entry request does not exist
      */
+    @QueryBudget(6)
     public EntryRequest deleteEntryRequest(Long id) {
 
         IoManager.requireNotNull(id, "ID de la solicitud");
 
-        EntryRequest req = entryRequestDAO.findById(id);
-        IoManager.requireExists(req, "EntryRequest", id);
+        return UnitOfWork.execute(() -> {
+            EntryRequest removed = entryRequestDAO.delete(id);
+            IoManager.requireExists(removed, "EntryRequest", id);
+            entryRequestDAO.refreshPresence(idOf(removed.getRequester()), idOf(removed.getEquipment()));
+            return removed;
+        });
+    }
+
+    private static Long idOf(Person person) {
+        return person != null ? person.getId() : null;
+    }
 
-        return entryRequestDAO.delete(id);
+    private static Long idOf(Equipment equipment) {
+        return equipment != null ? equipment.getId() : null;
     }
 }
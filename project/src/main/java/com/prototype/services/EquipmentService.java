@@ -6,16 +6,21 @@ import com.prototype.model.apis.ApiCloudinary;
 import com.prototype.model.apis.CvApi;
 import com.prototype.model.daos.BiomedicalEquipmentDAO;
 import com.prototype.model.daos.EquipmentDAO;
+import com.prototype.model.daos.EquipmentPresenceDAO;
+import com.prototype.model.daos.Page;
+import com.prototype.model.daos.PageRequest;
 import com.prototype.model.daos.ProviderDAO;
 import com.prototype.model.daos.TechEquipmentDAO;
+import com.prototype.model.daos.UnitOfWork;
+import com.prototype.model.dtos.EquipmentRow;
 import com.prototype.model.entities.TechEquipment;
 import com.prototype.model.entities.BiomedicalEquipment;
 import com.prototype.model.entities.Equipment;
-import com.prototype.model.entities.Provider;
 import com.prototype.model.enums.EquipmentStatus;
 import com.prototype.model.enums.EquipmentType;
 import com.prototype.model.enums.FrequencyType;
 import com.prototype.model.helpers.IoManager;
+import com.prototype.model.metrics.QueryBudget;
 import java.awt.image.BufferedImage;
 
 import javafx.embed.swing.SwingFXUtils;
@@ -32,6 +37,7 @@ public class EquipmentService {
     private final TechEquipmentDAO techEquipmentDAO;
     private final BiomedicalEquipmentDAO biomedicalEquipmentDAO;
     private final ProviderDAO providerDAO;
+    private final EquipmentPresenceDAO presenceDAO;
 
     /**
      * Default constructor initializing DAOs for all equipment types.
@@ -41,6 +47,7 @@ public class EquipmentService {
         this.techEquipmentDAO = new TechEquipmentDAO();
         this.biomedicalEquipmentDAO = new BiomedicalEquipmentDAO();
         this.providerDAO = new ProviderDAO();
+        this.presenceDAO = new EquipmentPresenceDAO();
     }
 
     /**
@@ -48,27 +55,92 @@ public class EquipmentService {
      *
      * @return list of {@link Equipment}
      */
+    @QueryBudget(1)
     public List<Equipment> findAll() {
         return equipmentDAO.findAll();
     }
 
     /**
-     * Finds equipment by its ID.
+     * Retrieves the first page of equipment records, ordered by ID.
+     *
+     * @param pageSize maximum number of rows in the page
+     * @return the first {@link Page} of {@link Equipment}
+     * @throws IllegalArgumentException if the page size is out of range
+     */
+    @QueryBudget(1)
+    public Page<Equipment> findFirstPage(int pageSize) {
+        return equipmentDAO.findPage(PageRequest.of("id", false, pageSize), Equipment.WITH_PROVIDER);
+    }
+
+    /**
+     * Retrieves a page of equipment records using keyset pagination.
+     *
+     * @param request the page to read, usually {@link Page#nextPageRequest()}
+     *                of the previous page
+     * @return the requested {@link Page} of {@link Equipment}
+     * @throws IllegalArgumentException if the request is null
+     */
+    @QueryBudget(1)
+    public Page<Equipment> findPage(PageRequest request) {
+        IoManager.requireNotNull(request, "Página");
+        return equipmentDAO.findPage(request, Equipment.WITH_PROVIDER);
+    }
+
+    /**
+     * Retrieves the first page of equipment records as read-only {@link EquipmentRow}
+     * projections, ordered by ID, for display in tables.
+     *
+     * @param pageSize maximum number of rows in the page
+     * @return the first {@link Page} of {@link EquipmentRow}
+     * @throws IllegalArgumentException if the page size is out of range
+     */
+    @QueryBudget(1)
+    public Page<EquipmentRow> findFirstRowPage(int pageSize) {
+        return equipmentDAO.findRowPage(PageRequest.of("id", false, pageSize));
+    }
+
+    /**
+     * Retrieves a page of {@link EquipmentRow} projections using keyset pagination.
+     *
+     * @param request the page to read, usually {@link Page#nextPageRequest()}
+     *                of the previous page
+     * @return the requested {@link Page} of {@link EquipmentRow}
+     * @throws IllegalArgumentException if the request is null
+     */
+    @QueryBudget(1)
+    public Page<EquipmentRow> findRowPage(PageRequest request) {
+        IoManager.requireNotNull(request, "Página");
+        return equipmentDAO.findRowPage(request);
+    }
+
+    /**
+     * Returns an approximate count of equipment records without scanning the table.
+     *
+     * @return estimated number of {@link Equipment} rows
+     */
+    @QueryBudget(1)
+    public long estimateCount() {
+        return equipmentDAO.estimateCount();
+    }
+
+    /**
+     * Finds equipment by its ID, fetching its provider in the same query.
      *
      * @param id the equipment ID
      * @return the matching {@link Equipment}
      * @throws IllegalArgumentException if the ID is null
      * @throws RuntimeException if the equipment does not exist
      */
+    @QueryBudget(1)
     public Equipment findById(Long id) {
         IoManager.requireNotNull(id, "ID del equipo");
-        Equipment equipment = equipmentDAO.findById(id);
+        Equipment equipment = equipmentDAO.findById(id, Equipment.WITH_PROVIDER);
         IoManager.requireExists(equipment, "Equipment", id);
         return equipment;
     }
 
     /**
-     * Deletes equipment by ID.
+     * Deletes equipment by ID, loading and removing it in one transaction.
      *
      * @param id the equipment ID
      * @throws IllegalArgumentException if the ID is null
@@ -76,9 +148,12 @@ public class EquipmentService {
      */
     public void delete(Long id) {
         IoManager.requireNotNull(id, "ID del equipo");
-        Equipment eq = equipmentDAO.findById(id);
-        IoManager.requireExists(eq, "Equipment", id);
-        equipmentDAO.delete(id);
+        UnitOfWork.run(() -> {
+            Equipment removed = equipmentDAO.delete(id);
+            IoManager.requireExists(removed, "Equipment", id);
+            // The requests of the equipment are removed in cascade; so is the state of its pairs.
+            presenceDAO.deleteByEquipment(id);
+        });
     }
 
     /**
@@ -127,6 +202,7 @@ public class EquipmentService {
      * @param frequencyType maintenance frequency type
      * @return created {@link TechEquipment}
      */
+    @QueryBudget(5)
     public Equipment createTechEquipment(
             String serial,
             String brand,
@@ -149,21 +225,22 @@ public class EquipmentService {
 
         IoManager.requireNotBlank(os, "Sistema operativo");
 
-        Provider provider = providerDAO.findById(providerId);
-        IoManager.requireExists(provider, "Provider", providerId);
-
-        TechEquipment techEquipment = new TechEquipment();
-        techEquipment.setSerial(serial);
-        techEquipment.setBrand(brand);
-        techEquipment.setModel(model);
-        techEquipment.setType(type);
-        techEquipment.setState(state);
-        techEquipment.setProvider(provider);
-        techEquipment.setImagePath(imagePath);
-        techEquipment.setOs(os);
-        techEquipment.setRamGB(ramGB);
-        techEquipment.setFrecuencyType(frequencyType);
-        return techEquipmentDAO.save(techEquipment);
+        return UnitOfWork.execute(() -> {
+            IoManager.requireExists(providerDAO.exists(providerId), "Provider", providerId);
+
+            TechEquipment techEquipment = new TechEquipment();
+            techEquipment.setSerial(serial);
+            techEquipment.setBrand(brand);
+            techEquipment.setModel(model);
+            techEquipment.setType(type);
+            techEquipment.setState(state);
+            techEquipment.setProvider(providerDAO.getReference(providerId));
+            techEquipment.setImagePath(imagePath);
+            techEquipment.setOs(os);
+            techEquipment.setRamGB(ramGB);
+            techEquipment.setFrecuencyType(frequencyType);
+            return techEquipmentDAO.save(techEquipment);
+        });
     }
 
     /**
@@ -182,6 +259,7 @@ public class EquipmentService {
      * @param frequencyType maintenance frequency
      * @return updated {@link TechEquipment}
      */
+    @QueryBudget(4)
     public TechEquipment updateTechEquipment(
             Long id,
             String serial,
@@ -196,10 +274,6 @@ public class EquipmentService {
             FrequencyType frequencyType) {
 
         IoManager.requireNotNull(id, "ID del equipo tecnológico");
-
-        TechEquipment techEquipment = techEquipmentDAO.findById(id);
-        IoManager.requireExists(techEquipment, "TechEquipment", id);
-
         IoManager.requireNotBlank(serial, "Serial");
         IoManager.requireNotBlank(brand, "Marca");
         IoManager.requireNotBlank(model, "Modelo");
@@ -208,22 +282,23 @@ public class EquipmentService {
         IoManager.requireNotNull(providerId, "ID del proveedor");
         IoManager.requireNotBlank(os, "Sistema operativo");
 
-        Provider provider = providerDAO.findById(providerId);
-        IoManager.requireExists(provider, "Provider", providerId);
-
-        techEquipment.setSerial(serial);
-        techEquipment.setBrand(brand);
-        techEquipment.setModel(model);
-        techEquipment.setType(type);
-        techEquipment.setState(state);
-        techEquipment.setProvider(provider);
-        techEquipment.setImagePath(imagePath);
-        techEquipment.setOs(os);
-        techEquipment.setRamGB(ramGB);
-        techEquipment.setFrecuencyType(frequencyType);
-        techEquipment.setImagePath(imagePath);
-
-        return techEquipmentDAO.update(techEquipment);
+        return UnitOfWork.execute(() -> {
+            TechEquipment techEquipment = techEquipmentDAO.findById(id);
+            IoManager.requireExists(techEquipment, "TechEquipment", id);
+            IoManager.requireExists(providerDAO.exists(providerId), "Provider", providerId);
+
+            techEquipment.setSerial(serial);
+            techEquipment.setBrand(brand);
+            techEquipment.setModel(model);
+            techEquipment.setType(type);
+            techEquipment.setState(state);
+            techEquipment.setProvider(providerDAO.getReference(providerId));
+            techEquipment.setImagePath(imagePath);
+            techEquipment.setOs(os);
+            techEquipment.setRamGB(ramGB);
+            techEquipment.setFrecuencyType(frequencyType);
+            return techEquipment;
+        });
     }
 
     /**
@@ -241,6 +316,7 @@ public class EquipmentService {
      * @param frequencyType maintenance frequency
      * @return created {@link BiomedicalEquipment}
      */
+    @QueryBudget(5)
     public BiomedicalEquipment createBiomedicalEquipment(
             String serial,
             String brand,
@@ -263,22 +339,22 @@ public class EquipmentService {
         IoManager.requireNotBlank(riskClass, "Clase de riesgo");
         IoManager.requireNotBlank(calibrationCert, "Certificado de calibración");
 
-        Provider provider = providerDAO.findById(providerId);
-        IoManager.requireExists(provider, "Provider", providerId);
-
-        BiomedicalEquipment biomedicalEquipment = new BiomedicalEquipment();
-        biomedicalEquipment.setSerial(serial);
-        biomedicalEquipment.setBrand(brand);
-        biomedicalEquipment.setModel(model);
-        biomedicalEquipment.setType(type);
-        biomedicalEquipment.setState(state);
-        biomedicalEquipment.setProvider(provider);
-        biomedicalEquipment.setImagePath(imagePath);
-        biomedicalEquipment.setRiskClass(riskClass);
-        biomedicalEquipment.setCalibrationCert(calibrationCert);
-        biomedicalEquipment.setFrecuencyType(frequencyType);
-
-        return biomedicalEquipmentDAO.save(biomedicalEquipment);
+        return UnitOfWork.execute(() -> {
+            IoManager.requireExists(providerDAO.exists(providerId), "Provider", providerId);
+
+            BiomedicalEquipment biomedicalEquipment = new BiomedicalEquipment();
+            biomedicalEquipment.setSerial(serial);
+            biomedicalEquipment.setBrand(brand);
+            biomedicalEquipment.setModel(model);
+            biomedicalEquipment.setType(type);
+            biomedicalEquipment.setState(state);
+            biomedicalEquipment.setProvider(providerDAO.getReference(providerId));
+            biomedicalEquipment.setImagePath(imagePath);
+            biomedicalEquipment.setRiskClass(riskClass);
+            biomedicalEquipment.setCalibrationCert(calibrationCert);
+            biomedicalEquipment.setFrecuencyType(frequencyType);
+            return biomedicalEquipmentDAO.save(biomedicalEquipment);
+        });
     }
 
     /**
@@ -297,6 +373,7 @@ public class EquipmentService {
      * @param frequencyType maintenance frequency
      * @return updated {@link BiomedicalEquipment}
      */
+    @QueryBudget(4)
     public BiomedicalEquipment updateBiomedicalEquipment(
             Long id,
             String serial,
@@ -311,10 +388,6 @@ public class EquipmentService {
             FrequencyType frequencyType) {
 
         IoManager.requireNotNull(id, "ID del equipo biomédico");
-
-        BiomedicalEquipment biomedicalEquipment = biomedicalEquipmentDAO.findById(id);
-        IoManager.requireExists(biomedicalEquipment, "BiomedicalEquipment", id);
-
         IoManager.requireNotBlank(serial, "Serial");
         IoManager.requireNotBlank(brand, "Marca");
         IoManager.requireNotBlank(model, "Modelo");
@@ -325,20 +398,22 @@ public class EquipmentService {
         IoManager.requireNotBlank(calibrationCert, "Certificado de calibración");
         IoManager.requireNotNull(frequencyType, "Tipo De Frecuencia");
 
-        Provider provider = providerDAO.findById(providerId);
-        IoManager.requireExists(provider, "Provider", providerId);
-
-        biomedicalEquipment.setSerial(serial);
-        biomedicalEquipment.setBrand(brand);
-        biomedicalEquipment.setModel(model);
-        biomedicalEquipment.setType(type);
-        biomedicalEquipment.setState(state);
-        biomedicalEquipment.setProvider(provider);
-        biomedicalEquipment.setImagePath(imagePath);
-        biomedicalEquipment.setRiskClass(riskClass);
-        biomedicalEquipment.setCalibrationCert(calibrationCert);
-        biomedicalEquipment.setFrecuencyType(frequencyType);
-
-        return biomedicalEquipmentDAO.update(biomedicalEquipment);
+        return UnitOfWork.execute(() -> {
+            BiomedicalEquipment biomedicalEquipment = biomedicalEquipmentDAO.findById(id);
+            IoManager.requireExists(biomedicalEquipment, "BiomedicalEquipment", id);
+            IoManager.requireExists(providerDAO.exists(providerId), "Provider", providerId);
+
+            biomedicalEquipment.setSerial(serial);
+            biomedicalEquipment.setBrand(brand);
+            biomedicalEquipment.setModel(model);
+            biomedicalEquipment.setType(type);
+            biomedicalEquipment.setState(state);
+            biomedicalEquipment.setProvider(providerDAO.getReference(providerId));
+            biomedicalEquipment.setImagePath(imagePath);
+            biomedicalEquipment.setRiskClass(riskClass);
+            biomedicalEquipment.setCalibrationCert(calibrationCert);
+            biomedicalEquipment.setFrecuencyType(frequencyType);
+            return biomedicalEquipment;
+        });
     }
 }
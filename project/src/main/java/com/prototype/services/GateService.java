@@ -0,0 +1,268 @@
+package com.prototype.services;
+
+import java.io.UncheckedIOException;
+import java.lang.System.Logger.Level;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.NoResultException;
+
+import com.prototype.model.config.PersistenceConfig;
+import com.prototype.model.daos.GateCheckpointDAO;
+import com.prototype.model.daos.UnitOfWork;
+import com.prototype.model.entities.EntryRequest;
+import com.prototype.model.helpers.IoManager;
+import com.prototype.model.journal.GateEvent;
+import com.prototype.model.journal.GateJournal;
+import com.prototype.model.metrics.GateMetrics;
+
+/**
+ * Records gate scans in the local {@link GateJournal} and replays them to
+ * the database in the background.
+ *
+ * <p>
+ * {@link #record(Long, Long)} returns as soon as the scan is durable on the
+ * local disk, so the gate keeps working while the database is slow or
+ * unreachable. A replay thread applies the journal in order, in batches of
+ * {@code prototype.gate.replay_batch} events (100 by default), each batch in
+ * one {@link UnitOfWork} together with its {@link GateCheckpointDAO
+ * checkpoint}; an event is therefore stored exactly once, even after a crash.
+ * </p>
+ *
+ * <p>
+ * While the database fails, the replay waits and retries with an increasing
+ * delay. An event the database rejects for good, such as a scan of an
+ * unknown person or equipment or of a pair with no previous request, is
+ * logged and skipped so it cannot block the events behind it.
+ * </p>
+ *
+ * <p>
+ * The journal file is {@code prototype.gate.journal} ({@code gate-journal.dat}
+ * in the working directory by default). The time to record each scan and to
+ * replay each batch is kept in {@link GateMetrics}.
+ * </p>
+ */
+public final class GateService {
+
+    private static final System.Logger LOGGER = System.getLogger(GateService.class.getName());
+
+    private static final int REPLAY_BATCH = PersistenceConfig.getInt("prototype.gate.replay_batch", 100);
+
+    private static final long IDLE_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final long MIN_RETRY_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final long MAX_RETRY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final GateMetrics METRICS = GateMetrics.current();
+
+    private static GateService shared;
+
+    private final GateJournal journal;
+    private final EntryRequestService entryRequestService;
+    private final GateCheckpointDAO checkpointDAO;
+    private final Object signal = new Object();
+    private final Thread replayer;
+
+    /** Sequence number of the last event applied to the database. */
+    private volatile long appliedSequence = -1;
+
+    private volatile boolean closed;
+
+    private GateService(GateJournal journal) {
+        this.journal = journal;
+        this.entryRequestService = new EntryRequestService();
+        this.checkpointDAO = new GateCheckpointDAO();
+        this.replayer = Thread.ofPlatform().name("gate-replay").daemon(true).unstarted(this::replayLoop);
+    }
+
+    /**
+     * Returns the gate service of this station, opening its journal and
+     * starting the replay on first use. The application calls it at start-up,
+     * so scans left in the journal by an earlier run reach the database
+     * without waiting for a new scan.
+     *
+     * @return the shared instance
+     * @throws UncheckedIOException if the journal cannot be opened
+     */
+    public static synchronized GateService shared() {
+        if (shared == null) {
+            GateJournal journal = GateJournal.open(Paths.get(
+                    PersistenceConfig.get("prototype.gate.journal", "gate-journal.dat")));
+            shared = new GateService(journal);
+            shared.replayer.start();
+        }
+        return shared;
+    }
+
+    /**
+     * Records a scan. The call waits for the local disk only; the matching
+     * {@link EntryRequest} is created later by the replay.
+     *
+     * @param personId    the person ID read from the QR
+     * @param equipmentId the equipment ID read from the QR
+     * @return the recorded event
+     * @throws IllegalArgumentException if any ID is null
+     * @throws UncheckedIOException if the scan could not be written to the journal
+     */
+    public GateEvent record(Long personId, Long equipmentId) {
+        IoManager.requireNotNull(personId, "ID del solicitante");
+        IoManager.requireNotNull(equipmentId, "ID del equipo");
+
+        GateEvent event;
+        long start = System.nanoTime();
+        try {
+            event = journal.append(personId, equipmentId, System.currentTimeMillis()).join();
+        } catch (CompletionException e) {
+            METRICS.recordScan(System.nanoTime() - start, true);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } catch (RuntimeException e) {
+            METRICS.recordScan(System.nanoTime() - start, true);
+            throw e;
+        }
+        METRICS.recordScan(System.nanoTime() - start, false);
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        return event;
+    }
+
+    /**
+     * @return the number of recorded scans not yet stored in the database,
+     *         or {@code -1} while the replay position is unknown
+     */
+    public long pendingEvents() {
+        long applied = appliedSequence;
+        return applied < 0 ? -1 : Math.max(0, journal.lastSequence() - applied);
+    }
+
+    /**
+     * Closes the shared instance, if it was ever opened; called when the
+     * application stops. The next call to {@link #shared()} opens it again.
+     */
+    public static synchronized void closeShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+    /**
+     * Stops the replay and closes the journal. Scans not yet replayed stay
+     * in the journal for the next start.
+     */
+    public void close() {
+        closed = true;
+        replayer.interrupt();
+        try {
+            replayer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    private void replayLoop() {
+        long retryMillis = MIN_RETRY_MILLIS;
+        while (!closed) {
+            long waitMillis;
+            try {
+                waitMillis = replayPending() > 0 ? 0 : IDLE_WAIT_MILLIS;
+                retryMillis = MIN_RETRY_MILLIS;
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "No se pudieron enviar los eventos de portería, reintento en "
+                        + retryMillis + " ms", e);
+                waitMillis = retryMillis;
+                retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+            }
+            if (waitMillis > 0) {
+                try {
+                    synchronized (signal) {
+                        signal.wait(waitMillis);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies every durable event after the database checkpoint.
+     *
+     * @return the number of events applied or skipped
+     */
+    private int replayPending() {
+        long applied = checkpointDAO.lastApplied(journal.getId());
+        appliedSequence = applied;
+        int total = 0;
+        List<GateEvent> batch;
+        while (!closed && !(batch = journal.read(applied, REPLAY_BATCH)).isEmpty()) {
+            try {
+                applyBatch(batch);
+            } catch (RuntimeException e) {
+                if (!isRejection(e)) {
+                    throw e;
+                }
+                batch.forEach(this::applyAlone);
+            }
+            applied = batch.get(batch.size() - 1).getSequence();
+            appliedSequence = applied;
+            total += batch.size();
+        }
+        journal.compact(applied);
+        return total;
+    }
+
+    private void applyBatch(List<GateEvent> batch) {
+        long start = System.nanoTime();
+        UnitOfWork.run(() -> {
+            for (GateEvent event : batch) {
+                apply(event);
+            }
+            checkpointDAO.advance(journal.getId(), batch.get(batch.size() - 1).getSequence());
+        });
+        METRICS.recordReplay(System.nanoTime() - start);
+    }
+
+    /**
+     * Applies one event of a batch that was rejected, to find the events
+     * that cause the rejection and skip only those.
+     */
+    private void applyAlone(GateEvent event) {
+        try {
+            UnitOfWork.run(() -> {
+                apply(event);
+                checkpointDAO.advance(journal.getId(), event.getSequence());
+            });
+        } catch (RuntimeException e) {
+            if (!isRejection(e)) {
+                throw e;
+            }
+            LOGGER.log(Level.WARNING, "Evento de portería descartado: " + event, e);
+            UnitOfWork.run(() -> checkpointDAO.advance(journal.getId(), event.getSequence()));
+        }
+    }
+
+    private void apply(GateEvent event) {
+        entryRequestService.registerScan(event.getPersonId(), event.getEquipmentId(), event.getScannedAt());
+    }
+
+    /**
+     * Tells a permanent rejection of the data, which will fail again on every
+     * retry, from a database failure. Anything not known to be a rejection is
+     * retried, so no scan is dropped because of an outage.
+     */
+    private static boolean isRejection(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                return false;
+            }
+        }
+        return error instanceof IllegalArgumentException
+                || error instanceof NoResultException
+                || error instanceof EntityNotFoundException;
+    }
+}
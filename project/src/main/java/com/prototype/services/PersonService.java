@@ -2,10 +2,16 @@ package com.prototype.services;
 
 import java.util.List;
 
+import com.prototype.model.daos.Page;
+import com.prototype.model.daos.PageRequest;
+import com.prototype.model.daos.EquipmentPresenceDAO;
 import com.prototype.model.daos.PersonDAO;
+import com.prototype.model.daos.UnitOfWork;
+import com.prototype.model.dtos.PersonRow;
 import com.prototype.model.entities.Person;
 import com.prototype.model.enums.Role;
 import com.prototype.model.helpers.IoManager;
+import com.prototype.model.metrics.QueryBudget;
 
 /**
  * Service class that handles business logic related to {@link Person} entities.
@@ -18,6 +24,7 @@ public class PersonService {
 
     /** Data access object for Person entities. */
     private final PersonDAO personDAO;
+    private final EquipmentPresenceDAO presenceDAO;
 
     /**
      * Creates a new instance of {@code PersonService}.
@@ -25,6 +32,7 @@ public class PersonService {
      */
     public PersonService() {
         this.personDAO = new PersonDAO();
+        this.presenceDAO = new EquipmentPresenceDAO();
     }
 
     /**
@@ -32,10 +40,74 @@ public class PersonService {
      *
      * @return a list of all {@link Person} entities.
      */
+    @QueryBudget(1)
     public List<Person> findAll() {
         return personDAO.findAll();
     }
 
+    /**
+     * Retrieves the first page of registered persons, ordered by ID.
+     *
+     * @param pageSize maximum number of rows in the page
+     * @return the first {@link Page} of {@link Person}
+     * @throws IllegalArgumentException if the page size is out of range
+     */
+    @QueryBudget(1)
+    public Page<Person> findFirstPage(int pageSize) {
+        return personDAO.findPage(PageRequest.of("id", false, pageSize));
+    }
+
+    /**
+     * Retrieves a page of registered persons using keyset pagination.
+     *
+     * @param request the page to read, usually {@link Page#nextPageRequest()}
+     *                of the previous page
+     * @return the requested {@link Page} of {@link Person}
+     * @throws IllegalArgumentException if the request is null
+     */
+    @QueryBudget(1)
+    public Page<Person> findPage(PageRequest request) {
+        IoManager.requireNotNull(request, "Página");
+        return personDAO.findPage(request);
+    }
+
+    /**
+     * Retrieves the first page of people as read-only {@link PersonRow}
+     * projections, ordered by ID, for display in tables.
+     *
+     * @param pageSize maximum number of rows in the page
+     * @return the first {@link Page} of {@link PersonRow}
+     * @throws IllegalArgumentException if the page size is out of range
+     */
+    @QueryBudget(1)
+    public Page<PersonRow> findFirstRowPage(int pageSize) {
+        return personDAO.findRowPage(PageRequest.of("id", false, pageSize));
+    }
+
+    /**
+     * Retrieves a page of {@link PersonRow} projections using keyset pagination.
+     *
+     * @param request the page to read, usually {@link Page#nextPageRequest()}
+     *                of the previous page
+     * @return the requested {@link Page} of {@link PersonRow}
+     * @throws IllegalArgumentException if the request is null
+     */
+    @QueryBudget(1)
+    public Page<PersonRow> findRowPage(PageRequest request) {
+        IoManager.requireNotNull(request, "Página");
+        return personDAO.findRowPage(request);
+    }
+
+    /**
+     * Returns an approximate count of registered persons without scanning the table.
+     *
+     * @return estimated number of {@link Person} rows
+     */
+    @QueryBudget(1)
+    public long estimateCount() {
+        return personDAO.estimateCount();
+    }
+
     /**
      * Creates and saves a new {@link Person} in the system.
      * <p>
@@ -47,6 +119,7 @@ public class PersonService {
      * @return the created {@link Person} instance.
      * @throws IllegalArgumentException if any validation fails.
      */
+    @QueryBudget(3)
     public Person createPerson(String fullName, String document, Role role) {
 
         // Validaciones genéricas
@@ -70,6 +143,7 @@ public class PersonService {
      * @throws IllegalArgumentException if the ID is null.
      * @throws javax.persistence.EntityNotFoundException if no person is found with the given ID.
      */
+    @QueryBudget(1)
     public Person findById(Long id) {
 
         IoManager.requireNotNull(id, "ID de la persona");
@@ -92,23 +166,25 @@ public class PersonService {
      * @throws IllegalArgumentException if any validation fails.
      * @throws javax.persistence.EntityNotFoundException if the person does not exist.
      */
+    @QueryBudget(2)
     public Person updatePerson(Long id, String newFullName, String newDocument, Role newRole) {
 
         IoManager.requireNotNull(id, "ID de la persona");
 
-        Person person = personDAO.findById(id);
-        IoManager.requireExists(person, "Person", id);
-
         // Validaciones de los nuevos datos
         IoManager.requireNotBlank(newFullName, "Nombre completo");
         IoManager.requireNotBlank(newDocument, "Documento");
         IoManager.requireNotNull(newRole, "Rol de la persona");
 
-        person.setFullName(newFullName);
-        person.setDocument(newDocument);
-        person.setRole(newRole);
+        return UnitOfWork.execute(() -> {
+            Person person = personDAO.findById(id);
+            IoManager.requireExists(person, "Person", id);
 
-        return personDAO.update(person);
+            person.setFullName(newFullName);
+            person.setDocument(newDocument);
+            person.setRole(newRole);
+            return person;
+        });
     }
 
     /**
@@ -122,10 +198,12 @@ public class PersonService {
 
         IoManager.requireNotNull(id, "ID de la persona");
 
-        Person person = personDAO.findById(id);
-        IoManager.requireExists(person, "Person", id);
-
-        personDAO.delete(id);
+        UnitOfWork.run(() -> {
+            Person removed = personDAO.delete(id);
+            IoManager.requireExists(removed, "Person", id);
+            // The requests of the person are removed in cascade; so is the state of its pairs.
+            presenceDAO.deleteByPerson(id);
+        });
     }
 
 }
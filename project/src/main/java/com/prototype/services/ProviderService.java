@@ -2,9 +2,15 @@ package com.prototype.services;
 
 import java.util.List;
 
+import com.prototype.model.daos.EquipmentPresenceDAO;
+import com.prototype.model.daos.Page;
+import com.prototype.model.daos.PageRequest;
 import com.prototype.model.daos.ProviderDAO;
+import com.prototype.model.daos.UnitOfWork;
+import com.prototype.model.dtos.ProviderRow;
 import com.prototype.model.entities.Provider;
 import com.prototype.model.helpers.IoManager;
+import com.prototype.model.metrics.QueryBudget;
 
 /**
  * Service class that manages business logic related to {@link Provider} entities.
@@ -17,11 +23,15 @@ public class ProviderService {
     /** DAO instance used to access provider data. */
     private ProviderDAO providerDAO;
 
+    /** DAO of the presence of the pairs removed along with a provider's equipment. */
+    private EquipmentPresenceDAO presenceDAO;
+
     /**
      * Constructs a new {@code ProviderService} and initializes its DAO dependency.
      */
     public ProviderService() {
         this.providerDAO = new ProviderDAO();
+        this.presenceDAO = new EquipmentPresenceDAO();
     }
 
     /**
@@ -29,10 +39,74 @@ public class ProviderService {
      *
      * @return a list of all {@link Provider} entities.
      */
+    @QueryBudget(1)
     public List<Provider> findAll() {
         return providerDAO.findAll();
     }
 
+    /**
+     * Retrieves the first page of registered providers, ordered by ID.
+     *
+     * @param pageSize maximum number of rows in the page
+     * @return the first {@link Page} of {@link Provider}
+     * @throws IllegalArgumentException if the page size is out of range
+     */
+    @QueryBudget(1)
+    public Page<Provider> findFirstPage(int pageSize) {
+        return providerDAO.findPage(PageRequest.of("id", false, pageSize));
+    }
+
+    /**
+     * Retrieves a page of registered providers using keyset pagination.
+     *
+     * @param request the page to read, usually {@link Page#nextPageRequest()}
+     *                of the previous page
+     * @return the requested {@link Page} of {@link Provider}
+     * @throws IllegalArgumentException if the request is null
+     */
+    @QueryBudget(1)
+    public Page<Provider> findPage(PageRequest request) {
+        IoManager.requireNotNull(request, "Página");
+        return providerDAO.findPage(request);
+    }
+
+    /**
+     * Retrieves the first page of providers as read-only {@link ProviderRow}
+     * projections, ordered by ID, for display in tables.
+     *
+     * @param pageSize maximum number of rows in the page
+     * @return the first {@link Page} of {@link ProviderRow}
+     * @throws IllegalArgumentException if the page size is out of range
+     */
+    @QueryBudget(1)
+    public Page<ProviderRow> findFirstRowPage(int pageSize) {
+        return providerDAO.findRowPage(PageRequest.of("id", false, pageSize));
+    }
+
+    /**
+     * Retrieves a page of {@link ProviderRow} projections using keyset pagination.
+     *
+     * @param request the page to read, usually {@link Page#nextPageRequest()}
+     *                of the previous page
+     * @return the requested {@link Page} of {@link ProviderRow}
+     * @throws IllegalArgumentException if the request is null
+     */
+    @QueryBudget(1)
+    public Page<ProviderRow> findRowPage(PageRequest request) {
+        IoManager.requireNotNull(request, "Página");
+        return providerDAO.findRowPage(request);
+    }
+
+    /**
+     * Returns an approximate count of registered providers without scanning the table.
+     *
+     * @return estimated number of {@link Provider} rows
+     */
+    @QueryBudget(1)
+    public long estimateCount() {
+        return providerDAO.estimateCount();
+    }
+
     /**
      * Creates and saves a new {@link Provider}.
      * <p>
@@ -45,6 +119,7 @@ public class ProviderService {
      * @return the newly created {@link Provider}.
      * @throws IllegalArgumentException if any parameter does not pass validation.
      */
+    @QueryBudget(3)
     public Provider createProvider(String name, String taxId, String contactEmail, String address) {
         // Validación genérica
         IoManager.requireNotBlank(name, "Nombre");
@@ -69,6 +144,7 @@ public class ProviderService {
      * @throws IllegalArgumentException if the ID is null.
      * @throws javax.persistence.EntityNotFoundException if the provider does not exist.
      */
+    @QueryBudget(1)
     public Provider findById(Long id) {
 
         IoManager.requireNotNull(id, "ID");
@@ -92,25 +168,26 @@ public class ProviderService {
      * @throws IllegalArgumentException if validations fail.
      * @throws javax.persistence.EntityNotFoundException if the provider does not exist.
      */
+    @QueryBudget(2)
     public Provider updateProvider(Long id, String newName, String newTaxId, String newEmail, String newAddress) {
         IoManager.requireNotNull(id, "ID");
 
-        Provider provider = providerDAO.findById(id);
-
-        IoManager.requireExists(provider, "Provider", id);
-
         // Validaciones genéricas
         IoManager.requireNotBlank(newName, "Nombre");
         IoManager.requireNotBlank(newTaxId, "Tax ID");
         IoManager.requireValidEmail(newEmail);
         IoManager.requireNotBlank(newAddress, "Dirección");
 
-        provider.setName(newName);
-        provider.setTaxId(newTaxId);
-        provider.setContactEmail(newEmail);
-        provider.setAddress(newAddress);
+        return UnitOfWork.execute(() -> {
+            Provider provider = providerDAO.findById(id);
+            IoManager.requireExists(provider, "Provider", id);
 
-        return providerDAO.update(provider);
+            provider.setName(newName);
+            provider.setTaxId(newTaxId);
+            provider.setContactEmail(newEmail);
+            provider.setAddress(newAddress);
+            return provider;
+        });
     }
 
     /**
@@ -125,11 +202,14 @@ public class ProviderService {
 
         IoManager.requireNotNull(id, "ID");
 
-        Provider provider = providerDAO.findById(id);
-
-        IoManager.requireExists(provider, "Provider", id);
-
-        return providerDAO.delete(id);
+        return UnitOfWork.execute(() -> {
+            // Equipment and requests go in cascade; their pairs are cleared first,
+            // while the equipment of the provider can still be found.
+            presenceDAO.deleteByProvider(id);
+            Provider removed = providerDAO.delete(id);
+            IoManager.requireExists(removed, "Provider", id);
+            return removed;
+        });
     }
 
 }
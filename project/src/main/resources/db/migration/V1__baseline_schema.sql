@@ -0,0 +1,102 @@
+-- Baseline schema, equivalent to what hbm2ddl "update" created from the entity mappings.
+-- Databases created before migrations existed already contain these tables: every
+-- statement is guarded with IF NOT EXISTS so this version only records them.
+
+CREATE TABLE IF NOT EXISTS id_generator (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS providers (
+    id            BIGINT       NOT NULL,
+    name          VARCHAR(45)  NOT NULL,
+    tax_id        VARCHAR(13)  NOT NULL,
+    contact_email VARCHAR(150) NOT NULL,
+    address       VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS people (
+    id        BIGINT       NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    document  VARCHAR(255) NOT NULL,
+    role      VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS equipments (
+    id            BIGINT       NOT NULL,
+    serial        VARCHAR(255) NOT NULL,
+    brand         VARCHAR(255) NOT NULL,
+    model         VARCHAR(255) NOT NULL,
+    type          VARCHAR(255) NOT NULL,
+    state         VARCHAR(255) NOT NULL,
+    image_path    VARCHAR(255) NOT NULL,
+    frequencyType VARCHAR(255) NOT NULL,
+    id_provider   BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_equipments_provider FOREIGN KEY (id_provider) REFERENCES providers (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS Tech_equipments (
+    id    BIGINT       NOT NULL,
+    os    VARCHAR(255) NOT NULL,
+    ramGB INTEGER      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_tech_equipments_equipment FOREIGN KEY (id) REFERENCES equipments (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS biomedical_equipments (
+    id               BIGINT       NOT NULL,
+    risk_class       VARCHAR(255),
+    calibration_cert VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_biomedical_equipments_equipment FOREIGN KEY (id) REFERENCES equipments (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS entry_request (
+    id           BIGINT       NOT NULL,
+    id_equipment BIGINT       NOT NULL,
+    requester_id BIGINT,
+    purpose      VARCHAR(100) NOT NULL,
+    requested_at DATETIME(6),
+    requestType  VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_entry_request_requested_at (requested_at, id),
+    INDEX idx_entry_request_requester_equipment (requester_id, id_equipment, requested_at),
+    CONSTRAINT fk_entry_request_equipment FOREIGN KEY (id_equipment) REFERENCES equipments (id),
+    CONSTRAINT fk_entry_request_requester FOREIGN KEY (requester_id) REFERENCES people (id)
+) ENGINE = InnoDB;
+
+-- The statement above is skipped when hbm2ddl already created entry_request, so its indexes are
+-- added here if information_schema does not list them. MySQL has no CREATE INDEX IF NOT EXISTS:
+-- each index is created through a prepared statement.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'entry_request'
+                 AND index_name = 'idx_entry_request_requested_at') = 0,
+              'CREATE INDEX idx_entry_request_requested_at ON entry_request (requested_at, id)',
+              'DO 0');
+PREPARE statement FROM @ddl;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'entry_request'
+                 AND index_name = 'idx_entry_request_requester_equipment') = 0,
+              'CREATE INDEX idx_entry_request_requester_equipment ON entry_request (requester_id, id_equipment, requested_at)',
+              'DO 0');
+PREPARE statement FROM @ddl;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+-- No foreign keys on purpose: see EquipmentPresence.
+CREATE TABLE IF NOT EXISTS equipment_presence (
+    person_id         BIGINT       NOT NULL,
+    equipment_id      BIGINT       NOT NULL,
+    last_request_id   BIGINT       NOT NULL,
+    last_request_type VARCHAR(255) NOT NULL,
+    last_requested_at DATETIME(6)  NOT NULL,
+    last_purpose      VARCHAR(100) NOT NULL,
+    PRIMARY KEY (person_id, equipment_id)
+) ENGINE = InnoDB;
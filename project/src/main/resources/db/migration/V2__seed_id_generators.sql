@@ -0,0 +1,19 @@
+-- The entities originally used identity columns, so existing tables already contain
+-- identifiers. Each generator row starts above the current maximum plus one allocation
+-- block (allocationSize = 50 on the entities). Rows that already exist are kept.
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'providers', COALESCE(MAX(id), 0) + 51 FROM providers
+WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'providers');
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'people', COALESCE(MAX(id), 0) + 51 FROM people
+WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'people');
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'equipments', COALESCE(MAX(id), 0) + 51 FROM equipments
+WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'equipments');
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'entry_request', COALESCE(MAX(id), 0) + 51 FROM entry_request
+WHERE NOT EXISTS (SELECT 1 FROM id_generator WHERE sequence_name = 'entry_request');
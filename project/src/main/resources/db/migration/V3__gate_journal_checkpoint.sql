@@ -0,0 +1,7 @@
+-- Last gate journal event applied to the database, per journal (one journal per gate station).
+-- Updated in the same transaction as the requests it covers, which makes the replay idempotent.
+CREATE TABLE gate_journal_checkpoint (
+    journal_id    VARCHAR(36) NOT NULL,
+    last_sequence BIGINT      NOT NULL,
+    PRIMARY KEY (journal_id)
+) ENGINE = InnoDB;
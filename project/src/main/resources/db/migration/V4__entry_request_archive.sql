@@ -0,0 +1,20 @@
+-- Closed months of entry_request, moved by EntryRequestArchiver. Same columns and indexes as
+-- the hot table. The foreign keys cascade so that deleting a person or an equipment, which
+-- removes its hot requests through JPA, also removes its archived ones.
+-- InnoDB does not allow foreign keys on partitioned tables, hence a separate table instead of
+-- monthly partitions.
+CREATE TABLE entry_request_archive (
+    id           BIGINT       NOT NULL,
+    id_equipment BIGINT       NOT NULL,
+    requester_id BIGINT,
+    purpose      VARCHAR(100) NOT NULL,
+    requested_at DATETIME(6),
+    requestType  VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_entry_request_archive_requested_at (requested_at, id),
+    INDEX idx_entry_request_archive_requester_equipment (requester_id, id_equipment, requested_at),
+    CONSTRAINT fk_entry_request_archive_equipment FOREIGN KEY (id_equipment)
+        REFERENCES equipments (id) ON DELETE CASCADE,
+    CONSTRAINT fk_entry_request_archive_requester FOREIGN KEY (requester_id)
+        REFERENCES people (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
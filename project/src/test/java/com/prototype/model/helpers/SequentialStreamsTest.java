@@ -0,0 +1,105 @@
+package com.prototype.model.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class SequentialStreamsTest {
+
+    private static final long CURSOR_ROWS = 5_000_000;
+
+    /**
+     * A stream standing for a database cursor: counts the rows it produces
+     * and records when it is opened and closed.
+     */
+    private static final class Cursor implements Supplier<Stream<Long>> {
+
+        final AtomicLong produced = new AtomicLong();
+        final AtomicInteger opened = new AtomicInteger();
+        final AtomicBoolean closed = new AtomicBoolean();
+        private final long first;
+        private final long rows;
+        private final List<String> events;
+        private final String name;
+
+        Cursor(String name, long first, long rows, List<String> events) {
+            this.name = name;
+            this.first = first;
+            this.rows = rows;
+            this.events = events;
+        }
+
+        @Override
+        public Stream<Long> get() {
+            opened.incrementAndGet();
+            events.add("open " + name);
+            return LongStream.range(first, first + rows).boxed()
+                    .peek(row -> produced.incrementAndGet())
+                    .onClose(() -> {
+                        closed.set(true);
+                        events.add("close " + name);
+                    });
+        }
+    }
+
+    @Test
+    void readsRowsOneAtATimeThroughTheIterator() {
+        List<String> events = new ArrayList<>();
+        Cursor archive = new Cursor("archive", 0, CURSOR_ROWS, events);
+        Cursor hot = new Cursor("hot", CURSOR_ROWS, CURSOR_ROWS, events);
+
+        try (Stream<Long> rows = SequentialStreams.concat(List.of(archive, hot))) {
+            Iterator<Long> it = rows.iterator();
+            assertEquals(0L, it.next().longValue());
+            assertEquals(1L, it.next().longValue());
+
+            assertTrue(archive.produced.get() <= 2, "filas leídas del archivo: " + archive.produced.get());
+            assertEquals(0, hot.opened.get());
+        }
+        assertTrue(archive.closed.get());
+        assertEquals(0, hot.opened.get());
+    }
+
+    @Test
+    void opensTheNextCursorOnlyAfterClosingThePreviousOne() {
+        List<String> events = new ArrayList<>();
+        Cursor archive = new Cursor("archive", 0, 3, events);
+        Cursor hot = new Cursor("hot", 3, 2, events);
+
+        try (Stream<Long> rows = SequentialStreams.concat(List.of(archive, hot))) {
+            Iterator<Long> it = rows.iterator();
+            for (long expected = 0; expected < 4; expected++) {
+                assertEquals(expected, it.next().longValue());
+            }
+            assertEquals(List.of("open archive", "close archive", "open hot"), events);
+            assertEquals(1, hot.produced.get());
+        }
+        assertEquals(List.of("open archive", "close archive", "open hot", "close hot"), events);
+    }
+
+    @Test
+    void keepsTheOrderOfTheSources() {
+        List<String> events = new ArrayList<>();
+        try (Stream<Long> rows = SequentialStreams.concat(List.of(
+                new Cursor("archive", 0, 3, events),
+                new Cursor("empty", 3, 0, events),
+                new Cursor("hot", 3, 3, events)))) {
+            assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L), rows.collect(Collectors.toList()));
+        }
+        assertFalse(events.isEmpty());
+        assertEquals("close hot", events.get(events.size() - 1));
+    }
+}
@@ -0,0 +1,285 @@
+package com.prototype.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.prototype.model.daos.Page;
+import com.prototype.model.daos.PageRequest;
+import com.prototype.model.daos.PersistenceBootstrap;
+import com.prototype.model.daos.UnitOfWork;
+import com.prototype.model.entities.Equipment;
+import com.prototype.model.entities.EntryRequest;
+import com.prototype.model.entities.Person;
+import com.prototype.model.entities.Provider;
+import com.prototype.model.enums.EquipmentStatus;
+import com.prototype.model.enums.EquipmentType;
+import com.prototype.model.enums.FrequencyType;
+import com.prototype.model.enums.RequestType;
+import com.prototype.model.enums.Role;
+import com.prototype.model.metrics.QueryBudget;
+import com.prototype.model.metrics.StatementCounter;
+
+/**
+ * Checks the {@link QueryBudget} of every annotated service method against
+ * a throwaway MySQL started by Testcontainers, migrated by Flyway and seeded
+ * with a few pages of every table, so an N+1 pattern shows up as a method
+ * over its budget. Skipped when no Docker daemon is available.
+ *
+ * <p>
+ * Read methods are called with arguments built from their parameter types.
+ * Write methods are called on seeded rows inside {@link UnitOfWork#dryRun},
+ * so their statements reach the database and are rolled back. Cascading
+ * deletes carry no budget: they load the children of the removed row.
+ * </p>
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryBudgetIT {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int PROVIDERS = 3;
+    private static final int EQUIPMENT_PER_PROVIDER = 10;
+    private static final int PEOPLE = 30;
+    private static final int REQUESTS = 200;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    private static ProviderService providerService;
+    private static PersonService personService;
+    private static EquipmentService equipmentService;
+    private static EntryRequestService entryRequestService;
+
+    private static Provider provider;
+    private static Person person;
+    private static Equipment techEquipment;
+    private static Equipment biomedicalEquipment;
+    private static EntryRequest request;
+
+    @BeforeAll
+    static void startDatabase() {
+        // System properties take precedence over persistence.xml, so the
+        // persistence unit never reaches the configured database.
+        System.setProperty("javax.persistence.jdbc.url", MYSQL.getJdbcUrl());
+        System.setProperty("javax.persistence.jdbc.user", MYSQL.getUsername());
+        System.setProperty("javax.persistence.jdbc.password", MYSQL.getPassword());
+        PersistenceBootstrap.start().join();
+
+        providerService = new ProviderService();
+        personService = new PersonService();
+        equipmentService = new EquipmentService();
+        entryRequestService = new EntryRequestService();
+        seed();
+    }
+
+    private static void seed() {
+        List<Equipment> equipment = new ArrayList<>();
+        for (int p = 0; p < PROVIDERS; p++) {
+            Provider created = providerService.createProvider("Proveedor " + p, "NIT-" + p,
+                    "proveedor" + p + "@example.com", "Calle " + p);
+            provider = provider != null ? provider : created;
+            for (int e = 0; e < EQUIPMENT_PER_PROVIDER; e++) {
+                String serial = "SER-" + p + "-" + e;
+                if (e % 2 == 0) {
+                    equipment.add(equipmentService.createTechEquipment(serial, "Marca", "Modelo",
+                            EquipmentType.TECH, EquipmentStatus.IN_USE, created.getId(), null, "Linux", 8,
+                            FrequencyType.FREQUENT));
+                } else {
+                    equipment.add(equipmentService.createBiomedicalEquipment(serial, "Marca", "Modelo",
+                            EquipmentType.BIOMEDICAL, EquipmentStatus.IN_USE, created.getId(), null, "IIa",
+                            "CAL-" + serial, FrequencyType.SPORADIC));
+                }
+            }
+        }
+        techEquipment = equipment.get(0);
+        biomedicalEquipment = equipment.get(1);
+
+        List<Person> people = new ArrayList<>();
+        Role[] roles = Role.values();
+        for (int i = 0; i < PEOPLE; i++) {
+            people.add(personService.createPerson("Persona " + i, "DOC-" + i, roles[i % roles.length]));
+        }
+        person = people.get(0);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            EntryRequest created = entryRequestService.createEntryRequest(people.get(i % PEOPLE).getId(),
+                    equipment.get(i % equipment.size()).getId(), "Mantenimiento " + i,
+                    i % 2 == 0 ? RequestType.ENTRY : RequestType.EXIT);
+            request = request != null ? request : created;
+        }
+    }
+
+    @Test
+    void readMethodsStayWithinTheirBudget() throws ReflectiveOperationException {
+        List<String> failures = new ArrayList<>();
+        for (Object service : List.of(providerService, personService, equipmentService, entryRequestService)) {
+            Long sampleId = sampleId(service);
+            Method[] methods = service.getClass().getMethods();
+            Arrays.sort(methods, Comparator.comparing(Method::getName).thenComparing(Method::getParameterCount));
+            for (Method method : methods) {
+                QueryBudget budget = method.getAnnotation(QueryBudget.class);
+                if (budget == null || isWrite(method)) {
+                    continue;
+                }
+                String name = service.getClass().getSimpleName() + "." + method.getName()
+                        + Arrays.toString(method.getParameterTypes()).replace("class ", "");
+                Object[] arguments = arguments(method, sampleId);
+                if (arguments == null) {
+                    failures.add(name + ": sin datos para los parámetros");
+                    continue;
+                }
+                long before = StatementCounter.current();
+                try {
+                    method.invoke(service, arguments);
+                } catch (InvocationTargetException e) {
+                    failures.add(name + ": " + e.getCause());
+                    continue;
+                }
+                check(failures, name, StatementCounter.current() - before, budget.value());
+            }
+        }
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    @Test
+    void writeMethodsStayWithinTheirBudgetAndAreRolledBack() throws ReflectiveOperationException {
+        Long providerId = provider.getId();
+        Long personId = person.getId();
+        Long techId = techEquipment.getId();
+        Long biomedicalId = biomedicalEquipment.getId();
+        Long otherPersonId = personService.findFirstPage(2).getContent().get(1).getId();
+
+        Map<String, Supplier<?>> writes = new LinkedHashMap<>();
+        writes.put("ProviderService.createProvider", () -> providerService.createProvider(
+                "Proveedor nuevo", "NIT-X", "nuevo@example.com", "Calle X"));
+        writes.put("ProviderService.updateProvider", () -> providerService.updateProvider(
+                providerId, "Proveedor editado", "NIT-Y", "editado@example.com", "Calle Y"));
+        writes.put("PersonService.createPerson", () -> personService.createPerson(
+                "Persona nueva", "DOC-X", Role.NURSE));
+        writes.put("PersonService.updatePerson", () -> personService.updatePerson(
+                personId, "Persona editada", "DOC-Y", Role.DOCTOR));
+        writes.put("EquipmentService.createTechEquipment", () -> equipmentService.createTechEquipment(
+                "SER-X", "Marca", "Modelo", EquipmentType.TECH, EquipmentStatus.NEW, providerId, null,
+                "Windows", 16, FrequencyType.FREQUENT));
+        writes.put("EquipmentService.updateTechEquipment", () -> equipmentService.updateTechEquipment(
+                techId, "SER-Y", "Marca", "Modelo", EquipmentType.TECH, EquipmentStatus.DAMAGED, providerId,
+                null, "Windows", 32, FrequencyType.SPORADIC));
+        writes.put("EquipmentService.createBiomedicalEquipment", () -> equipmentService.createBiomedicalEquipment(
+                "SER-Z", "Marca", "Modelo", EquipmentType.BIOMEDICAL, EquipmentStatus.NEW, providerId, null,
+                "IIb", "CAL-Z", FrequencyType.SPORADIC));
+        writes.put("EquipmentService.updateBiomedicalEquipment", () -> equipmentService.updateBiomedicalEquipment(
+                biomedicalId, "SER-W", "Marca", "Modelo", EquipmentType.BIOMEDICAL, EquipmentStatus.IN_STORAGE,
+                providerId, null, "III", "CAL-W", FrequencyType.FREQUENT));
+        writes.put("EntryRequestService.createEntryRequest", () -> entryRequestService.createEntryRequest(
+                personId, techId, "Revisión", RequestType.ENTRY));
+        writes.put("EntryRequestService.registerScan", () -> entryRequestService.registerScan(
+                personId, techId, null));
+        writes.put("EntryRequestService.updateEntryRequest", () -> entryRequestService.updateEntryRequest(
+                request.getId(), otherPersonId, biomedicalId, "Traslado", RequestType.EXIT));
+        writes.put("EntryRequestService.deleteEntryRequest", () -> entryRequestService.deleteEntryRequest(
+                request.getId()));
+
+        long people = personService.findAll().size();
+        long requests = entryRequestService.findAll().size();
+
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Supplier<?>> write : writes.entrySet()) {
+            int budget = budgetOf(write.getKey());
+            long before = StatementCounter.current();
+            try {
+                UnitOfWork.dryRun(write.getValue());
+            } catch (RuntimeException e) {
+                failures.add(write.getKey() + ": " + e);
+                continue;
+            }
+            check(failures, write.getKey(), StatementCounter.current() - before, budget);
+        }
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+
+        assertEquals(PROVIDERS, providerService.findAll().size());
+        assertEquals(people, personService.findAll().size());
+        assertEquals(requests, entryRequestService.findAll().size());
+        assertEquals("Proveedor 0", providerService.findById(providerId).getName());
+    }
+
+    private static void check(List<String> failures, String name, long statements, int budget) {
+        if (statements > budget) {
+            failures.add(name + ": " + statements + " sentencias (presupuesto " + budget + ")");
+        }
+    }
+
+    /**
+     * Tells the annotated writes, which are covered by their own test, from
+     * the reads.
+     */
+    private static boolean isWrite(Method method) {
+        String name = method.getName();
+        return name.startsWith("create") || name.startsWith("update") || name.startsWith("delete")
+                || name.startsWith("register");
+    }
+
+    /**
+     * Returns the budget declared on a service method given as
+     * {@code Service.method}.
+     */
+    private static int budgetOf(String qualifiedName) throws ClassNotFoundException {
+        int dot = qualifiedName.indexOf('.');
+        Class<?> service = Class.forName(QueryBudgetIT.class.getPackageName() + "." + qualifiedName.substring(0, dot));
+        String method = qualifiedName.substring(dot + 1);
+        return Arrays.stream(service.getMethods())
+                .filter(m -> m.getName().equals(method) && m.isAnnotationPresent(QueryBudget.class))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(qualifiedName + " no declara @QueryBudget"))
+                .getAnnotation(QueryBudget.class)
+                .value();
+    }
+
+    /**
+     * Builds the arguments of a read method, or returns {@code null} if a
+     * parameter type is not supported.
+     */
+    private static Object[] arguments(Method method, Long sampleId) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == int.class) {
+                arguments[i] = PAGE_SIZE;
+            } else if (types[i] == PageRequest.class) {
+                arguments[i] = PageRequest.of("id", false, PAGE_SIZE);
+            } else if (types[i] == Long.class && sampleId != null) {
+                arguments[i] = sampleId;
+            } else {
+                return null;
+            }
+        }
+        return arguments;
+    }
+
+    /**
+     * Returns the ID of the first row of the service, read through its
+     * {@code findFirstPage} method.
+     */
+    private static Long sampleId(Object service) throws ReflectiveOperationException {
+        Page<?> page = (Page<?>) service.getClass().getMethod("findFirstPage", int.class).invoke(service, 1);
+        if (page.getContent().isEmpty()) {
+            return null;
+        }
+        Object first = page.getContent().get(0);
+        return (Long) first.getClass().getMethod("getId").invoke(first);
+    }
+}